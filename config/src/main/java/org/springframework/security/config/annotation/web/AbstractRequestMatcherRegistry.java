@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.security.web.util.matcher.RegexRequestMatcher;
+import org.springframework.security.web.util.matcher.RegexSetRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
@@ -266,7 +267,8 @@ public abstract class AbstractRequestMatcherRegistry<C> {
 		}
 
 		/**
-		 * Create a {@link List} of {@link RegexRequestMatcher} instances.
+		 * Create a {@link List} of {@link RegexRequestMatcher} instances. Several patterns
+		 * are combined into a single {@link RegexSetRequestMatcher}.
 		 * @param httpMethod the {@link HttpMethod} to use or {@code null} for any
 		 * {@link HttpMethod}.
 		 * @param regexPatterns the regular expressions to create
@@ -275,9 +277,17 @@ public abstract class AbstractRequestMatcherRegistry<C> {
 		 */
 		static List<RequestMatcher> regexMatchers(HttpMethod httpMethod, String... regexPatterns) {
 			String method = (httpMethod != null) ? httpMethod.toString() : null;
-			List<RequestMatcher> matchers = new ArrayList<>();
+			List<RegexRequestMatcher> regexMatchers = new ArrayList<>();
 			for (String pattern : regexPatterns) {
-				matchers.add(new RegexRequestMatcher(pattern, method));
+				regexMatchers.add(new RegexRequestMatcher(pattern, method));
+			}
+			List<RequestMatcher> matchers = new ArrayList<>();
+			if (regexMatchers.size() > 1) {
+				// all patterns share the same configuration, so they can be tried together
+				matchers.add(new RegexSetRequestMatcher(regexMatchers));
+			}
+			else {
+				matchers.addAll(regexMatchers);
 			}
 			return matchers;
 		}
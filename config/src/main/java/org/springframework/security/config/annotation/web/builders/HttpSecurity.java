@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,18 @@
 package org.springframework.security.config.annotation.web.builders;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import javax.servlet.Filter;
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.log.LogMessage;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -72,15 +77,24 @@ import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.PortMapper;
 import org.springframework.security.web.PortMapperImpl;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.session.CompositeSessionAuthenticationStrategy;
+import org.springframework.security.web.authentication.session.NullAuthenticatedSessionStrategy;
+import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
 import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
+import org.springframework.security.web.context.NullSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.savedrequest.RequestCacheAwareFilter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.security.web.session.SessionManagementFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RegexRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCache;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCacheFilter;
 import org.springframework.util.Assert;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.filter.CorsFilter;
@@ -125,6 +139,8 @@ import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 public final class HttpSecurity extends AbstractConfiguredSecurityBuilder<DefaultSecurityFilterChain, HttpSecurity>
 		implements SecurityBuilder<DefaultSecurityFilterChain>, HttpSecurityBuilder<HttpSecurity> {
 
+	private final Log logger = LogFactory.getLog(getClass());
+
 	private final RequestMatcherConfigurer requestMatcherConfigurer;
 
 	private List<Filter> filters = new ArrayList<>();
@@ -133,6 +149,10 @@ public final class HttpSecurity extends AbstractConfiguredSecurityBuilder<Defaul
 
 	private FilterComparator comparator = new FilterComparator();
 
+	private boolean cacheRequestMatcherResults;
+
+	private boolean specializeFilterChain;
+
 	/**
 	 * Creates a new instance
 	 * @param objectPostProcessor the {@link ObjectPostProcessor} that should be used
@@ -2520,12 +2540,88 @@ public final class HttpSecurity extends AbstractConfiguredSecurityBuilder<Defaul
 		setSharedObject(AuthenticationManager.class, getAuthenticationRegistry().build());
 	}
 
+	/**
+	 * Remembers the result of each {@link AntPathRequestMatcher} of this filter chain for
+	 * the rest of the request. Since results are shared by matchers that are equal, a
+	 * pattern that is used by several filters, such as the login processing URL, is only
+	 * matched once per request.
+	 * @return the {@link HttpSecurity} for further customizations
+	 * @since 5.5
+	 * @see RequestMatcherResultCache
+	 */
+	public HttpSecurity cacheRequestMatcherResults() {
+		this.cacheRequestMatcherResults = true;
+		return HttpSecurity.this;
+	}
+
+	/**
+	 * Removes filters that cannot act on any request given the collaborators they were
+	 * configured with, for example a {@link RequestCacheAwareFilter} that uses a
+	 * {@link NullRequestCache} in a stateless chain. The removed filters are logged when
+	 * the chain is built.
+	 * @return the {@link HttpSecurity} for further customizations
+	 * @since 5.5
+	 */
+	public HttpSecurity specializeFilterChain() {
+		this.specializeFilterChain = true;
+		return HttpSecurity.this;
+	}
+
 	@Override
 	protected DefaultSecurityFilterChain performBuild() {
 		this.filters.sort(this.comparator);
+		if (this.specializeFilterChain) {
+			removeInertFilters();
+		}
+		if (this.cacheRequestMatcherResults) {
+			this.filters.add(0, new RequestMatcherResultCacheFilter());
+		}
 		return new DefaultSecurityFilterChain(this.requestMatcher, this.filters);
 	}
 
+	private void removeInertFilters() {
+		List<Filter> removed = new ArrayList<>();
+		for (Iterator<Filter> filters = this.filters.iterator(); filters.hasNext();) {
+			Filter filter = filters.next();
+			if (isInert(filter)) {
+				filters.remove();
+				removed.add(filter);
+			}
+		}
+		if (!removed.isEmpty()) {
+			this.logger.info(LogMessage.format("Removed inert filters %s, remaining filters %s", removed, this.filters));
+		}
+	}
+
+	/**
+	 * Only exact types are considered, since subclasses may behave differently.
+	 */
+	private static boolean isInert(Filter filter) {
+		if (filter.getClass() == RequestCacheAwareFilter.class) {
+			return ((RequestCacheAwareFilter) filter).getRequestCache().getClass() == NullRequestCache.class;
+		}
+		if (filter.getClass() == SessionManagementFilter.class) {
+			SessionManagementFilter sessionManagement = (SessionManagementFilter) filter;
+			return sessionManagement.getSecurityContextRepository() instanceof NullSecurityContextRepository
+					&& sessionManagement.getInvalidSessionStrategy() == null
+					&& isNullStrategy(sessionManagement.getSessionAuthenticationStrategy());
+		}
+		return false;
+	}
+
+	private static boolean isNullStrategy(SessionAuthenticationStrategy strategy) {
+		if (strategy.getClass() == CompositeSessionAuthenticationStrategy.class) {
+			for (SessionAuthenticationStrategy delegate : ((CompositeSessionAuthenticationStrategy) strategy)
+					.getDelegateStrategies()) {
+				if (!isNullStrategy(delegate)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return strategy instanceof NullAuthenticatedSessionStrategy;
+	}
+
 	@Override
 	public HttpSecurity authenticationProvider(AuthenticationProvider authenticationProvider) {
 		getAuthenticationRegistry().authenticationProvider(authenticationProvider);
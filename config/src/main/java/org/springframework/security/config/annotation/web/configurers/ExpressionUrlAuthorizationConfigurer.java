@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -201,6 +201,10 @@ public final class ExpressionUrlAuthorizationConfigurer<H extends HttpSecurityBu
 		return "hasIpAddress('" + ipAddressExpression + "')";
 	}
 
+	private static String hasIpAddressIn(String setName) {
+		return "hasIpAddressIn('" + setName + "')";
+	}
+
 	public final class ExpressionInterceptUrlRegistry extends
 			ExpressionUrlAuthorizationConfigurer<H>.AbstractInterceptUrlRegistry<ExpressionInterceptUrlRegistry, AuthorizedUrl> {
 
@@ -366,6 +370,18 @@ public final class ExpressionUrlAuthorizationConfigurer<H extends HttpSecurityBu
 			return access(ExpressionUrlAuthorizationConfigurer.hasIpAddress(ipaddressExpression));
 		}
 
+		/**
+		 * Specify that URLs require an IP Address in a named set of addresses, as
+		 * registered with {@code DefaultWebSecurityExpressionHandler#setIpAddressSets}.
+		 * @param setName the name of the set of addresses
+		 * @return the {@link ExpressionUrlAuthorizationConfigurer} for further
+		 * customization
+		 * @since 5.5
+		 */
+		public ExpressionInterceptUrlRegistry hasIpAddressIn(String setName) {
+			return access(ExpressionUrlAuthorizationConfigurer.hasIpAddressIn(setName));
+		}
+
 		/**
 		 * Specify that URLs are allowed by anyone.
 		 * @return the {@link ExpressionUrlAuthorizationConfigurer} for further
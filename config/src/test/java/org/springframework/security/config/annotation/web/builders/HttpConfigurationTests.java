@@ -17,7 +17,9 @@
 package org.springframework.security.config.annotation.web.builders;
 
 import java.io.IOException;
+import java.util.List;
 
+import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -34,11 +36,17 @@ import org.springframework.security.cas.web.CasAuthenticationFilter;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.config.test.SpringTestRule;
 import org.springframework.security.core.userdetails.PasswordEncodedUser;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.savedrequest.RequestCacheAwareFilter;
+import org.springframework.security.web.session.SessionManagementFilter;
+import org.springframework.security.web.util.matcher.RequestMatcherResultCacheFilter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
@@ -88,6 +96,34 @@ public class HttpConfigurationTests {
 		this.mockMvc.perform(get("/api/b")).andExpect(status().isUnauthorized());
 	}
 
+	@Test
+	public void configureWhenSpecializeFilterChainAndStatelessThenInertFiltersRemoved() throws Exception {
+		this.spring.register(SpecializeFilterChainConfig.class).autowire();
+		List<Filter> filters = this.spring.getContext().getBean(FilterChainProxy.class).getFilters("/");
+		assertThat(filters).noneMatch((filter) -> filter instanceof RequestCacheAwareFilter);
+		assertThat(filters).noneMatch((filter) -> filter instanceof SessionManagementFilter);
+		this.mockMvc.perform(get("/")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	public void configureWhenSpecializeFilterChainAndSessionsThenFiltersKept() {
+		this.spring.register(SpecializeFilterChainSessionConfig.class).autowire();
+		List<Filter> filters = this.spring.getContext().getBean(FilterChainProxy.class).getFilters("/");
+		assertThat(filters).anyMatch((filter) -> filter instanceof RequestCacheAwareFilter);
+		assertThat(filters).anyMatch((filter) -> filter instanceof SessionManagementFilter);
+	}
+
+	@Test
+	public void configureWhenCacheRequestMatcherResultsThenCacheFilterFirstAndAuthorizationApplied()
+			throws Exception {
+		this.spring.register(CacheRequestMatcherResultsConfig.class).autowire();
+		List<Filter> filters = this.spring.getContext().getBean(FilterChainProxy.class).getFilters("/");
+		assertThat(filters.get(0)).isInstanceOf(RequestMatcherResultCacheFilter.class);
+		this.mockMvc.perform(get("/public")).andExpect(status().isNotFound());
+		this.mockMvc.perform(get("/private")).andExpect(status().isUnauthorized());
+		this.mockMvc.perform(get("/public/other")).andExpect(status().isUnauthorized());
+	}
+
 	@EnableWebSecurity
 	static class UnregisteredFilterConfig extends WebSecurityConfigurerAdapter {
 
@@ -135,6 +171,64 @@ public class HttpConfigurationTests {
 
 	}
 
+	@EnableWebSecurity
+	static class SpecializeFilterChainConfig extends WebSecurityConfigurerAdapter {
+
+		@Override
+		protected void configure(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.specializeFilterChain()
+				.authorizeRequests()
+					.anyRequest().authenticated()
+					.and()
+				.httpBasic()
+					.and()
+				.csrf()
+					.disable()
+				.sessionManagement()
+					.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+					.sessionFixation().none();
+			// @formatter:on
+		}
+
+	}
+
+	@EnableWebSecurity
+	static class SpecializeFilterChainSessionConfig extends WebSecurityConfigurerAdapter {
+
+		@Override
+		protected void configure(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.specializeFilterChain()
+				.authorizeRequests()
+					.anyRequest().authenticated()
+					.and()
+				.httpBasic();
+			// @formatter:on
+		}
+
+	}
+
+	@EnableWebSecurity
+	static class CacheRequestMatcherResultsConfig extends WebSecurityConfigurerAdapter {
+
+		@Override
+		protected void configure(HttpSecurity http) throws Exception {
+			// @formatter:off
+			http
+				.cacheRequestMatcherResults()
+				.authorizeRequests()
+					.antMatchers("/public").permitAll()
+					.anyRequest().authenticated()
+					.and()
+				.httpBasic();
+			// @formatter:on
+		}
+
+	}
+
 	@EnableWebSecurity
 	static class RequestMatcherRegistryConfigs extends WebSecurityConfigurerAdapter {
 
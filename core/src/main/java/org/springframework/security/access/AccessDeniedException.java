@@ -16,6 +16,8 @@
 
 package org.springframework.security.access;
 
+import org.springframework.security.core.SecurityExceptionStackTraces;
+
 /**
  * Thrown if an {@link org.springframework.security.core.Authentication Authentication}
  * object does not hold a required authority.
@@ -42,4 +44,26 @@ public class AccessDeniedException extends RuntimeException {
 		super(msg, cause);
 	}
 
+	/**
+	 * Records the stack trace unless disabled through
+	 * {@link SecurityExceptionStackTraces#setEnabled(boolean)}
+	 * @return this exception
+	 * @since 5.5
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return (SecurityExceptionStackTraces.isEnabled() || isStackTraceRequired()) ? super.fillInStackTrace()
+				: this;
+	}
+
+	/**
+	 * Whether the stack trace is recorded even when disabled through
+	 * {@link SecurityExceptionStackTraces#setEnabled(boolean)}. Invoked while this
+	 * exception is being constructed.
+	 * @return {@code false} by default
+	 */
+	boolean isStackTraceRequired() {
+		return false;
+	}
+
 }
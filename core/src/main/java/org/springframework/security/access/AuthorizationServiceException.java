@@ -45,4 +45,13 @@ public class AuthorizationServiceException extends AccessDeniedException {
 		super(msg, cause);
 	}
 
+	/**
+	 * Always records the stack trace, since this exception signals a system problem
+	 * rather than a rejected request.
+	 */
+	@Override
+	boolean isStackTraceRequired() {
+		return true;
+	}
+
 }
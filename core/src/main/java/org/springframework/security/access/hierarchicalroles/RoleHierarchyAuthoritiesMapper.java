@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,9 @@ package org.springframework.security.access.hierarchicalroles;
 import java.util.Collection;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityRegistry;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.util.Assert;
 
 /**
  * @author Luke Taylor
@@ -28,13 +30,31 @@ public class RoleHierarchyAuthoritiesMapper implements GrantedAuthoritiesMapper
 
 	private final RoleHierarchy roleHierarchy;
 
+	private AuthorityRegistry authorityRegistry;
+
 	public RoleHierarchyAuthoritiesMapper(RoleHierarchy roleHierarchy) {
 		this.roleHierarchy = roleHierarchy;
 	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> mapAuthorities(Collection<? extends GrantedAuthority> authorities) {
-		return this.roleHierarchy.getReachableGrantedAuthorities(authorities);
+		Collection<? extends GrantedAuthority> reachable = this.roleHierarchy
+				.getReachableGrantedAuthorities(authorities);
+		if (this.authorityRegistry != null) {
+			return this.authorityRegistry.getAuthorities(reachable);
+		}
+		return reachable;
+	}
+
+	/**
+	 * Sets the {@link AuthorityRegistry} used to share identical sets of reachable
+	 * authorities between users
+	 * @param authorityRegistry the {@link AuthorityRegistry} to use
+	 * @since 5.5
+	 */
+	public void setAuthorityRegistry(AuthorityRegistry authorityRegistry) {
+		Assert.notNull(authorityRegistry, "authorityRegistry cannot be null");
+		this.authorityRegistry = authorityRegistry;
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.springframework.security.access.hierarchicalroles;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +32,8 @@ import org.springframework.core.log.LogMessage;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * <p>
@@ -73,6 +77,14 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
  * In addition to shorter rules this will also make your access rules more readable and
  * your intentions clearer.
  *
+ * <p>
+ * The reachable authorities of a set of {@link SimpleGrantedAuthority} instances are
+ * memoized in a bounded cache (see {@link #setReachableAuthoritiesCacheSize(int)}), so
+ * that each distinct set is only resolved once. Cached results are immutable and shared
+ * between callers. The hierarchy can be replaced at runtime by calling
+ * {@link #setHierarchy(String)} again; readers are never blocked and observe either the
+ * previous or the new hierarchy.
+ *
  * @author Michael Mayr
  */
 public class RoleHierarchyImpl implements RoleHierarchy {
@@ -80,39 +92,59 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 	private static final Log logger = LogFactory.getLog(RoleHierarchyImpl.class);
 
 	/**
-	 * Raw hierarchy configuration where each line represents single or multiple level
-	 * role chain.
+	 * The default maximum number of distinct authority sets whose reachable authorities
+	 * are memoized
 	 */
-	private String roleHierarchyStringRepresentation = null;
+	public static final int DEFAULT_REACHABLE_AUTHORITIES_CACHE_SIZE = 256;
 
-	/**
-	 * {@code rolesReachableInOneStepMap} is a Map that under the key of a specific role
-	 * name contains a set of all roles reachable from this role in 1 step (i.e. parsed
-	 * {@link #roleHierarchyStringRepresentation} grouped by the higher role)
-	 */
-	private Map<String, Set<GrantedAuthority>> rolesReachableInOneStepMap = null;
+	private int reachableAuthoritiesCacheSize = DEFAULT_REACHABLE_AUTHORITIES_CACHE_SIZE;
 
 	/**
-	 * {@code rolesReachableInOneOrMoreStepsMap} is a Map that under the key of a specific
-	 * role name contains a set of all roles reachable from this role in 1 or more steps
-	 * (i.e. fully resolved hierarchy from {@link #rolesReachableInOneStepMap})
+	 * The currently active hierarchy. Replaced as a whole on every call to
+	 * {@link #setHierarchy(String)} so that readers never observe a partially built
+	 * hierarchy.
 	 */
-	private Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap = null;
+	private volatile ResolvedRoleHierarchy hierarchy = new ResolvedRoleHierarchy(Collections.emptyMap(),
+			this.reachableAuthoritiesCacheSize);
 
 	/**
 	 * Set the role hierarchy and pre-calculate for every role the set of all reachable
 	 * roles, i.e. all roles lower in the hierarchy of every given role. Pre-calculation
 	 * is done for performance reasons (reachable roles can then be calculated in O(1)
 	 * time). During pre-calculation, cycles in role hierarchy are detected and will cause
-	 * a <tt>CycleInRoleHierarchyException</tt> to be thrown.
+	 * a <tt>CycleInRoleHierarchyException</tt> to be thrown, in which case the previously
+	 * set hierarchy remains in effect.
+	 *
+	 * <p>
+	 * This method may be invoked at runtime to reload the hierarchy. The new hierarchy is
+	 * fully resolved before it replaces the current one, so concurrent calls to
+	 * {@link #getReachableGrantedAuthorities(Collection)} are not blocked.
 	 * @param roleHierarchyStringRepresentation - String definition of the role hierarchy.
 	 */
 	public void setHierarchy(String roleHierarchyStringRepresentation) {
-		this.roleHierarchyStringRepresentation = roleHierarchyStringRepresentation;
+		Assert.notNull(roleHierarchyStringRepresentation, "roleHierarchyStringRepresentation cannot be null");
 		logger.debug(LogMessage.format("setHierarchy() - The following role hierarchy was set: %s",
 				roleHierarchyStringRepresentation));
-		buildRolesReachableInOneStepMap();
-		buildRolesReachableInOneOrMoreStepsMap();
+		Map<String, Set<GrantedAuthority>> rolesReachableInOneStepMap = buildRolesReachableInOneStepMap(
+				roleHierarchyStringRepresentation);
+		Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap = buildRolesReachableInOneOrMoreStepsMap(
+				rolesReachableInOneStepMap);
+		this.hierarchy = new ResolvedRoleHierarchy(rolesReachableInOneOrMoreStepsMap,
+				this.reachableAuthoritiesCacheSize);
+	}
+
+	/**
+	 * Sets the maximum number of distinct authority sets whose reachable authorities are
+	 * memoized. A value of {@code 0} disables memoization. Defaults to
+	 * {@link #DEFAULT_REACHABLE_AUTHORITIES_CACHE_SIZE}.
+	 * @param reachableAuthoritiesCacheSize the maximum size of the cache
+	 * @since 5.5
+	 */
+	public void setReachableAuthoritiesCacheSize(int reachableAuthoritiesCacheSize) {
+		Assert.isTrue(reachableAuthoritiesCacheSize >= 0, "reachableAuthoritiesCacheSize cannot be negative");
+		this.reachableAuthoritiesCacheSize = reachableAuthoritiesCacheSize;
+		this.hierarchy = new ResolvedRoleHierarchy(this.hierarchy.rolesReachableInOneOrMoreStepsMap,
+				reachableAuthoritiesCacheSize);
 	}
 
 	@Override
@@ -121,6 +153,34 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 		if (authorities == null || authorities.isEmpty()) {
 			return AuthorityUtils.NO_AUTHORITIES;
 		}
+		ResolvedRoleHierarchy hierarchy = this.hierarchy;
+		Set<String> names = cacheKey(authorities);
+		if (names == null) {
+			return resolveReachableGrantedAuthorities(hierarchy.rolesReachableInOneOrMoreStepsMap, authorities);
+		}
+		return hierarchy.reachableAuthoritiesCache.get(names);
+	}
+
+	/**
+	 * Returns the names of the given authorities if, and only if, they can be safely
+	 * memoized by name, i.e. they are all {@link SimpleGrantedAuthority} instances.
+	 * Otherwise returns {@code null} so that the original authority instances are
+	 * preserved in the result.
+	 */
+	private static Set<String> cacheKey(Collection<? extends GrantedAuthority> authorities) {
+		Set<String> names = new HashSet<>();
+		for (GrantedAuthority authority : authorities) {
+			if (authority == null || authority.getClass() != SimpleGrantedAuthority.class) {
+				return null;
+			}
+			names.add(authority.getAuthority());
+		}
+		return names;
+	}
+
+	private static List<GrantedAuthority> resolveReachableGrantedAuthorities(
+			Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap,
+			Collection<? extends GrantedAuthority> authorities) {
 		Set<GrantedAuthority> reachableRoles = new HashSet<>();
 		Set<String> processedNames = new HashSet<>();
 		for (GrantedAuthority authority : authorities) {
@@ -136,7 +196,7 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 			// Add original authority
 			reachableRoles.add(authority);
 			// Add roles reachable in one or more steps
-			Set<GrantedAuthority> lowerRoles = this.rolesReachableInOneOrMoreStepsMap.get(authority.getAuthority());
+			Set<GrantedAuthority> lowerRoles = rolesReachableInOneOrMoreStepsMap.get(authority.getAuthority());
 			if (lowerRoles == null) {
 				continue; // No hierarchy for the role
 			}
@@ -156,21 +216,22 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 	 * Parse input and build the map for the roles reachable in one step: the higher role
 	 * will become a key that references a set of the reachable lower roles.
 	 */
-	private void buildRolesReachableInOneStepMap() {
-		this.rolesReachableInOneStepMap = new HashMap<>();
-		for (String line : this.roleHierarchyStringRepresentation.split("\n")) {
+	private static Map<String, Set<GrantedAuthority>> buildRolesReachableInOneStepMap(
+			String roleHierarchyStringRepresentation) {
+		Map<String, Set<GrantedAuthority>> rolesReachableInOneStepMap = new HashMap<>();
+		for (String line : roleHierarchyStringRepresentation.split("\n")) {
 			// Split on > and trim excessive whitespace
 			String[] roles = line.trim().split("\\s+>\\s+");
 			for (int i = 1; i < roles.length; i++) {
 				String higherRole = roles[i - 1];
 				GrantedAuthority lowerRole = new SimpleGrantedAuthority(roles[i]);
 				Set<GrantedAuthority> rolesReachableInOneStepSet;
-				if (!this.rolesReachableInOneStepMap.containsKey(higherRole)) {
+				if (!rolesReachableInOneStepMap.containsKey(higherRole)) {
 					rolesReachableInOneStepSet = new HashSet<>();
-					this.rolesReachableInOneStepMap.put(higherRole, rolesReachableInOneStepSet);
+					rolesReachableInOneStepMap.put(higherRole, rolesReachableInOneStepSet);
 				}
 				else {
-					rolesReachableInOneStepSet = this.rolesReachableInOneStepMap.get(higherRole);
+					rolesReachableInOneStepSet = rolesReachableInOneStepMap.get(higherRole);
 				}
 				rolesReachableInOneStepSet.add(lowerRole);
 				logger.debug(LogMessage.format(
@@ -178,6 +239,7 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 						higherRole, lowerRole));
 			}
 		}
+		return rolesReachableInOneStepMap;
 	}
 
 	/**
@@ -186,30 +248,55 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 	 * CycleInRoleHierarchyException if a cycle in the role hierarchy definition is
 	 * detected)
 	 */
-	private void buildRolesReachableInOneOrMoreStepsMap() {
-		this.rolesReachableInOneOrMoreStepsMap = new HashMap<>();
+	private static Map<String, Set<GrantedAuthority>> buildRolesReachableInOneOrMoreStepsMap(
+			Map<String, Set<GrantedAuthority>> rolesReachableInOneStepMap) {
+		Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap = new HashMap<>();
 		// iterate over all higher roles from rolesReachableInOneStepMap
-		for (String roleName : this.rolesReachableInOneStepMap.keySet()) {
-			Set<GrantedAuthority> rolesToVisitSet = new HashSet<>(this.rolesReachableInOneStepMap.get(roleName));
+		for (String roleName : rolesReachableInOneStepMap.keySet()) {
+			Set<GrantedAuthority> rolesToVisitSet = new HashSet<>(rolesReachableInOneStepMap.get(roleName));
 			Set<GrantedAuthority> visitedRolesSet = new HashSet<>();
 			while (!rolesToVisitSet.isEmpty()) {
 				// take a role from the rolesToVisit set
 				GrantedAuthority lowerRole = rolesToVisitSet.iterator().next();
 				rolesToVisitSet.remove(lowerRole);
 				if (!visitedRolesSet.add(lowerRole)
-						|| !this.rolesReachableInOneStepMap.containsKey(lowerRole.getAuthority())) {
+						|| !rolesReachableInOneStepMap.containsKey(lowerRole.getAuthority())) {
 					continue; // Already visited role or role with missing hierarchy
 				}
 				else if (roleName.equals(lowerRole.getAuthority())) {
 					throw new CycleInRoleHierarchyException();
 				}
-				rolesToVisitSet.addAll(this.rolesReachableInOneStepMap.get(lowerRole.getAuthority()));
+				rolesToVisitSet.addAll(rolesReachableInOneStepMap.get(lowerRole.getAuthority()));
 			}
-			this.rolesReachableInOneOrMoreStepsMap.put(roleName, visitedRolesSet);
+			rolesReachableInOneOrMoreStepsMap.put(roleName, visitedRolesSet);
 			logger.debug(LogMessage.format(
 					"buildRolesReachableInOneOrMoreStepsMap() - From role %s one can reach %s in one or more steps.",
 					roleName, visitedRolesSet));
 		}
+		return rolesReachableInOneOrMoreStepsMap;
+	}
+
+	/**
+	 * An immutable, fully resolved role hierarchy together with the memoized reachable
+	 * authorities computed from it.
+	 */
+	private static final class ResolvedRoleHierarchy {
+
+		private final Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap;
+
+		private final ConcurrentLruCache<Set<String>, Collection<GrantedAuthority>> reachableAuthoritiesCache;
+
+		private ResolvedRoleHierarchy(Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap,
+				int cacheSize) {
+			this.rolesReachableInOneOrMoreStepsMap = rolesReachableInOneOrMoreStepsMap;
+			this.reachableAuthoritiesCache = new ConcurrentLruCache<>(cacheSize, this::resolve);
+		}
+
+		private Collection<GrantedAuthority> resolve(Set<String> names) {
+			List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(names.toArray(new String[0]));
+			return Collections.unmodifiableList(
+					resolveReachableGrantedAuthorities(this.rolesReachableInOneOrMoreStepsMap, authorities));
+		}
 
 	}
 
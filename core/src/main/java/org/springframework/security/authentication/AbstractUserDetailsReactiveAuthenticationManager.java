@@ -27,6 +27,7 @@ import org.springframework.context.MessageSourceAware;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.SpringSecurityMessageSource;
+import org.springframework.security.core.userdetails.AsyncReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsChecker;
@@ -60,6 +61,8 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 
 	private Scheduler scheduler = Schedulers.boundedElastic();
 
+	private PasswordHashingBulkhead passwordHashingBulkhead;
+
 	private UserDetailsChecker preAuthenticationChecks = this::defaultPreAuthenticationChecks;
 
 	private UserDetailsChecker postAuthenticationChecks = this::defaultPostAuthenticationChecks;
@@ -98,7 +101,7 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		return retrieveUser(username)
 				.doOnNext(this.preAuthenticationChecks::check)
 				.publishOn(this.scheduler)
-				.filter((userDetails) -> this.passwordEncoder.matches(presentedPassword, userDetails.getPassword()))
+				.filter((userDetails) -> matches(presentedPassword, userDetails.getPassword()))
 				.switchIfEmpty(Mono.defer(() -> Mono.error(new BadCredentialsException("Invalid Credentials"))))
 				.flatMap((userDetails) -> upgradeEncodingIfNecessary(userDetails, presentedPassword))
 				.doOnNext(this.postAuthenticationChecks::check)
@@ -106,9 +109,22 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		// @formatter:on
 	}
 
+	private boolean matches(String presentedPassword, String encodedPassword) {
+		if (this.passwordHashingBulkhead == null) {
+			return this.passwordEncoder.matches(presentedPassword, encodedPassword);
+		}
+		return this.passwordHashingBulkhead
+				.verify(() -> this.passwordEncoder.matches(presentedPassword, encodedPassword));
+	}
+
 	private Mono<UserDetails> upgradeEncodingIfNecessary(UserDetails userDetails, String presentedPassword) {
 		boolean upgradeEncoding = this.userDetailsPasswordService != null
 				&& this.passwordEncoder.upgradeEncoding(userDetails.getPassword());
+		if (upgradeEncoding && this.userDetailsPasswordService instanceof AsyncReactiveUserDetailsPasswordService) {
+			// the asynchronous service encodes the password once it applies the update
+			return ((AsyncReactiveUserDetailsPasswordService) this.userDetailsPasswordService)
+					.updatePassword(userDetails, () -> this.passwordEncoder.encode(presentedPassword));
+		}
 		if (upgradeEncoding) {
 			String newPassword = this.passwordEncoder.encode(presentedPassword);
 			return this.userDetailsPasswordService.updatePassword(userDetails, newPassword);
@@ -148,6 +164,20 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		this.scheduler = scheduler;
 	}
 
+	/**
+	 * Sets the {@link PasswordHashingBulkhead} that limits how many passwords are
+	 * verified at the same time. Verifications wait for the bulkhead on the
+	 * {@link #setScheduler(Scheduler) Scheduler}, which must therefore allow blocking, as
+	 * the default does. When the bulkhead is full, authentication fails with an
+	 * {@link AuthenticationServiceException}. By default the number of concurrent
+	 * verifications is not limited.
+	 * @param passwordHashingBulkhead the {@link PasswordHashingBulkhead} to use
+	 * @since 5.5
+	 */
+	public void setPasswordHashingBulkhead(PasswordHashingBulkhead passwordHashingBulkhead) {
+		this.passwordHashingBulkhead = passwordHashingBulkhead;
+	}
+
 	/**
 	 * Sets the service to use for upgrading passwords on successful authentication.
 	 * @param userDetailsPasswordService the service to use
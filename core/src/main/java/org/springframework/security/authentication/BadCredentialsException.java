@@ -17,6 +17,7 @@
 package org.springframework.security.authentication;
 
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.SecurityExceptionStackTraces;
 
 /**
  * Thrown if an authentication request is rejected because the credentials are invalid.
@@ -44,4 +45,15 @@ public class BadCredentialsException extends AuthenticationException {
 		super(msg, cause);
 	}
 
+	/**
+	 * Records the stack trace unless disabled through
+	 * {@link SecurityExceptionStackTraces#setEnabled(boolean)}
+	 * @return this exception
+	 * @since 5.5
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return SecurityExceptionStackTraces.isEnabled() ? super.fillInStackTrace() : this;
+	}
+
 }
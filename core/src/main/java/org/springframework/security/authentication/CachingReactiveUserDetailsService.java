@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.authentication;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveUserDetailsService} that caches the users found by a delegate in a
+ * {@link UserCache}, for example an
+ * {@link org.springframework.security.core.userdetails.cache.InMemoryUserCache}.
+ *
+ * <p>
+ * Concurrent lookups of the same username that miss the cache share a single call to
+ * the delegate, so that a burst of requests for one user results in one upstream
+ * lookup.
+ *
+ * @since 5.5
+ * @see CachingUserDetailsService
+ */
+public class CachingReactiveUserDetailsService implements ReactiveUserDetailsService {
+
+	private final ReactiveUserDetailsService delegate;
+
+	private final Map<String, Mono<UserDetails>> lookups = new ConcurrentHashMap<>();
+
+	private UserCache userCache = new NullUserCache();
+
+	public CachingReactiveUserDetailsService(ReactiveUserDetailsService delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<UserDetails> findByUsername(String username) {
+		if (username == null) {
+			return this.delegate.findByUsername(username);
+		}
+		return Mono.defer(() -> {
+			UserDetails user = this.userCache.getUserFromCache(username);
+			if (user != null) {
+				return Mono.just(user);
+			}
+			return this.lookups.computeIfAbsent(username, this::lookup);
+		});
+	}
+
+	private Mono<UserDetails> lookup(String username) {
+		// @formatter:off
+		return Mono.defer(() -> this.delegate.findByUsername(username))
+				.doOnNext(this.userCache::putUserInCache)
+				.doFinally((signal) -> this.lookups.remove(username))
+				.cache();
+		// @formatter:on
+	}
+
+	public UserCache getUserCache() {
+		return this.userCache;
+	}
+
+	/**
+	 * Sets the {@link UserCache} to use. By default users are not cached, but concurrent
+	 * lookups are still shared.
+	 * @param userCache the {@link UserCache} to use
+	 */
+	public void setUserCache(UserCache userCache) {
+		Assert.notNull(userCache, "userCache cannot be null");
+		this.userCache = userCache;
+	}
+
+}
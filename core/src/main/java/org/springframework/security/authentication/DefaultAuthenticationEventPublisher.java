@@ -21,6 +21,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.BiFunction;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -58,6 +59,10 @@ import org.springframework.util.Assert;
  * {@link org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent}
  * and provides its constructor. The <tt>additionalExceptionMappings</tt> will be merged
  * with the default ones.
+ * <p>
+ * To keep slow listeners off the request thread, pass an
+ * {@link org.springframework.security.core.event.AsyncSecurityEventPublisher} wrapping
+ * the application context to the constructor.
  *
  * @author Luke Taylor
  * @since 3.0
@@ -69,9 +74,9 @@ public class DefaultAuthenticationEventPublisher
 
 	private ApplicationEventPublisher applicationEventPublisher;
 
-	private final HashMap<String, Constructor<? extends AbstractAuthenticationEvent>> exceptionMappings = new HashMap<>();
+	private final HashMap<String, BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent>> exceptionMappings = new HashMap<>();
 
-	private Constructor<? extends AbstractAuthenticationFailureEvent> defaultAuthenticationFailureEventConstructor;
+	private BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent> defaultFailureEventFactory;
 
 	public DefaultAuthenticationEventPublisher() {
 		this(null);
@@ -79,18 +84,18 @@ public class DefaultAuthenticationEventPublisher
 
 	public DefaultAuthenticationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
-		addMapping(BadCredentialsException.class.getName(), AuthenticationFailureBadCredentialsEvent.class);
-		addMapping(UsernameNotFoundException.class.getName(), AuthenticationFailureBadCredentialsEvent.class);
-		addMapping(AccountExpiredException.class.getName(), AuthenticationFailureExpiredEvent.class);
-		addMapping(ProviderNotFoundException.class.getName(), AuthenticationFailureProviderNotFoundEvent.class);
-		addMapping(DisabledException.class.getName(), AuthenticationFailureDisabledEvent.class);
-		addMapping(LockedException.class.getName(), AuthenticationFailureLockedEvent.class);
-		addMapping(AuthenticationServiceException.class.getName(), AuthenticationFailureServiceExceptionEvent.class);
-		addMapping(CredentialsExpiredException.class.getName(), AuthenticationFailureCredentialsExpiredEvent.class);
+		addMapping(BadCredentialsException.class.getName(), AuthenticationFailureBadCredentialsEvent::new);
+		addMapping(UsernameNotFoundException.class.getName(), AuthenticationFailureBadCredentialsEvent::new);
+		addMapping(AccountExpiredException.class.getName(), AuthenticationFailureExpiredEvent::new);
+		addMapping(ProviderNotFoundException.class.getName(), AuthenticationFailureProviderNotFoundEvent::new);
+		addMapping(DisabledException.class.getName(), AuthenticationFailureDisabledEvent::new);
+		addMapping(LockedException.class.getName(), AuthenticationFailureLockedEvent::new);
+		addMapping(AuthenticationServiceException.class.getName(), AuthenticationFailureServiceExceptionEvent::new);
+		addMapping(CredentialsExpiredException.class.getName(), AuthenticationFailureCredentialsExpiredEvent::new);
 		addMapping("org.springframework.security.authentication.cas.ProxyUntrustedException",
-				AuthenticationFailureProxyUntrustedEvent.class);
+				AuthenticationFailureProxyUntrustedEvent::new);
 		addMapping("org.springframework.security.oauth2.server.resource.InvalidBearerTokenException",
-				AuthenticationFailureBadCredentialsEvent.class);
+				AuthenticationFailureBadCredentialsEvent::new);
 	}
 
 	@Override
@@ -102,15 +107,9 @@ public class DefaultAuthenticationEventPublisher
 
 	@Override
 	public void publishAuthenticationFailure(AuthenticationException exception, Authentication authentication) {
-		Constructor<? extends AbstractAuthenticationEvent> constructor = getEventConstructor(exception);
-		AbstractAuthenticationEvent event = null;
-		if (constructor != null) {
-			try {
-				event = constructor.newInstance(authentication, exception);
-			}
-			catch (IllegalAccessException | InvocationTargetException | InstantiationException ignored) {
-			}
-		}
+		BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent> factory = getEventFactory(
+				exception);
+		AbstractAuthenticationEvent event = (factory != null) ? factory.apply(authentication, exception) : null;
 		if (event != null) {
 			if (this.applicationEventPublisher != null) {
 				this.applicationEventPublisher.publishEvent(event);
@@ -123,10 +122,9 @@ public class DefaultAuthenticationEventPublisher
 		}
 	}
 
-	private Constructor<? extends AbstractAuthenticationEvent> getEventConstructor(AuthenticationException exception) {
-		Constructor<? extends AbstractAuthenticationEvent> eventConstructor = this.exceptionMappings
-				.get(exception.getClass().getName());
-		return (eventConstructor != null) ? eventConstructor : this.defaultAuthenticationFailureEventConstructor;
+	private BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent> getEventFactory(
+			AuthenticationException exception) {
+		return this.exceptionMappings.getOrDefault(exception.getClass().getName(), this.defaultFailureEventFactory);
 	}
 
 	@Override
@@ -189,8 +187,8 @@ public class DefaultAuthenticationEventPublisher
 		Assert.notNull(defaultAuthenticationFailureEventClass,
 				"defaultAuthenticationFailureEventClass must not be null");
 		try {
-			this.defaultAuthenticationFailureEventConstructor = defaultAuthenticationFailureEventClass
-					.getConstructor(Authentication.class, AuthenticationException.class);
+			this.defaultFailureEventFactory = eventFactory(defaultAuthenticationFailureEventClass
+					.getConstructor(Authentication.class, AuthenticationException.class));
 		}
 		catch (NoSuchMethodException ex) {
 			throw new RuntimeException("Default Authentication Failure event class "
@@ -202,7 +200,7 @@ public class DefaultAuthenticationEventPublisher
 		try {
 			Constructor<? extends AbstractAuthenticationEvent> constructor = eventClass
 					.getConstructor(Authentication.class, AuthenticationException.class);
-			this.exceptionMappings.put(exceptionClass, constructor);
+			addMapping(exceptionClass, eventFactory(constructor));
 		}
 		catch (NoSuchMethodException ex) {
 			throw new RuntimeException(
@@ -210,4 +208,21 @@ public class DefaultAuthenticationEventPublisher
 		}
 	}
 
+	private void addMapping(String exceptionClass,
+			BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent> eventFactory) {
+		this.exceptionMappings.put(exceptionClass, eventFactory);
+	}
+
+	private static BiFunction<Authentication, AuthenticationException, AbstractAuthenticationEvent> eventFactory(
+			Constructor<? extends AbstractAuthenticationEvent> constructor) {
+		return (authentication, exception) -> {
+			try {
+				return constructor.newInstance(authentication, exception);
+			}
+			catch (IllegalAccessException | InvocationTargetException | InstantiationException ex) {
+				return null;
+			}
+		};
+	}
+
 }
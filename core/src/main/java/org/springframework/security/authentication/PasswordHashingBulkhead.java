@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of password verifications that run at the same time. Modern password
+ * encoders are deliberately expensive, so a burst of login attempts could otherwise
+ * occupy every request thread with hashing.
+ *
+ * <p>
+ * A verification that finds all permits in use waits for at most the configured time,
+ * with at most the configured number of other verifications waiting alongside it. When
+ * either limit is exceeded the verification fails fast with an
+ * {@link AuthenticationServiceException}.
+ *
+ * @since 5.5
+ * @see org.springframework.security.authentication.dao.DaoAuthenticationProvider
+ * @see AbstractUserDetailsReactiveAuthenticationManager
+ */
+public final class PasswordHashingBulkhead {
+
+	private final Semaphore permits;
+
+	private final int maxWaitingVerifications;
+
+	private final long maxWaitNanos;
+
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	private final LongAdder waitCount = new LongAdder();
+
+	private final LongAdder waitNanos = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	/**
+	 * Creates a new instance
+	 * @param maxConcurrentVerifications the number of verifications that may run at the
+	 * same time
+	 * @param maxWaitingVerifications the number of verifications that may wait for a
+	 * permit
+	 * @param maxWaitTime how long a verification may wait for a permit
+	 */
+	public PasswordHashingBulkhead(int maxConcurrentVerifications, int maxWaitingVerifications,
+			Duration maxWaitTime) {
+		Assert.isTrue(maxConcurrentVerifications > 0, "maxConcurrentVerifications must be greater than 0");
+		Assert.isTrue(maxWaitingVerifications >= 0, "maxWaitingVerifications cannot be negative");
+		Assert.notNull(maxWaitTime, "maxWaitTime cannot be null");
+		Assert.isTrue(!maxWaitTime.isNegative(), "maxWaitTime cannot be negative");
+		this.permits = new Semaphore(maxConcurrentVerifications);
+		this.maxWaitingVerifications = maxWaitingVerifications;
+		this.maxWaitNanos = maxWaitTime.toNanos();
+	}
+
+	/**
+	 * Runs the given verification once a permit is available
+	 * @param verification the verification, typically a call to
+	 * {@link org.springframework.security.crypto.password.PasswordEncoder#matches(CharSequence, String)}
+	 * @return the result of the verification
+	 * @throws AuthenticationServiceException if no permit became available in time
+	 */
+	public boolean verify(BooleanSupplier verification) {
+		acquire();
+		try {
+			return verification.getAsBoolean();
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+	private void acquire() {
+		if (this.permits.tryAcquire()) {
+			return;
+		}
+		if (this.waiting.incrementAndGet() > this.maxWaitingVerifications) {
+			this.waiting.decrementAndGet();
+			this.rejectedCount.increment();
+			throw new AuthenticationServiceException("Too many password verifications are waiting");
+		}
+		long start = System.nanoTime();
+		boolean acquired;
+		try {
+			acquired = this.permits.tryAcquire(this.maxWaitNanos, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		finally {
+			this.waiting.decrementAndGet();
+			this.waitCount.increment();
+			this.waitNanos.add(System.nanoTime() - start);
+		}
+		if (!acquired) {
+			this.rejectedCount.increment();
+			throw new AuthenticationServiceException("Timed out waiting to verify the password");
+		}
+	}
+
+	/**
+	 * Returns the number of verifications currently waiting for a permit
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return this.waiting.get();
+	}
+
+	/**
+	 * Returns the number of verifications that had to wait for a permit
+	 * @return the number of waits
+	 */
+	public long getWaitCount() {
+		return this.waitCount.sum();
+	}
+
+	/**
+	 * Returns the total time verifications have spent waiting for a permit
+	 * @return the total wait time
+	 */
+	public Duration getTotalWaitTime() {
+		return Duration.ofNanos(this.waitNanos.sum());
+	}
+
+	/**
+	 * Returns the number of verifications that were rejected
+	 * @return the number of rejected verifications
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+}
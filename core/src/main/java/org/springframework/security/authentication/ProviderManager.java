@@ -16,9 +16,13 @@
 
 package org.springframework.security.authentication;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -101,6 +105,10 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 
 	private boolean eraseCredentialsAfterAuthentication = true;
 
+	private boolean cacheProviderRouting;
+
+	private volatile ProviderRouting providerRouting;
+
 	/**
 	 * Construct a {@link ProviderManager} using the given {@link AuthenticationProvider}s
 	 * @param providers the {@link AuthenticationProvider}s to use
@@ -170,8 +178,9 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		Authentication parentResult = null;
 		int currentPosition = 0;
 		int size = this.providers.size();
-		for (AuthenticationProvider provider : getProviders()) {
-			if (!provider.supports(toTest)) {
+		List<AuthenticationProvider> supportingProviders = getSupportingProviders(toTest);
+		for (AuthenticationProvider provider : (supportingProviders != null) ? supportingProviders : getProviders()) {
+			if (supportingProviders == null && !provider.supports(toTest)) {
 				continue;
 			}
 			if (logger.isTraceEnabled()) {
@@ -244,6 +253,23 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		throw lastException;
 	}
 
+	/**
+	 * Returns the providers that support the given type, or {@code null} if they are not
+	 * cached. The cache is rebuilt if the providers have changed.
+	 */
+	private List<AuthenticationProvider> getSupportingProviders(Class<? extends Authentication> toTest) {
+		if (!this.cacheProviderRouting) {
+			return null;
+		}
+		List<AuthenticationProvider> providers = getProviders();
+		ProviderRouting routing = this.providerRouting;
+		if (routing == null || !routing.isFor(providers)) {
+			routing = new ProviderRouting(providers);
+			this.providerRouting = routing;
+		}
+		return routing.getSupportingProviders(toTest);
+	}
+
 	@SuppressWarnings("deprecation")
 	private void prepareException(AuthenticationException ex, Authentication auth) {
 		this.eventPublisher.publishAuthenticationFailure(ex, auth);
@@ -292,6 +318,66 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		return this.eraseCredentialsAfterAuthentication;
 	}
 
+	/**
+	 * If set to true, the {@link AuthenticationProvider}s that support each type of
+	 * {@link Authentication} are remembered, so that
+	 * {@link AuthenticationProvider#supports(Class)} is only called once per type. The
+	 * remembered providers are discarded whenever the providers change. Only enable this
+	 * if the providers' support depends on nothing but the type. Defaults to
+	 * {@literal false}.
+	 * @param cacheProviderRouting whether to remember the supporting providers
+	 * @since 5.5
+	 */
+	public void setCacheProviderRouting(boolean cacheProviderRouting) {
+		this.cacheProviderRouting = cacheProviderRouting;
+		this.providerRouting = null;
+	}
+
+	/**
+	 * The supporting providers per {@link Authentication} type, for one list of
+	 * providers.
+	 */
+	private static final class ProviderRouting {
+
+		private final AuthenticationProvider[] providers;
+
+		private final Map<Class<?>, List<AuthenticationProvider>> supportingProviders = new ConcurrentHashMap<>();
+
+		private ProviderRouting(List<AuthenticationProvider> providers) {
+			this.providers = providers.toArray(new AuthenticationProvider[0]);
+		}
+
+		/**
+		 * Whether the list still contains the same providers, which is cheaper than
+		 * asking each of them whether it supports the type.
+		 */
+		private boolean isFor(List<AuthenticationProvider> providers) {
+			if (providers.size() != this.providers.length) {
+				return false;
+			}
+			Iterator<AuthenticationProvider> iterator = providers.iterator();
+			for (AuthenticationProvider provider : this.providers) {
+				if (iterator.next() != provider) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private List<AuthenticationProvider> getSupportingProviders(Class<? extends Authentication> toTest) {
+			return this.supportingProviders.computeIfAbsent(toTest, (type) -> {
+				List<AuthenticationProvider> supporting = new ArrayList<>();
+				for (AuthenticationProvider provider : this.providers) {
+					if (provider.supports(toTest)) {
+						supporting.add(provider);
+					}
+				}
+				return Collections.unmodifiableList(supporting);
+			});
+		}
+
+	}
+
 	private static final class NullEventPublisher implements AuthenticationEventPublisher {
 
 		@Override
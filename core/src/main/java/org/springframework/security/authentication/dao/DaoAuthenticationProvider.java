@@ -19,9 +19,11 @@ package org.springframework.security.authentication.dao;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.PasswordHashingBulkhead;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.AsyncUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -59,6 +61,8 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 
 	private UserDetailsPasswordService userDetailsPasswordService;
 
+	private PasswordHashingBulkhead passwordHashingBulkhead;
+
 	public DaoAuthenticationProvider() {
 		setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
 	}
@@ -73,7 +77,7 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 					.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
 		}
 		String presentedPassword = authentication.getCredentials().toString();
-		if (!this.passwordEncoder.matches(presentedPassword, userDetails.getPassword())) {
+		if (!matches(presentedPassword, userDetails.getPassword())) {
 			this.logger.debug("Failed to authenticate since password does not match stored value");
 			throw new BadCredentialsException(this.messages
 					.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
@@ -116,12 +120,20 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 				&& this.passwordEncoder.upgradeEncoding(user.getPassword());
 		if (upgradeEncoding) {
 			String presentedPassword = authentication.getCredentials().toString();
-			String newPassword = this.passwordEncoder.encode(presentedPassword);
-			user = this.userDetailsPasswordService.updatePassword(user, newPassword);
+			user = updatePassword(user, presentedPassword);
 		}
 		return super.createSuccessAuthentication(principal, authentication, user);
 	}
 
+	private UserDetails updatePassword(UserDetails user, String presentedPassword) {
+		if (this.userDetailsPasswordService instanceof AsyncUserDetailsPasswordService) {
+			return ((AsyncUserDetailsPasswordService) this.userDetailsPasswordService).updatePassword(user,
+					() -> this.passwordEncoder.encode(presentedPassword));
+		}
+		String newPassword = this.passwordEncoder.encode(presentedPassword);
+		return this.userDetailsPasswordService.updatePassword(user, newPassword);
+	}
+
 	private void prepareTimingAttackProtection() {
 		if (this.userNotFoundEncodedPassword == null) {
 			this.userNotFoundEncodedPassword = this.passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
@@ -131,10 +143,18 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 	private void mitigateAgainstTimingAttack(UsernamePasswordAuthenticationToken authentication) {
 		if (authentication.getCredentials() != null) {
 			String presentedPassword = authentication.getCredentials().toString();
-			this.passwordEncoder.matches(presentedPassword, this.userNotFoundEncodedPassword);
+			matches(presentedPassword, this.userNotFoundEncodedPassword);
 		}
 	}
 
+	private boolean matches(String presentedPassword, String encodedPassword) {
+		if (this.passwordHashingBulkhead == null) {
+			return this.passwordEncoder.matches(presentedPassword, encodedPassword);
+		}
+		return this.passwordHashingBulkhead
+				.verify(() -> this.passwordEncoder.matches(presentedPassword, encodedPassword));
+	}
+
 	/**
 	 * Sets the PasswordEncoder instance to be used to encode and validate passwords. If
 	 * not set, the password will be compared using
@@ -164,4 +184,16 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 		this.userDetailsPasswordService = userDetailsPasswordService;
 	}
 
+	/**
+	 * Sets the {@link PasswordHashingBulkhead} that limits how many passwords are
+	 * verified at the same time. When the bulkhead is full, authentication fails with an
+	 * {@link org.springframework.security.authentication.AuthenticationServiceException}.
+	 * By default the number of concurrent verifications is not limited.
+	 * @param passwordHashingBulkhead the {@link PasswordHashingBulkhead} to use
+	 * @since 5.5
+	 */
+	public void setPasswordHashingBulkhead(PasswordHashingBulkhead passwordHashingBulkhead) {
+		this.passwordHashingBulkhead = passwordHashingBulkhead;
+	}
+
 }
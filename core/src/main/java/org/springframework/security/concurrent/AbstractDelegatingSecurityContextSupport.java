@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.security.concurrent;
 import java.util.concurrent.Callable;
 
 import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
  * An internal support class that wraps {@link Callable} with
@@ -52,4 +53,14 @@ abstract class AbstractDelegatingSecurityContextSupport {
 		return DelegatingSecurityContextCallable.create(delegate, this.securityContext);
 	}
 
+	/**
+	 * Resolves the {@link SecurityContext} to use, so that a batch of tasks can share a
+	 * single lookup of the current {@link SecurityContext}.
+	 * @return the {@link SecurityContext} specified at construction time, or else the
+	 * current {@link SecurityContext}
+	 */
+	final SecurityContext resolveSecurityContext() {
+		return (this.securityContext != null) ? this.securityContext : SecurityContextHolder.getContext();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.springframework.security.concurrent;
 
 import java.util.concurrent.Callable;
 
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.util.Assert;
 
 /**
@@ -30,7 +32,9 @@ import org.springframework.util.Assert;
  * </p>
  * <p>
  * If there is a {@link SecurityContext} that already exists, it will be restored after
- * the {@link #call()} method is invoked.
+ * the {@link #call()} method is invoked. When the
+ * {@link ScopedSecurityContextHolderStrategy} is in use, the {@link SecurityContext} is
+ * instead bound for the duration of the delegate only.
  * </p>
  *
  * @author Rob Winch
@@ -78,6 +82,10 @@ public final class DelegatingSecurityContextCallable<V> implements Callable<V> {
 
 	@Override
 	public V call() throws Exception {
+		SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+		if (strategy instanceof ScopedSecurityContextHolderStrategy) {
+			return ((ScopedSecurityContextHolderStrategy) strategy).call(this.delegateSecurityContext, this.delegate);
+		}
 		this.originalSecurityContext = SecurityContextHolder.getContext();
 		try {
 			SecurityContextHolder.setContext(this.delegateSecurityContext);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,7 +32,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 /**
  * An {@link ExecutorService} which wraps each {@link Runnable} in a
  * {@link DelegatingSecurityContextRunnable} and each {@link Callable} in a
- * {@link DelegatingSecurityContextCallable}.
+ * {@link DelegatingSecurityContextCallable}. All tasks passed to {@code invokeAll} or
+ * {@code invokeAny} share the {@link SecurityContext} that is resolved once for the
+ * batch.
  *
  * @author Rob Winch
  * @since 3.2
@@ -136,9 +138,10 @@ public class DelegatingSecurityContextExecutorService extends DelegatingSecurity
 		if (tasks == null) {
 			return null;
 		}
+		SecurityContext securityContext = resolveSecurityContext();
 		List<Callable<T>> results = new ArrayList<>(tasks.size());
 		for (Callable<T> task : tasks) {
-			results.add(wrap(task));
+			results.add(DelegatingSecurityContextCallable.create(task, securityContext));
 		}
 		return results;
 	}
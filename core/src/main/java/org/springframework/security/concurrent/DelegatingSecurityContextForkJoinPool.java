@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * A {@link DelegatingSecurityContextExecutorService} for a {@link ForkJoinPool} that also
+ * wraps each {@link ForkJoinTask} in a {@link DelegatingSecurityContextForkJoinTask}.
+ *
+ * <p>
+ * The {@link SecurityContext} is resolved when a task is submitted, and established on
+ * the worker thread only while the task runs, so a pool can be shared by callers with
+ * different {@link SecurityContext}s. Subtasks that a task forks, for example by a
+ * {@code parallelStream()} operation, are not wrapped, so those stolen by other worker
+ * threads run without the {@link SecurityContext}. Work that needs it on every worker
+ * thread should submit a task per unit of work instead:
+ *
+ * <pre>
+ * DelegatingSecurityContextForkJoinPool pool = new DelegatingSecurityContextForkJoinPool(forkJoinPool);
+ * List&lt;Future&lt;Result&gt;&gt; results = pool.invokeAll(tasks);
+ * </pre>
+ *
+ * @since 5.5
+ */
+public final class DelegatingSecurityContextForkJoinPool extends DelegatingSecurityContextExecutorService {
+
+	private final ForkJoinPool delegate;
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextForkJoinPool} that uses the specified
+	 * {@link SecurityContext}.
+	 * @param delegate the {@link ForkJoinPool} to delegate to. Cannot be null.
+	 * @param securityContext the {@link SecurityContext} to use for each task or null to
+	 * default to the current {@link SecurityContext}
+	 */
+	public DelegatingSecurityContextForkJoinPool(ForkJoinPool delegate, SecurityContext securityContext) {
+		super(delegate, securityContext);
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextForkJoinPool} that uses the current
+	 * {@link SecurityContext} from the {@link SecurityContextHolder} at the time a task
+	 * is submitted.
+	 * @param delegate the {@link ForkJoinPool} to delegate to. Cannot be null.
+	 */
+	public DelegatingSecurityContextForkJoinPool(ForkJoinPool delegate) {
+		this(delegate, null);
+	}
+
+	/**
+	 * Invokes the task with the {@link SecurityContext}, awaiting its completion
+	 * @param task the task
+	 * @param <T> the type of the result of the task
+	 * @return the result of the task
+	 * @see ForkJoinPool#invoke(ForkJoinTask)
+	 */
+	public <T> T invoke(ForkJoinTask<T> task) {
+		return this.delegate.invoke(wrap(task));
+	}
+
+	/**
+	 * Submits the task for execution with the {@link SecurityContext}
+	 * @param task the task
+	 * @param <T> the type of the result of the task
+	 * @return a task that completes with the result of the given task
+	 * @see ForkJoinPool#submit(ForkJoinTask)
+	 */
+	public <T> ForkJoinTask<T> submit(ForkJoinTask<T> task) {
+		return this.delegate.submit(wrap(task));
+	}
+
+	/**
+	 * Arranges for the asynchronous execution of the task with the
+	 * {@link SecurityContext}
+	 * @param task the task
+	 * @see ForkJoinPool#execute(ForkJoinTask)
+	 */
+	public void execute(ForkJoinTask<?> task) {
+		this.delegate.execute(wrap(task));
+	}
+
+	private <T> ForkJoinTask<T> wrap(ForkJoinTask<T> task) {
+		return new DelegatingSecurityContextForkJoinTask<>(task, resolveSecurityContext());
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.concurrent;
+
+import java.util.concurrent.ForkJoinTask;
+
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+
+/**
+ * Wraps a delegate {@link ForkJoinTask} with logic for setting up a
+ * {@link SecurityContext} on the worker thread before invoking the delegate and then
+ * restoring the previous {@link SecurityContext} of the worker thread after the delegate
+ * has completed.
+ *
+ * <p>
+ * Only the delegate itself runs with the {@link SecurityContext}. Subtasks that the
+ * delegate forks may be stolen by other worker threads, which do not have it.
+ *
+ * @param <T> the type of the result of the task
+ * @since 5.5
+ * @see DelegatingSecurityContextForkJoinPool
+ */
+public final class DelegatingSecurityContextForkJoinTask<T> extends ForkJoinTask<T> {
+
+	private final ForkJoinTask<T> delegate;
+
+	private final SecurityContext delegateSecurityContext;
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextForkJoinTask} with a specific
+	 * {@link SecurityContext}.
+	 * @param delegate the delegate {@link ForkJoinTask} to invoke with the specified
+	 * {@link SecurityContext}. Cannot be null.
+	 * @param securityContext the {@link SecurityContext} to establish for the delegate
+	 * {@link ForkJoinTask}. Cannot be null.
+	 */
+	public DelegatingSecurityContextForkJoinTask(ForkJoinTask<T> delegate, SecurityContext securityContext) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(securityContext, "securityContext cannot be null");
+		this.delegate = delegate;
+		this.delegateSecurityContext = securityContext;
+	}
+
+	/**
+	 * Creates a new {@link DelegatingSecurityContextForkJoinTask} with the
+	 * {@link SecurityContext} from the {@link SecurityContextHolder}.
+	 * @param delegate the delegate {@link ForkJoinTask} to invoke under the current
+	 * {@link SecurityContext}. Cannot be null.
+	 */
+	public DelegatingSecurityContextForkJoinTask(ForkJoinTask<T> delegate) {
+		this(delegate, SecurityContextHolder.getContext());
+	}
+
+	@Override
+	public T getRawResult() {
+		return this.delegate.getRawResult();
+	}
+
+	@Override
+	protected void setRawResult(T value) {
+	}
+
+	@Override
+	protected boolean exec() {
+		SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+		if (strategy instanceof ScopedSecurityContextHolderStrategy) {
+			((ScopedSecurityContextHolderStrategy) strategy).run(this.delegateSecurityContext, this.delegate::invoke);
+			return true;
+		}
+		SecurityContext originalSecurityContext = SecurityContextHolder.getContext();
+		try {
+			SecurityContextHolder.setContext(this.delegateSecurityContext);
+			this.delegate.invoke();
+			return true;
+		}
+		finally {
+			SecurityContext emptyContext = SecurityContextHolder.createEmptyContext();
+			if (emptyContext.equals(originalSecurityContext)) {
+				SecurityContextHolder.clearContext();
+			}
+			else {
+				SecurityContextHolder.setContext(originalSecurityContext);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 
 package org.springframework.security.concurrent;
 
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.util.Assert;
 
 /**
@@ -28,7 +30,9 @@ import org.springframework.util.Assert;
  * </p>
  * <p>
  * If there is a {@link SecurityContext} that already exists, it will be restored after
- * the {@link #run()} method is invoked.
+ * the {@link #run()} method is invoked. When the
+ * {@link ScopedSecurityContextHolderStrategy} is in use, the {@link SecurityContext} is
+ * instead bound for the duration of the delegate only.
  * </p>
  *
  * @author Rob Winch
@@ -76,6 +80,11 @@ public final class DelegatingSecurityContextRunnable implements Runnable {
 
 	@Override
 	public void run() {
+		SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+		if (strategy instanceof ScopedSecurityContextHolderStrategy) {
+			((ScopedSecurityContextHolderStrategy) strategy).run(this.delegateSecurityContext, this.delegate);
+			return;
+		}
 		this.originalSecurityContext = SecurityContextHolder.getContext();
 		try {
 			SecurityContextHolder.setContext(this.delegateSecurityContext);
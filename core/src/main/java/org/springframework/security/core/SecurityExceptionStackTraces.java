@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Controls whether the exceptions Spring Security throws in large numbers when rejecting
+ * requests record a stack trace. Recording a stack trace is by far the most expensive
+ * part of creating an exception, and during an attack most of the time spent on
+ * rejecting requests can go into it, while the stack traces are rarely looked at.
+ *
+ * <p>
+ * Stack traces are recorded by default. When disabled, they are still recorded while
+ * debug logging is enabled for this class, for example through the
+ * {@code org.springframework.security} category. This applies to
+ * {@link org.springframework.security.authentication.BadCredentialsException},
+ * {@link org.springframework.security.access.AccessDeniedException} and its subclasses
+ * such as {@code CsrfException}, {@code RequestRejectedException} and
+ * {@code InvalidBearerTokenException}. An
+ * {@link org.springframework.security.access.AuthorizationServiceException} signals a
+ * system problem and always records its stack trace.
+ *
+ * <p>
+ * This is a global setting, typically changed once at startup:
+ *
+ * <pre>
+ * SecurityExceptionStackTraces.setEnabled(false);
+ * </pre>
+ *
+ * @since 5.5
+ */
+public final class SecurityExceptionStackTraces {
+
+	private static final Log logger = LogFactory.getLog(SecurityExceptionStackTraces.class);
+
+	private static volatile boolean enabled = true;
+
+	private SecurityExceptionStackTraces() {
+	}
+
+	/**
+	 * Sets whether the exceptions record a stack trace. The default is {@code true}.
+	 * @param enabled {@code false} to only record stack traces while debug logging is
+	 * enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		SecurityExceptionStackTraces.enabled = enabled;
+	}
+
+	/**
+	 * Whether an exception created now should record its stack trace
+	 * @return {@code true} if stack traces are enabled or debug logging is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled || logger.isDebugEnabled();
+	}
+
+}
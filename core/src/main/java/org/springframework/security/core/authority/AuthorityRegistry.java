@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Interns authority strings to small integer identifiers and hands out shared, immutable
+ * {@link InternedGrantedAuthorities} instances for identical sets of authorities.
+ *
+ * <p>
+ * Users with identical role sets are then represented by the same collection instance,
+ * and membership checks are answered in constant time by a bit set lookup rather than by
+ * comparing strings.
+ *
+ * <p>
+ * The registry is intended for a bounded vocabulary of authorities. Once
+ * {@code maxAuthorities} distinct authorities have been registered, collections
+ * containing unknown authorities are no longer interned and are returned as plain
+ * unmodifiable copies instead.
+ *
+ * @since 5.5
+ * @see InternedGrantedAuthorities
+ */
+public final class AuthorityRegistry {
+
+	/**
+	 * The default maximum number of distinct authorities that are interned
+	 */
+	public static final int DEFAULT_MAX_AUTHORITIES = 4096;
+
+	/**
+	 * The default maximum number of distinct authority sets that are retained
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private final List<SimpleGrantedAuthority> authorities = new CopyOnWriteArrayList<>();
+
+	private final ConcurrentLruCache<BitSet, InternedGrantedAuthorities> authoritySets;
+
+	private final int maxAuthorities;
+
+	/**
+	 * Creates a registry using {@link #DEFAULT_MAX_AUTHORITIES} and
+	 * {@link #DEFAULT_CACHE_SIZE}.
+	 */
+	public AuthorityRegistry() {
+		this(DEFAULT_MAX_AUTHORITIES, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a registry
+	 * @param maxAuthorities the maximum number of distinct authorities to intern
+	 * @param cacheSize the maximum number of distinct authority sets to retain
+	 */
+	public AuthorityRegistry(int maxAuthorities, int cacheSize) {
+		Assert.isTrue(maxAuthorities > 0, "maxAuthorities must be greater than 0");
+		Assert.isTrue(cacheSize >= 0, "cacheSize cannot be negative");
+		this.maxAuthorities = maxAuthorities;
+		this.authoritySets = new ConcurrentLruCache<>(cacheSize, (ids) -> new InternedGrantedAuthorities(this, ids));
+	}
+
+	/**
+	 * Returns the shared, immutable collection for the given authorities. If any of the
+	 * authorities is not a {@link SimpleGrantedAuthority} or cannot be interned, an
+	 * unmodifiable copy of the authorities is returned instead.
+	 * @param authorities the authorities to intern
+	 * @return the interned authorities
+	 */
+	public Collection<GrantedAuthority> getAuthorities(Collection<? extends GrantedAuthority> authorities) {
+		Assert.notNull(authorities, "authorities cannot be null");
+		if (authorities instanceof InternedGrantedAuthorities
+				&& ((InternedGrantedAuthorities) authorities).isRegisteredWith(this)) {
+			return (InternedGrantedAuthorities) authorities;
+		}
+		BitSet ids = new BitSet();
+		for (GrantedAuthority authority : authorities) {
+			Assert.notNull(authority, "authorities cannot contain any null elements");
+			int id = (authority instanceof SimpleGrantedAuthority) ? register(authority.getAuthority()) : -1;
+			if (id < 0) {
+				return Collections.unmodifiableList(new ArrayList<>(authorities));
+			}
+			ids.set(id);
+		}
+		return this.authoritySets.get(ids);
+	}
+
+	/**
+	 * Returns the shared, immutable collection for the given authority strings.
+	 * @param authorities the authority strings to intern
+	 * @return the interned authorities
+	 */
+	public Collection<GrantedAuthority> getAuthorities(String... authorities) {
+		return getAuthorities(AuthorityUtils.createAuthorityList(authorities));
+	}
+
+	/**
+	 * Returns the shared {@link SimpleGrantedAuthority} for the given authority string,
+	 * registering it if necessary.
+	 * @param authority the authority string
+	 * @return the shared {@link SimpleGrantedAuthority}
+	 */
+	public SimpleGrantedAuthority getAuthority(String authority) {
+		Assert.hasText(authority, "authority cannot be empty");
+		int id = register(authority);
+		return (id < 0) ? new SimpleGrantedAuthority(authority) : this.authorities.get(id);
+	}
+
+	/**
+	 * Returns the identifier of the given authority string, or {@code -1} if it has not
+	 * been registered.
+	 * @param authority the authority string
+	 * @return the identifier, or {@code -1}
+	 */
+	int getId(String authority) {
+		Integer id = this.ids.get(authority);
+		return (id != null) ? id : -1;
+	}
+
+	SimpleGrantedAuthority getAuthority(int id) {
+		return this.authorities.get(id);
+	}
+
+	private int register(String authority) {
+		Integer id = this.ids.get(authority);
+		if (id != null) {
+			return id;
+		}
+		synchronized (this.authorities) {
+			id = this.ids.get(authority);
+			if (id != null) {
+				return id;
+			}
+			if (this.authorities.size() >= this.maxAuthorities) {
+				return -1;
+			}
+			id = this.authorities.size();
+			this.authorities.add(new SimpleGrantedAuthority(authority));
+			this.ids.put(authority, id);
+			return id;
+		}
+	}
+
+}
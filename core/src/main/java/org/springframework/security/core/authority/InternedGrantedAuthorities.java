@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+
+/**
+ * An immutable set of {@link SimpleGrantedAuthority} instances obtained from an
+ * {@link AuthorityRegistry}. Membership is backed by a bit set of the interned authority
+ * identifiers, so {@link #contains(Object)} and {@link #containsAuthority(String)} run in
+ * constant time.
+ *
+ * <p>
+ * Instances are shared between all users with the same set of authorities. When
+ * serialized, an instance is replaced by a plain unmodifiable copy of its elements.
+ *
+ * @since 5.5
+ * @see AuthorityRegistry#getAuthorities(java.util.Collection)
+ */
+public final class InternedGrantedAuthorities extends AbstractSet<GrantedAuthority> implements Serializable {
+
+	private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+	private final transient AuthorityRegistry registry;
+
+	private final transient BitSet ids;
+
+	private final transient GrantedAuthority[] authorities;
+
+	private final transient List<GrantedAuthority> list;
+
+	InternedGrantedAuthorities(AuthorityRegistry registry, BitSet ids) {
+		this.registry = registry;
+		this.ids = ids;
+		this.authorities = new GrantedAuthority[ids.cardinality()];
+		int index = 0;
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			this.authorities[index++] = registry.getAuthority(id);
+		}
+		this.list = new AuthorityList();
+	}
+
+	/**
+	 * Determines whether this set contains an authority with the given string
+	 * representation.
+	 * @param authority the authority string
+	 * @return {@code true} if the authority is contained in this set
+	 */
+	public boolean containsAuthority(String authority) {
+		if (authority == null) {
+			return false;
+		}
+		int id = this.registry.getId(authority);
+		return id >= 0 && this.ids.get(id);
+	}
+
+	/**
+	 * Returns an immutable {@link List} view of this set, shared by all callers. The view
+	 * also answers {@link List#contains(Object)} in constant time.
+	 * @return the list view
+	 */
+	public List<GrantedAuthority> asList() {
+		return this.list;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (o instanceof SimpleGrantedAuthority) && containsAuthority(((SimpleGrantedAuthority) o).getAuthority());
+	}
+
+	@Override
+	public Iterator<GrantedAuthority> iterator() {
+		return this.list.iterator();
+	}
+
+	@Override
+	public int size() {
+		return this.authorities.length;
+	}
+
+	boolean isRegisteredWith(AuthorityRegistry registry) {
+		return this.registry == registry;
+	}
+
+	private Object writeReplace() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this));
+	}
+
+	private final class AuthorityList extends AbstractList<GrantedAuthority> implements RandomAccess, Serializable {
+
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		@Override
+		public GrantedAuthority get(int index) {
+			return InternedGrantedAuthorities.this.authorities[index];
+		}
+
+		@Override
+		public int size() {
+			return InternedGrantedAuthorities.this.authorities.length;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return InternedGrantedAuthorities.this.contains(o);
+		}
+
+		@Override
+		public Object[] toArray() {
+			return Arrays.copyOf(InternedGrantedAuthorities.this.authorities, size(), Object[].class);
+		}
+
+		private Object writeReplace() {
+			return Collections.unmodifiableList(new ArrayList<>(this));
+		}
+
+	}
+
+}
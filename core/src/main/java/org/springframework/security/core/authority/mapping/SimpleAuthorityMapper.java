@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.util.Set;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityRegistry;
+import org.springframework.security.core.authority.InternedGrantedAuthorities;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.util.Assert;
 
@@ -43,6 +45,8 @@ public final class SimpleAuthorityMapper implements GrantedAuthoritiesMapper, In
 
 	private boolean convertToLowerCase = false;
 
+	private AuthorityRegistry authorityRegistry;
+
 	@Override
 	public void afterPropertiesSet() {
 		Assert.isTrue(!(this.convertToUpperCase && this.convertToLowerCase),
@@ -53,7 +57,8 @@ public final class SimpleAuthorityMapper implements GrantedAuthoritiesMapper, In
 	 * Creates a mapping of the supplied authorities based on the case-conversion and
 	 * prefix settings. The mapping will be one-to-one unless duplicates are produced
 	 * during the conversion. If a default authority has been set, this will also be
-	 * assigned to each mapping.
+	 * assigned to each mapping. If an {@link AuthorityRegistry} has been set, the
+	 * returned set is the registry's shared {@link InternedGrantedAuthorities} instance.
 	 * @param authorities the original authorities
 	 * @return the converted set of authorities
 	 */
@@ -66,6 +71,12 @@ public final class SimpleAuthorityMapper implements GrantedAuthoritiesMapper, In
 		if (this.defaultAuthority != null) {
 			mapped.add(this.defaultAuthority);
 		}
+		if (this.authorityRegistry != null) {
+			Collection<GrantedAuthority> interned = this.authorityRegistry.getAuthorities(mapped);
+			if (interned instanceof InternedGrantedAuthorities) {
+				return (InternedGrantedAuthorities) interned;
+			}
+		}
 		return mapped;
 	}
 
@@ -118,4 +129,15 @@ public final class SimpleAuthorityMapper implements GrantedAuthoritiesMapper, In
 		this.defaultAuthority = new SimpleGrantedAuthority(authority);
 	}
 
+	/**
+	 * Sets the {@link AuthorityRegistry} used to share identical sets of mapped
+	 * authorities between users
+	 * @param authorityRegistry the {@link AuthorityRegistry} to use
+	 * @since 5.5
+	 */
+	public void setAuthorityRegistry(AuthorityRegistry authorityRegistry) {
+		Assert.notNull(authorityRegistry, "authorityRegistry cannot be null");
+		this.authorityRegistry = authorityRegistry;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,19 +41,11 @@ public final class ReactiveSecurityContextHolder {
 	 * @return the {@code Mono<SecurityContext>}
 	 */
 	public static Mono<SecurityContext> getContext() {
-		// @formatter:off
-		return Mono.subscriberContext()
-				.filter(ReactiveSecurityContextHolder::hasSecurityContext)
-				.flatMap(ReactiveSecurityContextHolder::getSecurityContext);
-		// @formatter:on
-	}
-
-	private static boolean hasSecurityContext(Context context) {
-		return context.hasKey(SECURITY_CONTEXT_KEY);
+		return Mono.subscriberContext().flatMap(ReactiveSecurityContextHolder::getSecurityContext);
 	}
 
 	private static Mono<SecurityContext> getSecurityContext(Context context) {
-		return context.<Mono<SecurityContext>>get(SECURITY_CONTEXT_KEY);
+		return context.<Mono<SecurityContext>>getOrDefault(SECURITY_CONTEXT_KEY, Mono.empty());
 	}
 
 	/**
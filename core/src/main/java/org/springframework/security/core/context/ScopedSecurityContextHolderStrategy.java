@@ -0,0 +1,292 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SecurityContextHolderStrategy} that, in addition to the
+ * <code>ThreadLocal</code>-based behaviour of the default strategy, can bind a
+ * {@link SecurityContext} for the dynamic extent of a task using
+ * {@link #run(SecurityContext, Runnable)} or {@link #call(SecurityContext, Callable)}.
+ *
+ * <p>
+ * When the JVM provides {@code java.lang.ScopedValue}, the binding is carried by a scoped
+ * value, so a task that is run this way, for example on a short-lived virtual thread,
+ * never populates the thread's <code>ThreadLocal</code> map. On older JVMs the binding
+ * falls back to a <code>ThreadLocal</code> that is restored once the task completes.
+ *
+ * <p>
+ * Within a bound task {@link #getContext()}, {@link #setContext(SecurityContext)} and
+ * {@link #clearContext()} operate on the binding. Outside of a bound task they behave
+ * like {@link SecurityContextHolder#MODE_THREADLOCAL}. The
+ * {@link org.springframework.security.concurrent.DelegatingSecurityContextRunnable} and
+ * {@link org.springframework.security.concurrent.DelegatingSecurityContextCallable}
+ * wrappers use the binding automatically when this strategy is in use.
+ *
+ * @since 5.5
+ * @see SecurityContextHolder#MODE_SCOPED
+ */
+public final class ScopedSecurityContextHolderStrategy implements SecurityContextHolderStrategy {
+
+	private static final ThreadLocal<SecurityContext> contextHolder = new ThreadLocal<>();
+
+	private static final ScopedContext scopedContext = ScopedContext.create();
+
+	@Override
+	public void clearContext() {
+		ContextBinding binding = scopedContext.get();
+		if (binding != null) {
+			binding.context = null;
+			return;
+		}
+		contextHolder.remove();
+	}
+
+	@Override
+	public SecurityContext getContext() {
+		ContextBinding binding = scopedContext.get();
+		if (binding != null) {
+			if (binding.context == null) {
+				binding.context = createEmptyContext();
+			}
+			return binding.context;
+		}
+		SecurityContext ctx = contextHolder.get();
+		if (ctx == null) {
+			ctx = createEmptyContext();
+			contextHolder.set(ctx);
+		}
+		return ctx;
+	}
+
+	@Override
+	public void setContext(SecurityContext context) {
+		Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+		ContextBinding binding = scopedContext.get();
+		if (binding != null) {
+			binding.context = context;
+			return;
+		}
+		contextHolder.set(context);
+	}
+
+	@Override
+	public SecurityContext createEmptyContext() {
+		return new SecurityContextImpl();
+	}
+
+	/**
+	 * Runs the given task with the given {@link SecurityContext} bound for its duration.
+	 * Any context that was available before is available again once the task completes.
+	 * @param context the {@link SecurityContext} to bind. Cannot be null.
+	 * @param task the task to run. Cannot be null.
+	 */
+	public void run(SecurityContext context, Runnable task) {
+		Assert.notNull(context, "context cannot be null");
+		Assert.notNull(task, "task cannot be null");
+		scopedContext.run(new ContextBinding(context), task);
+	}
+
+	/**
+	 * Calls the given task with the given {@link SecurityContext} bound for its duration.
+	 * Any context that was available before is available again once the task completes.
+	 * @param context the {@link SecurityContext} to bind. Cannot be null.
+	 * @param task the task to call. Cannot be null.
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <V> V call(SecurityContext context, Callable<V> task) throws Exception {
+		Assert.notNull(task, "task cannot be null");
+		CallableRunner<V> runner = new CallableRunner<>(task);
+		run(context, runner);
+		return runner.getResult();
+	}
+
+	/**
+	 * Returns whether bindings are carried by {@code java.lang.ScopedValue} rather than a
+	 * <code>ThreadLocal</code>.
+	 * @return {@code true} if {@code java.lang.ScopedValue} is used
+	 */
+	public static boolean isScopedValueSupported() {
+		return scopedContext instanceof ScopedValueContext;
+	}
+
+	/**
+	 * The mutable binding of a task, confined to the task that created it.
+	 */
+	private static final class ContextBinding {
+
+		private SecurityContext context;
+
+		private ContextBinding(SecurityContext context) {
+			this.context = context;
+		}
+
+	}
+
+	private static final class CallableRunner<V> implements Runnable {
+
+		private final Callable<V> task;
+
+		private V result;
+
+		private Exception failure;
+
+		private CallableRunner(Callable<V> task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.result = this.task.call();
+			}
+			catch (Exception ex) {
+				this.failure = ex;
+			}
+		}
+
+		private V getResult() throws Exception {
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			return this.result;
+		}
+
+	}
+
+	/**
+	 * Carries the {@link ContextBinding} of the current task.
+	 */
+	private abstract static class ScopedContext {
+
+		abstract ContextBinding get();
+
+		abstract void run(ContextBinding binding, Runnable task);
+
+		static ScopedContext create() {
+			try {
+				ScopedContext context = new ScopedValueContext();
+				context.run(new ContextBinding(null), () -> {
+				});
+				return context;
+			}
+			catch (Throwable ex) {
+				// ScopedValue is not available (or not enabled) on this JVM
+				return new ThreadLocalContext();
+			}
+		}
+
+	}
+
+	private static final class ThreadLocalContext extends ScopedContext {
+
+		private final ThreadLocal<ContextBinding> bindings = new ThreadLocal<>();
+
+		@Override
+		ContextBinding get() {
+			return this.bindings.get();
+		}
+
+		@Override
+		void run(ContextBinding binding, Runnable task) {
+			ContextBinding previous = this.bindings.get();
+			this.bindings.set(binding);
+			try {
+				task.run();
+			}
+			finally {
+				if (previous != null) {
+					this.bindings.set(previous);
+				}
+				else {
+					this.bindings.remove();
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Uses {@code java.lang.ScopedValue} reflectively, since this module is compiled
+	 * against a JDK that does not provide it.
+	 */
+	private static final class ScopedValueContext extends ScopedContext {
+
+		private static final ContextBinding UNBOUND = new ContextBinding(null);
+
+		private final Object scopedValue;
+
+		private final MethodHandle orElse;
+
+		private final MethodHandle where;
+
+		private final MethodHandle run;
+
+		private ScopedValueContext() throws Throwable {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+			Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+			this.scopedValue = lookup
+					.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass)).invoke();
+			this.orElse = lookup.findVirtual(scopedValueClass, "orElse",
+					MethodType.methodType(Object.class, Object.class));
+			this.where = lookup.findStatic(scopedValueClass, "where",
+					MethodType.methodType(carrierClass, scopedValueClass, Object.class));
+			this.run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class));
+		}
+
+		@Override
+		ContextBinding get() {
+			try {
+				ContextBinding binding = (ContextBinding) this.orElse.invoke(this.scopedValue, UNBOUND);
+				return (binding != UNBOUND) ? binding : null;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		void run(ContextBinding binding, Runnable task) {
+			Object carrier;
+			try {
+				carrier = this.where.invoke(this.scopedValue, binding);
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+			try {
+				this.run.invoke(carrier, task);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+}
@@ -31,7 +31,7 @@ import org.springframework.util.StringUtils;
  * <code>static</code> to facilitate ease of use in calling code.
  * <p>
  * To specify which strategy should be used, you must provide a mode setting. A mode
- * setting is one of the three valid <code>MODE_</code> settings defined as
+ * setting is one of the four valid <code>MODE_</code> settings defined as
  * <code>static final</code> fields, or a fully qualified classname to a concrete
  * implementation of
  * {@link org.springframework.security.core.context.SecurityContextHolderStrategy} that
@@ -55,6 +55,15 @@ public class SecurityContextHolder {
 
 	public static final String MODE_GLOBAL = "MODE_GLOBAL";
 
+	/**
+	 * Uses the {@link ScopedSecurityContextHolderStrategy}, which can bind a
+	 * {@link SecurityContext} for the duration of a task without populating the
+	 * <code>ThreadLocal</code> map of the executing thread when
+	 * {@code java.lang.ScopedValue} is available.
+	 * @since 5.5
+	 */
+	public static final String MODE_SCOPED = "MODE_SCOPED";
+
 	public static final String SYSTEM_PROPERTY = "spring.security.strategy";
 
 	private static String strategyName = System.getProperty(SYSTEM_PROPERTY);
@@ -81,6 +90,9 @@ public class SecurityContextHolder {
 		else if (strategyName.equals(MODE_GLOBAL)) {
 			strategy = new GlobalSecurityContextHolderStrategy();
 		}
+		else if (strategyName.equals(MODE_SCOPED)) {
+			strategy = new ScopedSecurityContextHolderStrategy();
+		}
 		else {
 			// Try to load a custom strategy
 			try {
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.log.LogMessage;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link ApplicationEventPublisher} that queues events and publishes them to a
+ * delegate in the background, so that slow listeners, such as audit logs, do not add to
+ * the latency of the request that caused the event.
+ *
+ * <p>
+ * Events are held in a bounded ring buffer and taken from it in batches, which are
+ * published one event after the other by a single worker at a time, preserving the order
+ * in which they were queued. What happens when the buffer is full is determined by the
+ * {@link OverflowPolicy}. Since listeners are invoked on the worker, they cannot rely on
+ * the {@code SecurityContextHolder} of the thread that published the event.
+ *
+ * <p>
+ * To opt in, pass an instance wrapping the application context to the components that
+ * publish security events, for example:
+ *
+ * <pre>
+ * AsyncSecurityEventPublisher publisher = new AsyncSecurityEventPublisher(applicationContext);
+ * ProviderManager providerManager = ...;
+ * providerManager.setAuthenticationEventPublisher(new DefaultAuthenticationEventPublisher(publisher));
+ * filterSecurityInterceptor.setApplicationEventPublisher(publisher);
+ * </pre>
+ *
+ * @since 5.5
+ * @see org.springframework.security.authentication.DefaultAuthenticationEventPublisher
+ * @see org.springframework.security.access.intercept.AbstractSecurityInterceptor
+ */
+public final class AsyncSecurityEventPublisher implements ApplicationEventPublisher {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final ApplicationEventPublisher delegate;
+
+	private final Object[] events;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notFull = this.lock.newCondition();
+
+	private int head;
+
+	private int count;
+
+	private boolean draining;
+
+	private volatile Thread worker;
+
+	private final LongAdder queuedCount = new LongAdder();
+
+	private final LongAdder publishedCount = new LongAdder();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private Executor executor;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+	private int batchSize = 100;
+
+	/**
+	 * Creates a new instance with room for 1024 events
+	 * @param delegate the {@link ApplicationEventPublisher} that delivers the events to
+	 * the listeners
+	 */
+	public AsyncSecurityEventPublisher(ApplicationEventPublisher delegate) {
+		this(delegate, 1024);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ApplicationEventPublisher} that delivers the events to
+	 * the listeners
+	 * @param capacity the maximum number of queued events
+	 */
+	public AsyncSecurityEventPublisher(ApplicationEventPublisher delegate, int capacity) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(capacity > 0, "capacity must be greater than 0");
+		this.delegate = delegate;
+		this.events = new Object[capacity];
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("security-event-");
+		executor.setDaemon(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Queues the event, waiting for room in the buffer or dropping the event if it is
+	 * full, depending on the {@link OverflowPolicy}
+	 * @param event the event to publish
+	 */
+	@Override
+	public void publishEvent(Object event) {
+		Assert.notNull(event, "event cannot be null");
+		if (!offer(event)) {
+			this.droppedCount.increment();
+			this.logger.debug(LogMessage.format("Dropped %s since the queue is full", event));
+			return;
+		}
+		scheduleDraining();
+	}
+
+	private void scheduleDraining() {
+		if (startDraining()) {
+			try {
+				this.executor.execute(this::drain);
+			}
+			catch (RejectedExecutionException ex) {
+				this.logger.debug("Failed to schedule event publication, publishing on the calling thread", ex);
+				drain();
+			}
+		}
+	}
+
+	private boolean offer(Object event) {
+		this.lock.lock();
+		try {
+			while (this.count == this.events.length) {
+				// the worker never waits for itself
+				if (this.overflowPolicy == OverflowPolicy.DROP || Thread.currentThread() == this.worker) {
+					return false;
+				}
+				try {
+					this.notFull.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			this.events[(this.head + this.count) % this.events.length] = event;
+			this.count++;
+			this.queuedCount.increment();
+			return true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private boolean startDraining() {
+		this.lock.lock();
+		try {
+			if (this.draining || this.count == 0) {
+				return false;
+			}
+			this.draining = true;
+			return true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void drain() {
+		Thread previousWorker = this.worker;
+		this.worker = Thread.currentThread();
+		boolean drained = false;
+		try {
+			List<Object> batch = new ArrayList<>(this.batchSize);
+			while (take(batch)) {
+				this.logger.trace(LogMessage.format("Publishing %s events", batch.size()));
+				for (Object event : batch) {
+					publish(event);
+				}
+				batch.clear();
+			}
+			drained = true;
+		}
+		finally {
+			this.worker = previousWorker;
+			if (!drained) {
+				// a listener threw an Error, so the remaining events need another worker
+				stopDraining();
+				scheduleDraining();
+			}
+		}
+	}
+
+	private void stopDraining() {
+		this.lock.lock();
+		try {
+			this.draining = false;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves the oldest events from the buffer to the batch. When the buffer is empty,
+	 * draining stops.
+	 */
+	private boolean take(List<Object> batch) {
+		this.lock.lock();
+		try {
+			if (this.count == 0) {
+				this.draining = false;
+				return false;
+			}
+			int size = Math.min(this.batchSize, this.count);
+			for (int i = 0; i < size; i++) {
+				batch.add(this.events[this.head]);
+				this.events[this.head] = null;
+				this.head = (this.head + 1) % this.events.length;
+			}
+			this.count -= size;
+			this.notFull.signalAll();
+			return true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void publish(Object event) {
+		try {
+			this.delegate.publishEvent(event);
+			this.publishedCount.increment();
+		}
+		catch (RuntimeException ex) {
+			this.failedCount.increment();
+			this.logger.warn(LogMessage.format("Failed to publish %s", event), ex);
+		}
+	}
+
+	/**
+	 * Returns the number of events waiting to be published
+	 * @return the number of queued events
+	 */
+	public int getQueueSize() {
+		this.lock.lock();
+		try {
+			return this.count;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of events that were queued
+	 * @return the number of queued events
+	 */
+	public long getQueuedCount() {
+		return this.queuedCount.sum();
+	}
+
+	/**
+	 * Returns the number of events that were published to the delegate
+	 * @return the number of published events
+	 */
+	public long getPublishedCount() {
+		return this.publishedCount.sum();
+	}
+
+	/**
+	 * Returns the number of events that were dropped since the buffer was full
+	 * @return the number of dropped events
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Returns the number of events whose publication failed with an exception
+	 * @return the number of failed events
+	 */
+	public long getFailedCount() {
+		return this.failedCount.sum();
+	}
+
+	/**
+	 * Sets the {@link Executor} that publishes the queued events. At most one task is
+	 * running on it at a time. If it rejects a task, the events are published on the
+	 * calling thread instead. The default creates a daemon thread whenever there are
+	 * events to publish.
+	 * @param executor the {@link Executor} to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets what happens to an event that is published while the buffer is full. The
+	 * default is {@link OverflowPolicy#DROP}.
+	 * @param overflowPolicy the {@link OverflowPolicy} to use
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "overflowPolicy cannot be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Sets the maximum number of events taken from the buffer at once. The default is
+	 * 100.
+	 * @param batchSize the maximum number of events in a batch
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * What happens to an event that is published while the buffer is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * The event is discarded, so publishing never waits.
+		 */
+		DROP,
+
+		/**
+		 * The publishing thread waits until there is room for the event. An event
+		 * published by a listener is still discarded, since the worker would otherwise
+		 * wait for itself.
+		 */
+		BLOCK
+
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.userdetails.PendingPasswordUpgrades.PasswordUpgrade;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * A {@link ReactiveUserDetailsPasswordService} that queues password updates and applies
+ * them to a delegate in the background, so that upgrading the encoding of a password
+ * does not add to the latency of the login that triggered it.
+ *
+ * <p>
+ * The queue holds at most one update per username, the most recent one, and is bounded.
+ * When it is full further updates are dropped, which is harmless for encoding upgrades
+ * since the upgrade is attempted again on the next login. Updates are taken from the
+ * queue in batches and applied one after the other.
+ *
+ * <p>
+ * Before an update is applied, the user is loaded again and the update is skipped if the
+ * stored password is no longer the one the user logged in with, so that a password
+ * changed in the meantime is not overwritten. The {@link ReactiveUserDetailsService}
+ * used for this should therefore not return cached users.
+ *
+ * @since 5.5
+ * @see AsyncUserDetailsPasswordService
+ */
+public final class AsyncReactiveUserDetailsPasswordService implements ReactiveUserDetailsPasswordService {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final ReactiveUserDetailsPasswordService delegate;
+
+	private final ReactiveUserDetailsService userDetailsService;
+
+	private final PendingPasswordUpgrades pending = new PendingPasswordUpgrades();
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
+	private int batchSize = 100;
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ReactiveUserDetailsPasswordService} that persists the
+	 * passwords, which must also be the {@link ReactiveUserDetailsService} that loads the
+	 * users
+	 */
+	public AsyncReactiveUserDetailsPasswordService(ReactiveUserDetailsPasswordService delegate) {
+		this(delegate, (delegate instanceof ReactiveUserDetailsService) ? (ReactiveUserDetailsService) delegate
+				: null);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ReactiveUserDetailsPasswordService} that persists the
+	 * passwords
+	 * @param userDetailsService the {@link ReactiveUserDetailsService} that loads the
+	 * stored password before an update is applied
+	 */
+	public AsyncReactiveUserDetailsPasswordService(ReactiveUserDetailsPasswordService delegate,
+			ReactiveUserDetailsService userDetailsService) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(userDetailsService,
+				"userDetailsService cannot be null, unless the delegate is a ReactiveUserDetailsService");
+		this.delegate = delegate;
+		this.userDetailsService = userDetailsService;
+	}
+
+	/**
+	 * Queues the update of the user's password
+	 * @param user the user to modify the password for
+	 * @param newPassword the password to change to
+	 * @return the given user, which still has the previous password
+	 */
+	@Override
+	public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+		return updatePassword(user, () -> newPassword);
+	}
+
+	/**
+	 * Queues the update of the user's password, obtaining the new password on the
+	 * {@link #setScheduler(Scheduler) Scheduler}. This allows expensive encoding to be
+	 * deferred as well, at the cost of keeping the information needed to encode the
+	 * password in memory until the update is applied.
+	 * @param user the user to modify the password for
+	 * @param newPassword supplies the password to change to
+	 * @return the given user, which still has the previous password
+	 */
+	public Mono<UserDetails> updatePassword(UserDetails user, Supplier<String> newPassword) {
+		Assert.notNull(user, "user cannot be null");
+		Assert.notNull(newPassword, "newPassword cannot be null");
+		return Mono.fromSupplier(() -> {
+			if (!this.pending.offer(user, newPassword)) {
+				this.logger.debug(LogMessage.format("Dropped password update for %s since the queue is full",
+						user.getUsername()));
+			}
+			else if (this.pending.startDraining()) {
+				drain();
+			}
+			return user;
+		});
+	}
+
+	private void drain() {
+		List<PasswordUpgrade> batch = this.pending.take(this.batchSize);
+		if (batch.isEmpty()) {
+			return;
+		}
+		this.logger.trace(LogMessage.format("Updating %s passwords", batch.size()));
+		// @formatter:off
+		Flux.fromIterable(batch)
+				.concatMap(this::update)
+				.subscribeOn(this.scheduler)
+				.doFinally((signal) -> drain())
+				.subscribe();
+		// @formatter:on
+	}
+
+	private Mono<UserDetails> update(PasswordUpgrade upgrade) {
+		String username = upgrade.getUsername();
+		// @formatter:off
+		return Mono.defer(() -> this.userDetailsService.findByUsername(username))
+				.filter((current) -> isPasswordUnchanged(current, upgrade))
+				.flatMap((current) -> this.delegate.updatePassword(current, upgrade.getNewPassword()))
+				.onErrorResume((ex) -> {
+					this.logger.warn(LogMessage.format("Failed to update password for %s", username), ex);
+					return Mono.empty();
+				});
+		// @formatter:on
+	}
+
+	private boolean isPasswordUnchanged(UserDetails current, PasswordUpgrade upgrade) {
+		if (ObjectUtils.nullSafeEquals(current.getPassword(), upgrade.getPassword())) {
+			return true;
+		}
+		this.logger.debug(LogMessage.format("Skipped password update for %s since the password has changed",
+				upgrade.getUsername()));
+		return false;
+	}
+
+	/**
+	 * Returns the number of updates waiting to be applied
+	 * @return the number of queued updates
+	 */
+	public int getQueueSize() {
+		return this.pending.size();
+	}
+
+	/**
+	 * Sets the {@link Scheduler} on which the queued updates are applied. The new
+	 * passwords are obtained on it as well, so it should allow blocking. The default is
+	 * {@link Schedulers#boundedElastic()}.
+	 * @param scheduler the {@link Scheduler} to use
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Sets the maximum number of users whose updates are queued. The default is 1000.
+	 * @param queueCapacity the maximum number of queued updates
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		this.pending.setCapacity(queueCapacity);
+	}
+
+	/**
+	 * Sets the maximum number of updates taken from the queue at once. The default is
+	 * 100.
+	 * @param batchSize the maximum number of updates in a batch
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+}
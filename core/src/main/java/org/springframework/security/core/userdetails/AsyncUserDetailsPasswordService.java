@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.core.userdetails.PendingPasswordUpgrades.PasswordUpgrade;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * A {@link UserDetailsPasswordService} that queues password updates and applies them to
+ * a delegate in the background, so that upgrading the encoding of a password does not
+ * add to the latency of the login that triggered it.
+ *
+ * <p>
+ * The queue holds at most one update per username, the most recent one, and is bounded.
+ * When it is full further updates are dropped, which is harmless for encoding upgrades
+ * since the upgrade is attempted again on the next login. Updates are taken from the
+ * queue in batches and applied one after the other by a single worker at a time.
+ *
+ * <p>
+ * Before an update is applied, the user is loaded again and the update is skipped if the
+ * stored password is no longer the one the user logged in with, so that a password
+ * changed in the meantime is not overwritten. The {@link UserDetailsService} used for
+ * this should therefore not return cached users.
+ *
+ * <p>
+ * {@code DaoAuthenticationProvider} recognizes this service and also defers encoding
+ * the new password to the worker, see {@link #updatePassword(UserDetails, Supplier)}.
+ *
+ * @since 5.5
+ * @see AsyncReactiveUserDetailsPasswordService
+ */
+public final class AsyncUserDetailsPasswordService implements UserDetailsPasswordService {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final UserDetailsPasswordService delegate;
+
+	private final UserDetailsService userDetailsService;
+
+	private final PendingPasswordUpgrades pending = new PendingPasswordUpgrades();
+
+	private Executor executor;
+
+	private int batchSize = 100;
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link UserDetailsPasswordService} that persists the passwords,
+	 * which must also be the {@link UserDetailsService} that loads the users
+	 */
+	public AsyncUserDetailsPasswordService(UserDetailsPasswordService delegate) {
+		this(delegate, (delegate instanceof UserDetailsService) ? (UserDetailsService) delegate : null);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link UserDetailsPasswordService} that persists the passwords
+	 * @param userDetailsService the {@link UserDetailsService} that loads the stored
+	 * password before an update is applied
+	 */
+	public AsyncUserDetailsPasswordService(UserDetailsPasswordService delegate,
+			UserDetailsService userDetailsService) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(userDetailsService,
+				"userDetailsService cannot be null, unless the delegate is a UserDetailsService");
+		this.delegate = delegate;
+		this.userDetailsService = userDetailsService;
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("password-upgrade-");
+		executor.setDaemon(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Queues the update of the user's password
+	 * @param user the user to modify the password for
+	 * @param newPassword the password to change to, encoded by the configured
+	 * {@code PasswordEncoder}
+	 * @return the given user, which still has the previous password
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		return updatePassword(user, () -> newPassword);
+	}
+
+	/**
+	 * Queues the update of the user's password, obtaining the new password on the worker.
+	 * This allows expensive encoding to be deferred as well, at the cost of keeping the
+	 * information needed to encode the password in memory until the update is applied.
+	 * @param user the user to modify the password for
+	 * @param newPassword supplies the password to change to, encoded by the configured
+	 * {@code PasswordEncoder}
+	 * @return the given user, which still has the previous password
+	 */
+	public UserDetails updatePassword(UserDetails user, Supplier<String> newPassword) {
+		Assert.notNull(user, "user cannot be null");
+		Assert.notNull(newPassword, "newPassword cannot be null");
+		if (!this.pending.offer(user, newPassword)) {
+			this.logger.debug(LogMessage.format("Dropped password update for %s since the queue is full",
+					user.getUsername()));
+			return user;
+		}
+		if (this.pending.startDraining()) {
+			try {
+				this.executor.execute(this::drain);
+			}
+			catch (RejectedExecutionException ex) {
+				this.pending.stopDraining();
+				this.logger.warn("Failed to schedule password updates", ex);
+			}
+		}
+		return user;
+	}
+
+	private void drain() {
+		List<PasswordUpgrade> batch;
+		while (!(batch = this.pending.take(this.batchSize)).isEmpty()) {
+			this.logger.trace(LogMessage.format("Updating %s passwords", batch.size()));
+			for (PasswordUpgrade upgrade : batch) {
+				update(upgrade);
+			}
+		}
+	}
+
+	private void update(PasswordUpgrade upgrade) {
+		String username = upgrade.getUsername();
+		try {
+			UserDetails current = this.userDetailsService.loadUserByUsername(username);
+			if (!ObjectUtils.nullSafeEquals(current.getPassword(), upgrade.getPassword())) {
+				this.logger.debug(LogMessage.format("Skipped password update for %s since the password has changed",
+						username));
+				return;
+			}
+			this.delegate.updatePassword(current, upgrade.getNewPassword());
+		}
+		catch (UsernameNotFoundException ex) {
+			this.logger.debug(LogMessage.format("Skipped password update for %s since the user was not found",
+					username));
+		}
+		catch (RuntimeException ex) {
+			this.logger.warn(LogMessage.format("Failed to update password for %s", username), ex);
+		}
+	}
+
+	/**
+	 * Returns the number of updates waiting to be applied
+	 * @return the number of queued updates
+	 */
+	public int getQueueSize() {
+		return this.pending.size();
+	}
+
+	/**
+	 * Sets the {@link Executor} that applies the queued updates. At most one task is
+	 * running on it at a time. The default creates a daemon thread whenever there are
+	 * updates to apply.
+	 * @param executor the {@link Executor} to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the maximum number of users whose updates are queued. The default is 1000.
+	 * @param queueCapacity the maximum number of queued updates
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		this.pending.setCapacity(queueCapacity);
+	}
+
+	/**
+	 * Sets the maximum number of updates taken from the queue at once. The default is
+	 * 100.
+	 * @param batchSize the maximum number of updates in a batch
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+}
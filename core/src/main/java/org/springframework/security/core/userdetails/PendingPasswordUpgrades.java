@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded queue of password upgrades, holding at most one upgrade per username, that is
+ * drained by at most one worker at a time.
+ *
+ * @since 5.5
+ */
+final class PendingPasswordUpgrades {
+
+	private final Map<String, PasswordUpgrade> upgrades = new LinkedHashMap<>();
+
+	private int capacity = 1000;
+
+	private boolean draining;
+
+	/**
+	 * Queues an upgrade, replacing any upgrade already queued for the same username. The
+	 * user's current password is copied right away, since the credentials of the user may
+	 * be erased once authentication completes.
+	 * @return {@code false} if the queue is full
+	 */
+	synchronized boolean offer(UserDetails user, Supplier<String> newPassword) {
+		String username = user.getUsername();
+		if (this.upgrades.remove(username) == null && this.upgrades.size() >= this.capacity) {
+			return false;
+		}
+		this.upgrades.put(username, new PasswordUpgrade(username, user.getPassword(), newPassword));
+		return true;
+	}
+
+	/**
+	 * Marks the queue as being drained
+	 * @return {@code true} if the caller must start draining the queue
+	 */
+	synchronized boolean startDraining() {
+		if (this.draining || this.upgrades.isEmpty()) {
+			return false;
+		}
+		this.draining = true;
+		return true;
+	}
+
+	synchronized void stopDraining() {
+		this.draining = false;
+	}
+
+	/**
+	 * Removes the oldest upgrades from the queue. When the queue is empty, draining
+	 * stops.
+	 */
+	synchronized List<PasswordUpgrade> take(int batchSize) {
+		if (this.upgrades.isEmpty()) {
+			this.draining = false;
+			return Collections.emptyList();
+		}
+		List<PasswordUpgrade> batch = new ArrayList<>(Math.min(batchSize, this.upgrades.size()));
+		Iterator<PasswordUpgrade> iterator = this.upgrades.values().iterator();
+		while (iterator.hasNext() && batch.size() < batchSize) {
+			batch.add(iterator.next());
+			iterator.remove();
+		}
+		return batch;
+	}
+
+	synchronized int size() {
+		return this.upgrades.size();
+	}
+
+	synchronized void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	static final class PasswordUpgrade {
+
+		private final String username;
+
+		private final String password;
+
+		private final Supplier<String> newPassword;
+
+		private PasswordUpgrade(String username, String password, Supplier<String> newPassword) {
+			this.username = username;
+			this.password = password;
+			this.newPassword = newPassword;
+		}
+
+		String getUsername() {
+			return this.username;
+		}
+
+		/**
+		 * Returns the password the user had when the upgrade was queued
+		 */
+		String getPassword() {
+			return this.password;
+		}
+
+		String getNewPassword() {
+			return this.newPassword.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+
+/**
+ * Caches {@link UserDetails} instances in memory, without any external cache
+ * infrastructure.
+ *
+ * <p>
+ * The cache holds a bounded number of users, evicting the least recently used ones when
+ * it is full, and expires each user a fixed time after it was put into the cache.
+ * Putting the instance that is already cached again, as
+ * {@link org.springframework.security.authentication.CachingUserDetailsService} does on
+ * every lookup, does not extend its time to live. The entries are spread over several
+ * independently locked segments, each of which bounds its own share of the entries.
+ *
+ * @since 5.5
+ */
+public final class InMemoryUserCache implements UserCache {
+
+	private static final Log logger = LogFactory.getLog(InMemoryUserCache.class);
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+
+	private final long timeToLiveMillis;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance
+	 * @param maximumSize the maximum number of users to cache
+	 * @param timeToLive how long a user is cached after it was put into the cache
+	 */
+	public InMemoryUserCache(int maximumSize, Duration timeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		int segmentCount = Math.min(MAX_SEGMENTS, maximumSize);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			int capacity = maximumSize / segmentCount + ((i < maximumSize % segmentCount) ? 1 : 0);
+			this.segments[i] = new Segment(capacity, this.evictionCount);
+		}
+		this.timeToLiveMillis = timeToLive.toMillis();
+	}
+
+	@Override
+	public UserDetails getUserFromCache(String username) {
+		UserDetails user = (username != null) ? segment(username).get(username, this.clock.millis()) : null;
+		if (user != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		logger.trace(LogMessage.of(() -> "Cache hit: " + (user != null) + "; username: " + username));
+		return user;
+	}
+
+	@Override
+	public void putUserInCache(UserDetails user) {
+		Assert.notNull(user, "user cannot be null");
+		String username = user.getUsername();
+		long now = this.clock.millis();
+		segment(username).put(username, user, now, now + this.timeToLiveMillis);
+	}
+
+	@Override
+	public void removeUserFromCache(String username) {
+		if (username != null) {
+			segment(username).remove(username);
+		}
+	}
+
+	/**
+	 * Removes all users from the cache
+	 */
+	public void removeAllUsersFromCache() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of users in the cache, including expired ones that were not
+	 * removed yet
+	 * @return the number of cached users
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of lookups that found a cached user
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a cached user, including those that
+	 * found an expired one
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Returns the number of users removed to keep the cache within its maximum size
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire users. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	private Segment segment(String username) {
+		int hash = username.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[(hash & Integer.MAX_VALUE) % this.segments.length];
+	}
+
+	private static final class Segment {
+
+		private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private final int capacity;
+
+		private final LongAdder evictionCount;
+
+		private Segment(int capacity, LongAdder evictionCount) {
+			this.capacity = capacity;
+			this.evictionCount = evictionCount;
+		}
+
+		synchronized UserDetails get(String username, long now) {
+			CacheEntry entry = this.entries.get(username);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired(now)) {
+				this.entries.remove(username);
+				return null;
+			}
+			return entry.user;
+		}
+
+		synchronized void put(String username, UserDetails user, long now, long expiresAt) {
+			CacheEntry entry = this.entries.get(username);
+			if (entry != null && entry.user == user && !entry.isExpired(now)) {
+				return;
+			}
+			this.entries.put(username, new CacheEntry(user, expiresAt));
+			Iterator<CacheEntry> eldest = this.entries.values().iterator();
+			while (this.entries.size() > this.capacity) {
+				eldest.next();
+				eldest.remove();
+				this.evictionCount.increment();
+			}
+		}
+
+		synchronized void remove(String username) {
+			this.entries.remove(username);
+		}
+
+		synchronized void clear() {
+			this.entries.clear();
+		}
+
+		synchronized int size() {
+			return this.entries.size();
+		}
+
+	}
+
+	private static final class CacheEntry {
+
+		private final UserDetails user;
+
+		private final long expiresAt;
+
+		private CacheEntry(UserDetails user, long expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now - this.expiresAt >= 0;
+		}
+
+	}
+
+}
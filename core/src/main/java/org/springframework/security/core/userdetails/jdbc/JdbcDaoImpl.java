@@ -16,16 +16,24 @@
 
 package org.springframework.security.core.userdetails.jdbc;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.MessageSource;
 import org.springframework.context.MessageSourceAware;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.SpringSecurityMessageSource;
@@ -104,6 +112,13 @@ import org.springframework.util.Assert;
  * this by setting the <tt>groupAuthoritiesByUsernameQuery</tt> property, but the format
  * of the rows returned should match the default.
  *
+ * <h3>Combined Query</h3> By default a user is loaded with one query for the user and one
+ * for each kind of authorities. Setting the
+ * {@link #setUserWithAuthoritiesByUsernameQuery(String) userWithAuthoritiesByUsernameQuery}
+ * property loads the user and all of its authorities with a single query instead, such
+ * as {@link #DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY}. Several users can be loaded
+ * with one query per batch using {@link #loadUsersByUsernames(Collection)}.
+ *
  * @author Ben Alex
  * @author colin sampaleanu
  * @author Luke Taylor
@@ -128,6 +143,24 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 			+ "where gm.username = ? " + "and g.id = ga.group_id " + "and g.id = gm.group_id";
 	// @formatter:on
 
+	// @formatter:off
+	public static final String DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY = "select "
+			+ "u.username,u.password,u.enabled,a.authority "
+			+ "from users u "
+			+ "left join authorities a on a.username = u.username "
+			+ "where u.username = :username";
+	// @formatter:on
+
+	// @formatter:off
+	public static final String DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY = "select "
+			+ "u.username,u.password,u.enabled,a.authority "
+			+ "from users u "
+			+ "left join authorities a on a.username = u.username "
+			+ "where u.username in (:usernames)";
+	// @formatter:on
+
+	private static final int USERNAMES_BATCH_SIZE = 500;
+
 	protected MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
 
 	private String authoritiesByUsernameQuery;
@@ -136,6 +169,10 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 
 	private String usersByUsernameQuery;
 
+	private String userWithAuthoritiesByUsernameQuery;
+
+	private String usersWithAuthoritiesByUsernamesQuery = DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY;
+
 	private String rolePrefix = "";
 
 	private boolean usernameBasedPrimaryKey = true;
@@ -179,6 +216,9 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		if (this.userWithAuthoritiesByUsernameQuery != null) {
+			return loadUserWithAuthoritiesByUsername(username);
+		}
 		List<UserDetails> users = loadUsersByUsername(username);
 		if (users.size() == 0) {
 			this.logger.debug("Query returned no results for user '" + username + "'");
@@ -203,6 +243,81 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 		return createUserDetails(username, user, dbAuths);
 	}
 
+	/**
+	 * Loads the user and its authorities by executing the SQL from
+	 * <tt>userWithAuthoritiesByUsernameQuery</tt> with the username bound to the named
+	 * parameter {@code :username}.
+	 */
+	private UserDetails loadUserWithAuthoritiesByUsername(String username) {
+		NamedParameterJdbcTemplate template = new NamedParameterJdbcTemplate(getJdbcTemplate());
+		Map<String, UserWithAuthorities> users = new LinkedHashMap<>();
+		template.query(this.userWithAuthoritiesByUsernameQuery, Collections.singletonMap("username", username),
+				new UsersWithAuthoritiesCallbackHandler(users));
+		if (users.isEmpty()) {
+			this.logger.debug("Query returned no results for user '" + username + "'");
+			throw new UsernameNotFoundException(this.messages.getMessage("JdbcDaoImpl.notFound",
+					new Object[] { username }, "Username {0} not found"));
+		}
+		UserWithAuthorities user = users.values().iterator().next();
+		List<GrantedAuthority> dbAuths = new ArrayList<>(user.authorities);
+		addCustomAuthorities(user.user.getUsername(), dbAuths);
+		if (dbAuths.size() == 0) {
+			this.logger.debug("User '" + username + "' has no authorities and will be treated as 'not found'");
+			throw new UsernameNotFoundException(this.messages.getMessage("JdbcDaoImpl.noAuthority",
+					new Object[] { username }, "User {0} has no GrantedAuthority"));
+		}
+		return createUserDetails(username, user.user, dbAuths);
+	}
+
+	/**
+	 * Loads several users and their authorities by executing the SQL from
+	 * <tt>usersWithAuthoritiesByUsernamesQuery</tt> once per batch of usernames. As with
+	 * {@link #loadUserByUsername(String)}, users that have no authorities are treated as
+	 * not found. This requires the query to return usernames, see
+	 * {@link #setUsernameBasedPrimaryKey(boolean)}.
+	 * @param usernames the usernames of the users to load
+	 * @return the users that were found, in no particular order
+	 * @since 5.5
+	 */
+	public List<UserDetails> loadUsersByUsernames(Collection<String> usernames) {
+		Assert.notNull(usernames, "usernames cannot be null");
+		Assert.state(this.usernameBasedPrimaryKey, "loadUsersByUsernames requires a username based primary key");
+		if (usernames.isEmpty()) {
+			return Collections.emptyList();
+		}
+		NamedParameterJdbcTemplate template = new NamedParameterJdbcTemplate(getJdbcTemplate());
+		Map<String, UserWithAuthorities> users = new LinkedHashMap<>();
+		List<String> batch = new ArrayList<>(Math.min(usernames.size(), USERNAMES_BATCH_SIZE));
+		for (String username : usernames) {
+			batch.add(username);
+			if (batch.size() == USERNAMES_BATCH_SIZE) {
+				queryUsersWithAuthorities(template, batch, users);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			queryUsersWithAuthorities(template, batch, users);
+		}
+		List<UserDetails> result = new ArrayList<>(users.size());
+		for (UserWithAuthorities user : users.values()) {
+			List<GrantedAuthority> dbAuths = new ArrayList<>(user.authorities);
+			addCustomAuthorities(user.user.getUsername(), dbAuths);
+			if (dbAuths.size() == 0) {
+				this.logger.debug("User '" + user.user.getUsername()
+						+ "' has no authorities and will be treated as 'not found'");
+				continue;
+			}
+			result.add(createUserDetails(user.user.getUsername(), user.user, dbAuths));
+		}
+		return result;
+	}
+
+	private void queryUsersWithAuthorities(NamedParameterJdbcTemplate template, List<String> usernames,
+			Map<String, UserWithAuthorities> users) {
+		template.query(this.usersWithAuthoritiesByUsernamesQuery, Collections.singletonMap("usernames", usernames),
+				new UsersWithAuthoritiesCallbackHandler(users));
+	}
+
 	/**
 	 * Executes the SQL <tt>usersByUsernameQuery</tt> and returns a list of UserDetails
 	 * objects. There should normally only be one matching user.
@@ -344,6 +459,43 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 		this.usersByUsernameQuery = usersByUsernameQueryString;
 	}
 
+	/**
+	 * Sets a query that loads a user together with all of its authorities, so that
+	 * {@link #loadUserByUsername(String)} needs a single database roundtrip. The query
+	 * must return one row per authority with the username, password, enabled flag and
+	 * authority, in that order, and a row with a {@code null} authority for a user with
+	 * no authorities, as {@link #DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY} does with
+	 * a left join. The query takes the username as the named parameter
+	 * {@code :username}, which may be used more than once, so group authorities can be
+	 * added with a {@code union all} of a second select.
+	 *
+	 * <p>
+	 * When set, the query replaces <tt>usersByUsernameQuery</tt>,
+	 * <tt>authoritiesByUsernameQuery</tt> and <tt>groupAuthoritiesByUsernameQuery</tt>,
+	 * and the <tt>enableAuthorities</tt> and <tt>enableGroups</tt> properties are
+	 * ignored. By default it is not set.
+	 * @param userWithAuthoritiesByUsernameQuery the query string to set, or {@code null}
+	 * to use separate queries
+	 * @since 5.5
+	 */
+	public void setUserWithAuthoritiesByUsernameQuery(String userWithAuthoritiesByUsernameQuery) {
+		this.userWithAuthoritiesByUsernameQuery = userWithAuthoritiesByUsernameQuery;
+	}
+
+	/**
+	 * Sets the query used by {@link #loadUsersByUsernames(Collection)}. The query must
+	 * return the same columns as the <tt>userWithAuthoritiesByUsernameQuery</tt> and take
+	 * the usernames as the named parameter {@code :usernames}. The default is
+	 * {@link #DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY}, which does not load group
+	 * authorities.
+	 * @param usersWithAuthoritiesByUsernamesQuery the query string to set
+	 * @since 5.5
+	 */
+	public void setUsersWithAuthoritiesByUsernamesQuery(String usersWithAuthoritiesByUsernamesQuery) {
+		Assert.hasText(usersWithAuthoritiesByUsernamesQuery, "usersWithAuthoritiesByUsernamesQuery cannot be empty");
+		this.usersWithAuthoritiesByUsernamesQuery = usersWithAuthoritiesByUsernamesQuery;
+	}
+
 	protected boolean getEnableAuthorities() {
 		return this.enableAuthorities;
 	}
@@ -373,4 +525,47 @@ public class JdbcDaoImpl extends JdbcDaoSupport implements UserDetailsService, M
 		this.messages = new MessageSourceAccessor(messageSource);
 	}
 
+	/**
+	 * Assembles users and their authorities from rows of username, password, enabled
+	 * flag and authority.
+	 */
+	private final class UsersWithAuthoritiesCallbackHandler implements RowCallbackHandler {
+
+		private final Map<String, UserWithAuthorities> users;
+
+		private UsersWithAuthoritiesCallbackHandler(Map<String, UserWithAuthorities> users) {
+			this.users = users;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			String username = rs.getString(1);
+			UserWithAuthorities user = this.users.get(username);
+			if (user == null) {
+				String password = rs.getString(2);
+				boolean enabled = rs.getBoolean(3);
+				user = new UserWithAuthorities(
+						new User(username, password, enabled, true, true, true, AuthorityUtils.NO_AUTHORITIES));
+				this.users.put(username, user);
+			}
+			String authority = rs.getString(4);
+			if (authority != null) {
+				user.authorities.add(new SimpleGrantedAuthority(getRolePrefix() + authority));
+			}
+		}
+
+	}
+
+	private static final class UserWithAuthorities {
+
+		private final UserDetails user;
+
+		private final Set<GrantedAuthority> authorities = new HashSet<>();
+
+		private UserWithAuthorities(UserDetails user) {
+			this.user = user;
+		}
+
+	}
+
 }
@@ -19,8 +19,10 @@ package org.springframework.security.provisioning;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -104,6 +106,55 @@ public class InMemoryUserDetailsManager implements UserDetailsManager, UserDetai
 		this.users.put(user.getUsername().toLowerCase(), new MutableUser(user));
 	}
 
+	/**
+	 * Creates several users. Either all users are created or, if any of them already
+	 * exists or is given twice, none is.
+	 * @param users the users to create
+	 * @since 5.5
+	 */
+	public void createUsers(Collection<? extends UserDetails> users) {
+		Assert.notNull(users, "users cannot be null");
+		Map<String, MutableUserDetails> created = new HashMap<>();
+		for (UserDetails user : users) {
+			String username = user.getUsername().toLowerCase();
+			Assert.isTrue(!this.users.containsKey(username) && !created.containsKey(username),
+					() -> "user " + user.getUsername() + " should not exist");
+			created.put(username, new MutableUser(user));
+		}
+		this.users.putAll(created);
+	}
+
+	/**
+	 * Updates several users. Either all users are updated or, if any of them does not
+	 * exist, none is.
+	 * @param users the users to update
+	 * @since 5.5
+	 */
+	public void updateUsers(Collection<? extends UserDetails> users) {
+		Assert.notNull(users, "users cannot be null");
+		Map<String, MutableUserDetails> updated = new HashMap<>();
+		for (UserDetails user : users) {
+			String username = user.getUsername().toLowerCase();
+			Assert.isTrue(this.users.containsKey(username), () -> "user " + user.getUsername() + " should exist");
+			updated.put(username, new MutableUser(user));
+		}
+		this.users.putAll(updated);
+	}
+
+	/**
+	 * Deletes several users
+	 * @param usernames the usernames of the users to delete
+	 * @since 5.5
+	 */
+	public void deleteUsers(Collection<String> usernames) {
+		Assert.notNull(usernames, "usernames cannot be null");
+		Set<String> deleted = new HashSet<>();
+		for (String username : usernames) {
+			deleted.add(username.toLowerCase());
+		}
+		this.users.keySet().removeAll(deleted);
+	}
+
 	@Override
 	public boolean userExists(String username) {
 		return this.users.containsKey(username.toLowerCase());
@@ -16,10 +16,19 @@
 
 package org.springframework.security.provisioning;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
@@ -29,7 +38,9 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.core.log.LogMessage;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -44,6 +55,8 @@ import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.cache.NullUserCache;
 import org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 /**
@@ -57,6 +70,12 @@ import org.springframework.util.Assert;
  * differentiate between authorities which were loaded for an individual or for a group of
  * which the individual is a member, it's important that you take this into account when
  * using this implementation for managing your users.
+ * <p>
+ * Large numbers of users can be provisioned with {@link #createUsers(Collection)},
+ * {@link #updateUsers(Collection)} and {@link #deleteUsers(Collection)}, which use JDBC
+ * batch updates in chunks of {@link #setBatchSize(int) batchSize} users, each in its
+ * own transaction if a {@link #setTransactionManager(PlatformTransactionManager)
+ * transaction manager} is set.
  *
  * @author Luke Taylor
  * @since 2.0
@@ -105,6 +124,11 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 
 	public static final String DEF_DELETE_GROUP_AUTHORITY_SQL = "delete from group_authorities where group_id = ? and authority = ?";
 
+	public static final String DEF_DELETE_USER_AUTHORITY_SQL = "delete from authorities where username = ? and authority = ?";
+
+	public static final String DEF_AUTHORITIES_BY_USERNAMES_QUERY_SQL = "select username, authority from authorities "
+			+ "where username in (:usernames)";
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private String createUserSql = DEF_CREATE_USER_SQL;
@@ -147,6 +171,14 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 
 	private String deleteGroupAuthoritySql = DEF_DELETE_GROUP_AUTHORITY_SQL;
 
+	private String deleteUserAuthoritySql = DEF_DELETE_USER_AUTHORITY_SQL;
+
+	private String authoritiesByUsernamesSql = DEF_AUTHORITIES_BY_USERNAMES_QUERY_SQL;
+
+	private int batchSize = 1000;
+
+	private TransactionTemplate transactionTemplate;
+
 	private AuthenticationManager authenticationManager;
 
 	private UserCache userCache = new NullUserCache();
@@ -196,41 +228,29 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 	@Override
 	public void createUser(final UserDetails user) {
 		validateUserDetails(user);
-		getJdbcTemplate().update(this.createUserSql, (ps) -> {
-			ps.setString(1, user.getUsername());
-			ps.setString(2, user.getPassword());
-			ps.setBoolean(3, user.isEnabled());
-			int paramCount = ps.getParameterMetaData().getParameterCount();
-			if (paramCount > 3) {
-				// NOTE: acc_locked, acc_expired and creds_expired are also to be inserted
-				ps.setBoolean(4, !user.isAccountNonLocked());
-				ps.setBoolean(5, !user.isAccountNonExpired());
-				ps.setBoolean(6, !user.isCredentialsNonExpired());
-			}
-		});
+		getJdbcTemplate().update(this.createUserSql, (ps) -> setCreateUserParameters(ps, user));
 		if (getEnableAuthorities()) {
 			insertUserAuthorities(user);
 		}
 	}
 
+	private void setCreateUserParameters(PreparedStatement ps, UserDetails user) throws SQLException {
+		ps.setString(1, user.getUsername());
+		ps.setString(2, user.getPassword());
+		ps.setBoolean(3, user.isEnabled());
+		int paramCount = ps.getParameterMetaData().getParameterCount();
+		if (paramCount > 3) {
+			// NOTE: acc_locked, acc_expired and creds_expired are also to be inserted
+			ps.setBoolean(4, !user.isAccountNonLocked());
+			ps.setBoolean(5, !user.isAccountNonExpired());
+			ps.setBoolean(6, !user.isCredentialsNonExpired());
+		}
+	}
+
 	@Override
 	public void updateUser(final UserDetails user) {
 		validateUserDetails(user);
-		getJdbcTemplate().update(this.updateUserSql, (ps) -> {
-			ps.setString(1, user.getPassword());
-			ps.setBoolean(2, user.isEnabled());
-			int paramCount = ps.getParameterMetaData().getParameterCount();
-			if (paramCount == 3) {
-				ps.setString(3, user.getUsername());
-			}
-			else {
-				// NOTE: acc_locked, acc_expired and creds_expired are also updated
-				ps.setBoolean(3, !user.isAccountNonLocked());
-				ps.setBoolean(4, !user.isAccountNonExpired());
-				ps.setBoolean(5, !user.isCredentialsNonExpired());
-				ps.setString(6, user.getUsername());
-			}
-		});
+		getJdbcTemplate().update(this.updateUserSql, (ps) -> setUpdateUserParameters(ps, user));
 		if (getEnableAuthorities()) {
 			deleteUserAuthorities(user.getUsername());
 			insertUserAuthorities(user);
@@ -238,6 +258,170 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		this.userCache.removeUserFromCache(user.getUsername());
 	}
 
+	private void setUpdateUserParameters(PreparedStatement ps, UserDetails user) throws SQLException {
+		ps.setString(1, user.getPassword());
+		ps.setBoolean(2, user.isEnabled());
+		int paramCount = ps.getParameterMetaData().getParameterCount();
+		if (paramCount == 3) {
+			ps.setString(3, user.getUsername());
+		}
+		else {
+			// NOTE: acc_locked, acc_expired and creds_expired are also updated
+			ps.setBoolean(3, !user.isAccountNonLocked());
+			ps.setBoolean(4, !user.isAccountNonExpired());
+			ps.setBoolean(5, !user.isCredentialsNonExpired());
+			ps.setString(6, user.getUsername());
+		}
+	}
+
+	/**
+	 * Creates several users with JDBC batch updates. This is equivalent to calling
+	 * {@link #createUser(UserDetails)} for each user, but issues one batch of statements
+	 * per chunk of users.
+	 * @param users the users to create
+	 * @since 5.5
+	 */
+	public void createUsers(Collection<? extends UserDetails> users) {
+		Assert.notNull(users, "users cannot be null");
+		users.forEach(this::validateUserDetails);
+		inChunks(users, (chunk) -> {
+			getJdbcTemplate().batchUpdate(this.createUserSql,
+					batchSetter(chunk, this::setCreateUserParameters));
+			if (getEnableAuthorities()) {
+				List<Object[]> authorities = new ArrayList<>();
+				for (UserDetails user : chunk) {
+					for (GrantedAuthority authority : user.getAuthorities()) {
+						authorities.add(new Object[] { user.getUsername(), authority.getAuthority() });
+					}
+				}
+				getJdbcTemplate().batchUpdate(this.createAuthoritySql, authorities);
+			}
+		});
+	}
+
+	/**
+	 * Updates several users with JDBC batch updates. This is equivalent to calling
+	 * {@link #updateUser(UserDetails)} for each user, but issues one batch of statements
+	 * per chunk of users. The authorities of each chunk are loaded with a single query
+	 * and only the authorities that were added or removed are written. Each user may only
+	 * be updated once, regardless of the case of the username.
+	 * @param users the users to update
+	 * @since 5.5
+	 */
+	public void updateUsers(Collection<? extends UserDetails> users) {
+		Assert.notNull(users, "users cannot be null");
+		users.forEach(this::validateUserDetails);
+		Set<String> usernames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		for (UserDetails user : users) {
+			Assert.isTrue(usernames.add(user.getUsername()),
+					() -> "user " + user.getUsername() + " should only be updated once");
+		}
+		inChunks(users, (chunk) -> {
+			getJdbcTemplate().batchUpdate(this.updateUserSql,
+					batchSetter(chunk, this::setUpdateUserParameters));
+			if (getEnableAuthorities()) {
+				updateUserAuthorities(chunk);
+			}
+		});
+		for (UserDetails user : users) {
+			this.userCache.removeUserFromCache(user.getUsername());
+		}
+	}
+
+	private void updateUserAuthorities(List<? extends UserDetails> users) {
+		// the database may return the usernames in a different case
+		Map<String, Set<String>> existing = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		List<String> usernames = new ArrayList<>(users.size());
+		for (UserDetails user : users) {
+			usernames.add(user.getUsername());
+		}
+		new NamedParameterJdbcTemplate(getJdbcTemplate()).query(this.authoritiesByUsernamesSql,
+				Collections.singletonMap("usernames", usernames), (rs) -> {
+					existing.computeIfAbsent(rs.getString(1), (username) -> new HashSet<>()).add(rs.getString(2));
+				});
+		List<Object[]> added = new ArrayList<>();
+		List<Object[]> removed = new ArrayList<>();
+		for (UserDetails user : users) {
+			Set<String> current = existing.getOrDefault(user.getUsername(), Collections.emptySet());
+			Set<String> updated = AuthorityUtils.authorityListToSet(user.getAuthorities());
+			for (String authority : updated) {
+				if (!current.contains(authority)) {
+					added.add(new Object[] { user.getUsername(), authority });
+				}
+			}
+			for (String authority : current) {
+				if (!updated.contains(authority)) {
+					removed.add(new Object[] { user.getUsername(), authority });
+				}
+			}
+		}
+		getJdbcTemplate().batchUpdate(this.deleteUserAuthoritySql, removed);
+		getJdbcTemplate().batchUpdate(this.createAuthoritySql, added);
+	}
+
+	/**
+	 * Deletes several users with JDBC batch updates. This is equivalent to calling
+	 * {@link #deleteUser(String)} for each user, but issues one batch of statements per
+	 * chunk of users.
+	 * @param usernames the usernames of the users to delete
+	 * @since 5.5
+	 */
+	public void deleteUsers(Collection<String> usernames) {
+		Assert.notNull(usernames, "usernames cannot be null");
+		inChunks(usernames, (chunk) -> {
+			List<Object[]> parameters = new ArrayList<>(chunk.size());
+			for (String username : chunk) {
+				parameters.add(new Object[] { username });
+			}
+			if (getEnableAuthorities()) {
+				getJdbcTemplate().batchUpdate(this.deleteUserAuthoritiesSql, parameters);
+			}
+			getJdbcTemplate().batchUpdate(this.deleteUserSql, parameters);
+		});
+		for (String username : usernames) {
+			this.userCache.removeUserFromCache(username);
+		}
+	}
+
+	private <T> void inChunks(Collection<T> items, Consumer<List<T>> action) {
+		List<T> chunk = new ArrayList<>(Math.min(items.size(), this.batchSize));
+		for (T item : items) {
+			chunk.add(item);
+			if (chunk.size() == this.batchSize) {
+				inTransaction(chunk, action);
+				chunk = new ArrayList<>(this.batchSize);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			inTransaction(chunk, action);
+		}
+	}
+
+	private <T> void inTransaction(List<T> chunk, Consumer<List<T>> action) {
+		if (this.transactionTemplate == null) {
+			action.accept(chunk);
+			return;
+		}
+		this.transactionTemplate.executeWithoutResult((status) -> action.accept(chunk));
+	}
+
+	private static BatchPreparedStatementSetter batchSetter(List<? extends UserDetails> users,
+			UserParameterSetter setter) {
+		return new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				setter.setValues(ps, users.get(i));
+			}
+
+			@Override
+			public int getBatchSize() {
+				return users.size();
+			}
+
+		};
+	}
+
 	private void insertUserAuthorities(UserDetails user) {
 		for (GrantedAuthority auth : user.getAuthorities()) {
 			getJdbcTemplate().update(this.createAuthoritySql, user.getUsername(), auth.getAuthority());
@@ -518,6 +702,52 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		this.deleteGroupAuthoritySql = deleteGroupAuthoritySql;
 	}
 
+	/**
+	 * Sets the SQL used by {@link #updateUsers(Collection)} to remove a single authority
+	 * from a user. The default is {@link #DEF_DELETE_USER_AUTHORITY_SQL}.
+	 * @param deleteUserAuthoritySql the SQL to use
+	 * @since 5.5
+	 */
+	public void setDeleteUserAuthoritySql(String deleteUserAuthoritySql) {
+		Assert.hasText(deleteUserAuthoritySql, "deleteUserAuthoritySql should have text");
+		this.deleteUserAuthoritySql = deleteUserAuthoritySql;
+	}
+
+	/**
+	 * Sets the SQL used by {@link #updateUsers(Collection)} to load the username and
+	 * authority rows of the users given by the named parameter {@code :usernames}. The
+	 * default is {@link #DEF_AUTHORITIES_BY_USERNAMES_QUERY_SQL}.
+	 * @param authoritiesByUsernamesSql the SQL to use
+	 * @since 5.5
+	 */
+	public void setAuthoritiesByUsernamesSql(String authoritiesByUsernamesSql) {
+		Assert.hasText(authoritiesByUsernamesSql, "authoritiesByUsernamesSql should have text");
+		this.authoritiesByUsernamesSql = authoritiesByUsernamesSql;
+	}
+
+	/**
+	 * Sets the number of users written per JDBC batch by the bulk operations. The default
+	 * is 1000.
+	 * @param batchSize the number of users per batch
+	 * @since 5.5
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the {@link PlatformTransactionManager} used by the bulk operations to write
+	 * each batch in its own transaction, so that a failure only rolls back the batch it
+	 * occurred in. By default the batches run in the surrounding transaction, if any.
+	 * @param transactionManager the {@link PlatformTransactionManager} to use
+	 * @since 5.5
+	 */
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = (transactionManager != null) ? new TransactionTemplate(transactionManager)
+				: null;
+	}
+
 	/**
 	 * Optionally sets the UserCache if one is in use in the application. This allows the
 	 * user to be removed from the cache after updates have taken place to avoid stale
@@ -542,4 +772,11 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		}
 	}
 
+	@FunctionalInterface
+	private interface UserParameterSetter {
+
+		void setValues(PreparedStatement ps, UserDetails user) throws SQLException;
+
+	}
+
 }
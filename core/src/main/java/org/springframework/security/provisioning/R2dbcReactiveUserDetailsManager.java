@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.provisioning;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.r2dbc.spi.Row;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+
+/**
+ * A R2DBC implementation of {@link ReactiveUserDetailsService} and
+ * {@link ReactiveUserDetailsPasswordService} that uses a {@link DatabaseClient}, so that
+ * users are loaded without blocking a thread.
+ *
+ * <p>
+ * The default queries use the same table structure as
+ * {@link org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl}, described in
+ * "classpath:org/springframework/security/core/userdetails/jdbc/users.ddl". A user and
+ * all of its authorities are loaded with a single query, and as with {@code JdbcDaoImpl}
+ * a user without any authorities is treated as not found.
+ *
+ * @since 5.5
+ * @see org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl
+ * @see DatabaseClient
+ */
+public class R2dbcReactiveUserDetailsManager implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+	// @formatter:off
+	public static final String DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY = "select "
+			+ "u.username,u.password,u.enabled,a.authority "
+			+ "from users u "
+			+ "left join authorities a on a.username = u.username "
+			+ "where u.username = :username";
+	// @formatter:on
+
+	public static final String DEF_CHANGE_PASSWORD_SQL = "update users set password = :password "
+			+ "where username = :username";
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final DatabaseClient databaseClient;
+
+	private String userWithAuthoritiesByUsernameQuery = DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY;
+
+	private String changePasswordSql = DEF_CHANGE_PASSWORD_SQL;
+
+	private String rolePrefix = "";
+
+	/**
+	 * Creates a new instance
+	 * @param databaseClient the database client
+	 */
+	public R2dbcReactiveUserDetailsManager(DatabaseClient databaseClient) {
+		Assert.notNull(databaseClient, "databaseClient cannot be null");
+		this.databaseClient = databaseClient;
+	}
+
+	@Override
+	public Mono<UserDetails> findByUsername(String username) {
+		Assert.notNull(username, "username cannot be null");
+		// @formatter:off
+		return this.databaseClient.sql(this.userWithAuthoritiesByUsernameQuery)
+				.bind("username", username)
+				.map((row, metadata) -> new UserRow(row))
+				.all()
+				.collectList()
+				.flatMap((rows) -> Mono.justOrEmpty(createUserDetails(username, rows)));
+		// @formatter:on
+	}
+
+	private UserDetails createUserDetails(String username, List<UserRow> rows) {
+		if (rows.isEmpty()) {
+			this.logger.debug(LogMessage.format("Query returned no results for user '%s'", username));
+			return null;
+		}
+		Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+		for (UserRow row : rows) {
+			if (row.authority != null) {
+				authorities.add(new SimpleGrantedAuthority(this.rolePrefix + row.authority));
+			}
+		}
+		if (authorities.isEmpty()) {
+			this.logger.debug(
+					LogMessage.format("User '%s' has no authorities and will be treated as 'not found'", username));
+			return null;
+		}
+		UserRow user = rows.get(0);
+		return User.withUsername(user.username).password(user.password).disabled(!user.enabled)
+				.authorities(new ArrayList<>(authorities)).build();
+	}
+
+	@Override
+	public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+		Assert.notNull(user, "user cannot be null");
+		// @formatter:off
+		return this.databaseClient.sql(this.changePasswordSql)
+				.bind("password", newPassword)
+				.bind("username", user.getUsername())
+				.fetch()
+				.rowsUpdated()
+				.map((rowsUpdated) -> User.withUserDetails(user).password(newPassword).build());
+		// @formatter:on
+	}
+
+	/**
+	 * Allows the default query string used to retrieve a user and its authorities to be
+	 * overridden. The default is {@link #DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY}.
+	 * The query is given the username as the {@code :username} parameter and must return
+	 * the username, password, enabled flag and authority columns, one row per authority,
+	 * in that order. A user without authorities is expected to return a single row with a
+	 * {@code null} authority.
+	 * @param userWithAuthoritiesByUsernameQuery the query string to set
+	 */
+	public void setUserWithAuthoritiesByUsernameQuery(String userWithAuthoritiesByUsernameQuery) {
+		Assert.hasText(userWithAuthoritiesByUsernameQuery, "userWithAuthoritiesByUsernameQuery cannot be empty");
+		this.userWithAuthoritiesByUsernameQuery = userWithAuthoritiesByUsernameQuery;
+	}
+
+	/**
+	 * Allows the default statement used to change the password of a user to be
+	 * overridden. The default is {@link #DEF_CHANGE_PASSWORD_SQL}. The statement is given
+	 * the {@code :password} and {@code :username} parameters.
+	 * @param changePasswordSql the statement to set
+	 */
+	public void setChangePasswordSql(String changePasswordSql) {
+		Assert.hasText(changePasswordSql, "changePasswordSql cannot be empty");
+		this.changePasswordSql = changePasswordSql;
+	}
+
+	/**
+	 * Allows a default role prefix to be specified. If this is set to a non-empty value,
+	 * then it is automatically prepended to any roles read in from the database. The
+	 * default is an empty prefix.
+	 * @param rolePrefix the role prefix
+	 */
+	public void setRolePrefix(String rolePrefix) {
+		Assert.notNull(rolePrefix, "rolePrefix cannot be null");
+		this.rolePrefix = rolePrefix;
+	}
+
+	private static final class UserRow {
+
+		private final String username;
+
+		private final String password;
+
+		private final boolean enabled;
+
+		private final String authority;
+
+		private UserRow(Row row) {
+			this.username = row.get(0, String.class);
+			this.password = row.get(1, String.class);
+			this.enabled = Boolean.TRUE.equals(row.get(2, Boolean.class));
+			this.authority = row.get(3, String.class);
+		}
+
+	}
+
+}
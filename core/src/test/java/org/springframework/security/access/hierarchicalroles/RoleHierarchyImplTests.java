@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.security.access.hierarchicalroles;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.Test;
@@ -191,4 +192,50 @@ public class RoleHierarchyImplTests {
 				.containsExactlyInAnyOrderElementsOf(allAuthorities);
 	}
 
+	@Test
+	public void getReachableGrantedAuthoritiesWhenSameAuthoritiesThenReturnsCachedResult() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		Collection<GrantedAuthority> first = roleHierarchyImpl
+				.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_C"));
+		Collection<GrantedAuthority> second = roleHierarchyImpl
+				.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_C", "ROLE_A"));
+		assertThat(second).isSameAs(first);
+		assertThat(first).containsExactlyInAnyOrderElementsOf(
+				AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B", "ROLE_C"));
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> first.clear());
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCacheDisabledThenNotCached() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setReachableAuthoritiesCacheSize(0);
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_A");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.isNotSameAs(roleHierarchyImpl.getReachableGrantedAuthorities(authorities));
+	}
+
+	@Test
+	public void setHierarchyWhenReloadedThenCachedResultsDiscarded() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_A");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.containsExactlyInAnyOrderElementsOf(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B"));
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_C");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.containsExactlyInAnyOrderElementsOf(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_C"));
+	}
+
+	@Test
+	public void setHierarchyWhenReloadedWithCycleThenPreviousHierarchyRetained() {
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		assertThatExceptionOfType(CycleInRoleHierarchyException.class)
+				.isThrownBy(() -> roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B\nROLE_B > ROLE_A"));
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A")))
+				.containsExactlyInAnyOrderElementsOf(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B"));
+	}
+
 }
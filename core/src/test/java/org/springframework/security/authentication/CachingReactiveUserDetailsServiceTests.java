@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.publisher.TestPublisher;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.cache.InMemoryUserCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingReactiveUserDetailsService}.
+ */
+public class CachingReactiveUserDetailsServiceTests {
+
+	private final ReactiveUserDetailsService delegate = mock(ReactiveUserDetailsService.class);
+
+	private final UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+
+	private final CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(this.delegate);
+
+	@Test
+	public void constructorWhenNullDelegateThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingReactiveUserDetailsService(null));
+	}
+
+	@Test
+	public void findByUsernameWhenCachedThenDelegateNotCalled() {
+		InMemoryUserCache userCache = new InMemoryUserCache(10, Duration.ofMinutes(5));
+		this.service.setUserCache(userCache);
+		given(this.delegate.findByUsername("user")).willReturn(Mono.just(this.user));
+		assertThat(this.service.findByUsername("user").block()).isSameAs(this.user);
+		assertThat(this.service.findByUsername("user").block()).isSameAs(this.user);
+		verify(this.delegate, times(1)).findByUsername("user");
+		assertThat(userCache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void findByUsernameWhenConcurrentLookupsThenDelegateCalledOnce() {
+		TestPublisher<UserDetails> publisher = TestPublisher.create();
+		given(this.delegate.findByUsername("user")).willReturn(publisher.mono());
+		AtomicReference<UserDetails> first = new AtomicReference<>();
+		AtomicReference<UserDetails> second = new AtomicReference<>();
+		this.service.findByUsername("user").subscribe(first::set);
+		this.service.findByUsername("user").subscribe(second::set);
+		publisher.emit(this.user);
+		assertThat(first.get()).isSameAs(this.user);
+		assertThat(second.get()).isSameAs(this.user);
+		verify(this.delegate, times(1)).findByUsername("user");
+	}
+
+	@Test
+	public void findByUsernameWhenLookupCompletedThenDelegateCalledAgain() {
+		given(this.delegate.findByUsername("user")).willReturn(Mono.just(this.user));
+		this.service.findByUsername("user").block();
+		this.service.findByUsername("user").block();
+		verify(this.delegate, times(2)).findByUsername("user");
+	}
+
+	@Test
+	public void findByUsernameWhenNotFoundThenEmpty() {
+		given(this.delegate.findByUsername("user")).willReturn(Mono.empty());
+		assertThat(this.service.findByUsername("user").block()).isNull();
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PasswordHashingBulkhead}.
+ */
+public class PasswordHashingBulkheadTests {
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void releaseVerification() {
+		this.release.countDown();
+	}
+
+	@Test
+	public void constructorWhenNoConcurrentVerificationsThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PasswordHashingBulkhead(0, 0, Duration.ZERO));
+	}
+
+	@Test
+	public void constructorWhenNegativeWaitTimeThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new PasswordHashingBulkhead(1, 0, Duration.ofMillis(-1)));
+	}
+
+	@Test
+	public void verifyWhenPermitAvailableThenReturnsResult() {
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 0, Duration.ZERO);
+		assertThat(bulkhead.verify(() -> true)).isTrue();
+		assertThat(bulkhead.verify(() -> false)).isFalse();
+		assertThat(bulkhead.getWaitCount()).isZero();
+		assertThat(bulkhead.getRejectedCount()).isZero();
+	}
+
+	@Test
+	public void verifyWhenNoWaitingAllowedThenFailsFast() throws Exception {
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 0, Duration.ofMinutes(1));
+		occupy(bulkhead);
+		assertThatExceptionOfType(AuthenticationServiceException.class).isThrownBy(() -> bulkhead.verify(() -> true))
+				.withMessage("Too many password verifications are waiting");
+		assertThat(bulkhead.getQueueDepth()).isZero();
+		assertThat(bulkhead.getWaitCount()).isZero();
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void verifyWhenWaitTimesOutThenAuthenticationServiceException() throws Exception {
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 1, Duration.ofMillis(10));
+		occupy(bulkhead);
+		assertThatExceptionOfType(AuthenticationServiceException.class).isThrownBy(() -> bulkhead.verify(() -> true))
+				.withMessage("Timed out waiting to verify the password");
+		assertThat(bulkhead.getQueueDepth()).isZero();
+		assertThat(bulkhead.getWaitCount()).isEqualTo(1);
+		assertThat(bulkhead.getTotalWaitTime()).isGreaterThanOrEqualTo(Duration.ofMillis(10));
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void verifyWhenPermitReleasedWhileWaitingThenVerifies() throws Exception {
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 1, Duration.ofMinutes(1));
+		occupy(bulkhead);
+		Thread releaser = new Thread(() -> {
+			while (bulkhead.getQueueDepth() == 0) {
+				Thread.yield();
+			}
+			this.release.countDown();
+		});
+		releaser.start();
+		assertThat(bulkhead.verify(() -> true)).isTrue();
+		releaser.join();
+		assertThat(bulkhead.getWaitCount()).isEqualTo(1);
+		assertThat(bulkhead.getRejectedCount()).isZero();
+	}
+
+	private void occupy(PasswordHashingBulkhead bulkhead) throws InterruptedException {
+		Thread thread = new Thread(() -> bulkhead.verify(() -> {
+			this.started.countDown();
+			try {
+				return this.release.await(1, TimeUnit.MINUTES);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}));
+		thread.setDaemon(true);
+		thread.start();
+		assertThat(this.started.await(1, TimeUnit.MINUTES)).isTrue();
+	}
+
+}
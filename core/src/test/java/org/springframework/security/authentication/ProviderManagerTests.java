@@ -34,6 +34,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -284,6 +285,43 @@ public class ProviderManagerTests {
 		verifyNoMoreInteractions(publisher); // Child should not publish (duplicate event)
 	}
 
+	@Test
+	public void authenticateWhenCacheProviderRoutingThenSupportsCalledOncePerType() {
+		AuthenticationProvider unsupported = mock(AuthenticationProvider.class);
+		AuthenticationProvider provider = createProviderWhichReturns(createAuthenticationToken());
+		ProviderManager mgr = new ProviderManager(unsupported, provider);
+		mgr.setCacheProviderRouting(true);
+		mgr.authenticate(createAuthenticationToken());
+		mgr.authenticate(createAuthenticationToken());
+		verify(unsupported).supports(TestingAuthenticationToken.class);
+		verify(provider).supports(TestingAuthenticationToken.class);
+		verify(unsupported, never()).authenticate(any());
+	}
+
+	@Test
+	public void authenticateWhenCacheProviderRoutingAndProvidersChangedThenRoutingRebuilt() {
+		List<AuthenticationProvider> providers = new ArrayList<>();
+		providers.add(createProviderWhichThrows(new BadCredentialsException("first")));
+		ProviderManager mgr = new ProviderManager(providers);
+		mgr.setCacheProviderRouting(true);
+		assertThatExceptionOfType(BadCredentialsException.class)
+				.isThrownBy(() -> mgr.authenticate(createAuthenticationToken()));
+		Authentication result = createAuthenticationToken();
+		providers.set(0, createProviderWhichReturns(result));
+		mgr.setEraseCredentialsAfterAuthentication(false);
+		assertThat(mgr.authenticate(createAuthenticationToken())).isSameAs(result);
+	}
+
+	@Test
+	public void authenticateWhenCacheProviderRoutingAndAllFailThenLastExceptionThrown() {
+		BadCredentialsException expected = new BadCredentialsException("second");
+		ProviderManager mgr = new ProviderManager(createProviderWhichThrows(new BadCredentialsException("first")),
+				createProviderWhichThrows(expected));
+		mgr.setCacheProviderRouting(true);
+		assertThatExceptionOfType(BadCredentialsException.class)
+				.isThrownBy(() -> mgr.authenticate(createAuthenticationToken())).isSameAs(expected);
+	}
+
 	private AuthenticationProvider createProviderWhichThrows(final AuthenticationException ex) {
 		AuthenticationProvider provider = mock(AuthenticationProvider.class);
 		given(provider.supports(any(Class.class))).willReturn(true);
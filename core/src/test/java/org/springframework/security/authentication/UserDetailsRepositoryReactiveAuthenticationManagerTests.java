@@ -16,6 +16,8 @@
 
 package org.springframework.security.authentication;
 
+import java.time.Duration;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -101,6 +103,22 @@ public class UserDetailsRepositoryReactiveAuthenticationManagerTests {
 		verify(this.scheduler).schedule(any());
 	}
 
+	@Test
+	public void authenticateWhenPasswordHashingBulkheadFullThenAuthenticationServiceException() {
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 0, Duration.ZERO);
+		this.manager.setPasswordEncoder(this.encoder);
+		this.manager.setPasswordHashingBulkhead(bulkhead);
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(this.user,
+				this.user.getPassword());
+		bulkhead.verify(() -> {
+			assertThatExceptionOfType(AuthenticationServiceException.class)
+					.isThrownBy(() -> this.manager.authenticate(token).block());
+			return true;
+		});
+		verifyZeroInteractions(this.encoder);
+	}
+
 	@Test
 	public void authenticateWhenPasswordServiceThenUpdated() {
 		String encodedPassword = "encoded";
@@ -17,6 +17,7 @@
 package org.springframework.security.authentication.dao;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,11 +31,14 @@ import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.PasswordHashingBulkhead;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.AsyncUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.PasswordEncodedUser;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -47,6 +51,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -58,6 +63,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -123,6 +129,23 @@ public class DaoAuthenticationProviderTests {
 				() -> provider.authenticate(new UsernamePasswordAuthenticationToken("peter", "wrong_password")));
 	}
 
+	@Test
+	public void authenticateWhenPasswordHashingBulkheadFullThenAuthenticationServiceException() {
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("rod", "koala");
+		PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(1, 0, Duration.ZERO);
+		DaoAuthenticationProvider provider = createProvider();
+		provider.setUserDetailsService(new MockUserDetailsServiceUserRod());
+		provider.setUserCache(new MockUserCache());
+		provider.setPasswordHashingBulkhead(bulkhead);
+		bulkhead.verify(() -> {
+			assertThatExceptionOfType(AuthenticationServiceException.class)
+					.isThrownBy(() -> provider.authenticate(token));
+			return true;
+		});
+		assertThat(provider.authenticate(token).isAuthenticated()).isTrue();
+		assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+	}
+
 	@Test
 	public void testAuthenticateFailsIfUserDisabled() {
 		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("peter", "opal");
@@ -277,6 +300,55 @@ public class DaoAuthenticationProviderTests {
 		verify(passwordManager).updatePassword(eq(user), eq(encodedPassword));
 	}
 
+	@Test
+	public void authenticateWhenAsyncPasswordManagerThenEncodesWhenUpdateApplied() {
+		String password = "password";
+		String encodedPassword = "encoded";
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("user", password);
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		UserDetailsPasswordService passwordManager = mock(UserDetailsPasswordService.class);
+		List<Runnable> tasks = new ArrayList<>();
+		AsyncUserDetailsPasswordService asyncPasswordManager = new AsyncUserDetailsPasswordService(passwordManager,
+				userDetailsService);
+		asyncPasswordManager.setExecutor(tasks::add);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setUserDetailsPasswordService(asyncPasswordManager);
+		UserDetails user = PasswordEncodedUser.user();
+		given(encoder.matches(any(), any())).willReturn(true);
+		given(encoder.upgradeEncoding(any())).willReturn(true);
+		given(encoder.encode(any())).willReturn(encodedPassword);
+		given(userDetailsService.loadUserByUsername(any())).willReturn(user);
+		provider.authenticate(token);
+		verify(encoder, never()).encode(any());
+		verifyZeroInteractions(passwordManager);
+		tasks.forEach(Runnable::run);
+		verify(encoder).encode(password);
+		verify(passwordManager).updatePassword(eq(user), eq(encodedPassword));
+	}
+
+	@Test
+	public void authenticateWhenAsyncPasswordManagerAndCredentialsErasedThenUpdateApplied() {
+		InMemoryUserDetailsManager userDetailsManager = new InMemoryUserDetailsManager(
+				User.withUsername("user").password("{noop}password").roles("USER").build());
+		List<Runnable> tasks = new ArrayList<>();
+		AsyncUserDetailsPasswordService asyncPasswordManager = new AsyncUserDetailsPasswordService(
+				userDetailsManager);
+		asyncPasswordManager.setExecutor(tasks::add);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+		provider.setUserDetailsService(userDetailsManager);
+		provider.setUserDetailsPasswordService(asyncPasswordManager);
+		ProviderManager providerManager = new ProviderManager(provider);
+		Authentication result = providerManager
+				.authenticate(new UsernamePasswordAuthenticationToken("user", "password"));
+		assertThat(((UserDetails) result.getPrincipal()).getPassword()).isNull();
+		tasks.forEach(Runnable::run);
+		assertThat(userDetailsManager.loadUserByUsername("user").getPassword()).startsWith("{bcrypt}");
+	}
+
 	@Test
 	public void authenticateWhenBadCredentialsAndPasswordManagerThenNoUpdate() {
 		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("user", "password");
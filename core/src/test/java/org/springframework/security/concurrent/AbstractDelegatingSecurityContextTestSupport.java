@@ -79,6 +79,8 @@ public abstract class AbstractDelegatingSecurityContextTestSupport {
 		PowerMockito.spy(DelegatingSecurityContextCallable.class);
 		PowerMockito.doReturn(this.wrappedCallable).when(DelegatingSecurityContextCallable.class, "create",
 				this.callable, null);
+		PowerMockito.doReturn(this.wrappedCallable).when(DelegatingSecurityContextCallable.class, "create",
+				this.callable, this.currentSecurityContext);
 		PowerMockito.spy(DelegatingSecurityContextRunnable.class);
 		PowerMockito.doReturn(this.wrappedRunnable).when(DelegatingSecurityContextRunnable.class, "create",
 				this.runnable, null);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link DelegatingSecurityContextForkJoinPool}.
+ */
+public class DelegatingSecurityContextForkJoinPoolTests {
+
+	private ForkJoinPool forkJoinPool;
+
+	private DelegatingSecurityContextForkJoinPool pool;
+
+	@Before
+	public void setup() {
+		this.forkJoinPool = new ForkJoinPool(1);
+		this.pool = new DelegatingSecurityContextForkJoinPool(this.forkJoinPool);
+	}
+
+	@After
+	public void tearDown() {
+		this.forkJoinPool.shutdown();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void invokeWhenSubmittersHaveDifferentContextsThenEachTaskRunsWithItsSubmittersContext() {
+		Authentication user = new TestingAuthenticationToken("user", "password");
+		Authentication admin = new TestingAuthenticationToken("admin", "password");
+		SecurityContextHolder.setContext(new SecurityContextImpl(user));
+		assertThat(this.pool.invoke(new AuthenticationTask())).isSameAs(user);
+		SecurityContextHolder.setContext(new SecurityContextImpl(admin));
+		assertThat(this.pool.invoke(new AuthenticationTask())).isSameAs(admin);
+	}
+
+	@Test
+	public void submitWhenTaskCompletesThenWorkerContextRestored() {
+		SecurityContextHolder.setContext(new SecurityContextImpl(new TestingAuthenticationToken("user", "password")));
+		this.pool.submit(new AuthenticationTask()).join();
+		SecurityContextHolder.clearContext();
+		assertThat(this.forkJoinPool.invoke(new AuthenticationTask())).isNull();
+	}
+
+	@Test
+	public void submitWhenTaskChangesContextThenNotVisibleToLaterTasks() {
+		Authentication user = new TestingAuthenticationToken("user", "password");
+		SecurityContextHolder.setContext(new SecurityContextImpl(user));
+		this.pool.submit(ForkJoinTask.adapt(() -> SecurityContextHolder
+				.setContext(new SecurityContextImpl(new TestingAuthenticationToken("other", "password"))))).join();
+		assertThat(this.pool.invoke(new AuthenticationTask())).isSameAs(user);
+	}
+
+	@Test
+	public void invokeWhenTaskFailsThenExceptionPropagated() {
+		ForkJoinTask<Object> task = ForkJoinTask.adapt(() -> {
+			throw new IllegalStateException("failed");
+		});
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> this.pool.invoke(task));
+		assertThat(this.forkJoinPool.invoke(new AuthenticationTask())).isNull();
+	}
+
+	private static final class AuthenticationTask extends RecursiveTask<Authentication> {
+
+		@Override
+		protected Authentication compute() {
+			return SecurityContextHolder.getContext().getAuthentication();
+		}
+
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.AuthorizationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SecurityExceptionStackTraces}.
+ */
+public class SecurityExceptionStackTracesTests {
+
+	@After
+	public void cleanup() {
+		SecurityExceptionStackTraces.setEnabled(true);
+	}
+
+	@Test
+	public void isEnabledByDefault() {
+		assertThat(SecurityExceptionStackTraces.isEnabled()).isTrue();
+		assertThat(new BadCredentialsException("bad").getStackTrace()).isNotEmpty();
+		assertThat(new AccessDeniedException("denied").getStackTrace()).isNotEmpty();
+	}
+
+	@Test
+	public void setEnabledWhenFalseThenExceptionsHaveNoStackTrace() {
+		SecurityExceptionStackTraces.setEnabled(false);
+		assertThat(SecurityExceptionStackTraces.isEnabled()).isFalse();
+		assertThat(new BadCredentialsException("bad").getStackTrace()).isEmpty();
+		assertThat(new AccessDeniedException("denied").getStackTrace()).isEmpty();
+	}
+
+	@Test
+	public void setEnabledWhenFalseThenCauseCanStillBeInitialized() {
+		SecurityExceptionStackTraces.setEnabled(false);
+		IllegalStateException cause = new IllegalStateException();
+		BadCredentialsException ex = new BadCredentialsException("bad");
+		ex.initCause(cause);
+		assertThat(ex).hasCause(cause);
+	}
+
+	@Test
+	public void setEnabledWhenFalseThenOtherExceptionsHaveStackTrace() {
+		SecurityExceptionStackTraces.setEnabled(false);
+		assertThat(new UsernameNotFoundException("not found").getStackTrace()).isNotEmpty();
+	}
+
+	@Test
+	public void setEnabledWhenFalseThenAuthorizationServiceExceptionHasStackTrace() {
+		SecurityExceptionStackTraces.setEnabled(false);
+		assertThat(new AuthorizationServiceException("failed").getStackTrace()).isNotEmpty();
+		assertThat(new AuthorizationServiceException("failed", new IllegalStateException()).getStackTrace())
+				.isNotEmpty();
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.SerializationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AuthorityRegistry}.
+ */
+public class AuthorityRegistryTests {
+
+	private AuthorityRegistry registry = new AuthorityRegistry();
+
+	@Test
+	public void constructorWhenMaxAuthoritiesNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthorityRegistry(0, 10));
+	}
+
+	@Test
+	public void getAuthoritiesWhenSameAuthoritiesThenSameInstance() {
+		Collection<GrantedAuthority> first = this.registry.getAuthorities("ROLE_A", "ROLE_B");
+		Collection<GrantedAuthority> second = this.registry
+				.getAuthorities(AuthorityUtils.createAuthorityList("ROLE_B", "ROLE_A", "ROLE_A"));
+		assertThat(second).isSameAs(first);
+		assertThat(first).isInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(first).containsExactly(new SimpleGrantedAuthority("ROLE_A"), new SimpleGrantedAuthority("ROLE_B"));
+	}
+
+	@Test
+	public void getAuthoritiesWhenInternedThenMembershipChecked() {
+		InternedGrantedAuthorities authorities = (InternedGrantedAuthorities) this.registry.getAuthorities("ROLE_A",
+				"ROLE_B");
+		this.registry.getAuthority("ROLE_C");
+		assertThat(authorities.containsAuthority("ROLE_A")).isTrue();
+		assertThat(authorities.containsAuthority("ROLE_C")).isFalse();
+		assertThat(authorities.containsAuthority("ROLE_UNKNOWN")).isFalse();
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_B"))).isTrue();
+		assertThat(authorities.asList().contains(new SimpleGrantedAuthority("ROLE_B"))).isTrue();
+		assertThat(authorities).isEqualTo(new HashSet<>(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B")));
+	}
+
+	@Test
+	public void getAuthoritiesWhenInternedThenImmutable() {
+		Collection<GrantedAuthority> authorities = this.registry.getAuthorities("ROLE_A");
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> authorities.add(new SimpleGrantedAuthority("ROLE_B")));
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(authorities::clear);
+	}
+
+	@Test
+	public void getAuthoritiesWhenCustomAuthorityThenNotInterned() {
+		GrantedAuthority custom = () -> "ROLE_CUSTOM";
+		List<GrantedAuthority> authorities = Arrays.asList(new SimpleGrantedAuthority("ROLE_A"), custom);
+		Collection<GrantedAuthority> result = this.registry.getAuthorities(authorities);
+		assertThat(result).isNotInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(result).containsExactly(new SimpleGrantedAuthority("ROLE_A"), custom);
+	}
+
+	@Test
+	public void getAuthoritiesWhenMaxAuthoritiesExceededThenNotInterned() {
+		AuthorityRegistry registry = new AuthorityRegistry(1, 10);
+		assertThat(registry.getAuthorities("ROLE_A")).isInstanceOf(InternedGrantedAuthorities.class);
+		Collection<GrantedAuthority> result = registry.getAuthorities("ROLE_A", "ROLE_B");
+		assertThat(result).isNotInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(result).containsExactly(new SimpleGrantedAuthority("ROLE_A"), new SimpleGrantedAuthority("ROLE_B"));
+	}
+
+	@Test
+	public void getAuthorityWhenSameAuthorityThenSameInstance() {
+		assertThat(this.registry.getAuthority("ROLE_A")).isSameAs(this.registry.getAuthority("ROLE_A"));
+	}
+
+	@Test
+	public void constructorWhenInternedAuthoritiesThenTokenHasPlainCopy() {
+		InternedGrantedAuthorities authorities = (InternedGrantedAuthorities) this.registry.getAuthorities("ROLE_A",
+				"ROLE_B");
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("user", "password",
+				authorities);
+		assertThat(token.getAuthorities()).isNotSameAs(authorities.asList());
+		assertThat(token.getAuthorities()).isEqualTo(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B"));
+	}
+
+	@Test
+	public void serializeWhenInternedThenPlainCopy() {
+		Collection<GrantedAuthority> authorities = this.registry.getAuthorities("ROLE_A", "ROLE_B");
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("user", "password",
+				authorities);
+		Object deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(authorities));
+		UsernamePasswordAuthenticationToken deserializedToken = (UsernamePasswordAuthenticationToken) SerializationUtils
+				.deserialize(SerializationUtils.serialize(token));
+		assertThat(deserialized).isEqualTo(authorities);
+		assertThat(deserialized).isNotInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(deserializedToken.getAuthorities()).isEqualTo(token.getAuthorities());
+	}
+
+}
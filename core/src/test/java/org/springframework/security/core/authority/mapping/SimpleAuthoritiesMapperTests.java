@@ -22,7 +22,9 @@ import java.util.Set;
 import org.junit.Test;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityRegistry;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.InternedGrantedAuthorities;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -89,4 +91,15 @@ public class SimpleAuthoritiesMapperTests {
 		assertThat(mapped.contains("ROLE_USER")).isTrue();
 	}
 
+	@Test
+	public void authorityRegistryIsUsedToShareMappedAuthorities() {
+		SimpleAuthorityMapper mapper = new SimpleAuthorityMapper();
+		mapper.setAuthorityRegistry(new AuthorityRegistry());
+		Set<GrantedAuthority> first = mapper.mapAuthorities(AuthorityUtils.createAuthorityList("AaA", "ROLE_bbb"));
+		Set<GrantedAuthority> second = mapper.mapAuthorities(AuthorityUtils.createAuthorityList("ROLE_bbb", "AaA"));
+		assertThat(first).isInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(second).isSameAs(first);
+		assertThat(AuthorityUtils.authorityListToSet(first)).containsOnly("ROLE_AaA", "ROLE_bbb");
+	}
+
 }
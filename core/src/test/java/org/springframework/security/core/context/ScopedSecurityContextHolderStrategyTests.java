@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ScopedSecurityContextHolderStrategy}.
+ */
+public class ScopedSecurityContextHolderStrategyTests {
+
+	private ScopedSecurityContextHolderStrategy strategy = new ScopedSecurityContextHolderStrategy();
+
+	@After
+	public void tearDown() {
+		this.strategy.clearContext();
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+	}
+
+	@Test
+	public void getContextWhenNotBoundThenThreadLocalBehavior() {
+		SecurityContext context = this.strategy.getContext();
+		assertThat(this.strategy.getContext()).isSameAs(context);
+		this.strategy.clearContext();
+		assertThat(this.strategy.getContext()).isNotSameAs(context);
+	}
+
+	@Test
+	public void setContextWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.strategy.setContext(null));
+	}
+
+	@Test
+	public void runWhenBoundThenContextAvailableAndPreviousRestored() {
+		SecurityContext original = this.strategy.getContext();
+		SecurityContext bound = securityContext("bound");
+		this.strategy.run(bound, () -> assertThat(this.strategy.getContext()).isSameAs(bound));
+		assertThat(this.strategy.getContext()).isSameAs(original);
+	}
+
+	@Test
+	public void runWhenContextChangedWithinBindingThenChangeNotVisibleAfterwards() {
+		SecurityContext original = this.strategy.getContext();
+		SecurityContext bound = securityContext("bound");
+		SecurityContext changed = securityContext("changed");
+		this.strategy.run(bound, () -> {
+			this.strategy.setContext(changed);
+			assertThat(this.strategy.getContext()).isSameAs(changed);
+			this.strategy.clearContext();
+			assertThat(this.strategy.getContext()).isNotSameAs(changed);
+			assertThat(this.strategy.getContext().getAuthentication()).isNull();
+		});
+		assertThat(this.strategy.getContext()).isSameAs(original);
+	}
+
+	@Test
+	public void runWhenNestedThenInnerBindingWins() {
+		SecurityContext outer = securityContext("outer");
+		SecurityContext inner = securityContext("inner");
+		this.strategy.run(outer, () -> {
+			this.strategy.run(inner, () -> assertThat(this.strategy.getContext()).isSameAs(inner));
+			assertThat(this.strategy.getContext()).isSameAs(outer);
+		});
+	}
+
+	@Test
+	public void callWhenBoundThenReturnsResult() throws Exception {
+		SecurityContext bound = securityContext("bound");
+		assertThat(this.strategy.call(bound, () -> this.strategy.getContext())).isSameAs(bound);
+	}
+
+	@Test
+	public void callWhenTaskThrowsThenExceptionPropagated() {
+		SecurityContext bound = securityContext("bound");
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> this.strategy.call(bound, () -> {
+			throw new IOException("failed");
+		}));
+	}
+
+	@Test
+	public void delegatingExecutorServiceWhenModeScopedThenContextPropagated() throws Exception {
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_SCOPED);
+		assertThat(SecurityContextHolder.getContextHolderStrategy())
+				.isInstanceOf(ScopedSecurityContextHolderStrategy.class);
+		SecurityContext context = securityContext("user");
+		ExecutorService delegate = Executors.newSingleThreadExecutor();
+		try {
+			ExecutorService executor = new DelegatingSecurityContextExecutorService(delegate, context);
+			assertThat(executor.submit(SecurityContextHolder::getContext).get()).isSameAs(context);
+			assertThat(executor.submit(() -> SecurityContextHolder.getContext().getAuthentication()).get())
+					.isSameAs(context.getAuthentication());
+		}
+		finally {
+			delegate.shutdown();
+		}
+	}
+
+	private static SecurityContext securityContext(String username) {
+		return new SecurityContextImpl(new TestingAuthenticationToken(username, "password"));
+	}
+
+}
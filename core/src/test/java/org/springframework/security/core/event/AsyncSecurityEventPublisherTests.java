@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.event.AsyncSecurityEventPublisher.OverflowPolicy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AsyncSecurityEventPublisher}.
+ */
+public class AsyncSecurityEventPublisherTests {
+
+	private final List<Object> published = new CopyOnWriteArrayList<>();
+
+	private final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+
+	private AsyncSecurityEventPublisher publisher;
+
+	@Before
+	public void setup() {
+		this.publisher = new AsyncSecurityEventPublisher(this.published::add, 2);
+		this.publisher.setExecutor(this.tasks::add);
+	}
+
+	@Test
+	public void constructorWhenNullDelegateThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AsyncSecurityEventPublisher(null));
+	}
+
+	@Test
+	public void constructorWhenZeroCapacityThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AsyncSecurityEventPublisher(this.published::add, 0));
+	}
+
+	@Test
+	public void publishEventWhenQueuedThenPublishedInOrderByExecutor() {
+		this.publisher.publishEvent("first");
+		this.publisher.publishEvent("second");
+		assertThat(this.published).isEmpty();
+		assertThat(this.publisher.getQueueSize()).isEqualTo(2);
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.get(0).run();
+		assertThat(this.published).containsExactly("first", "second");
+		assertThat(this.publisher.getQueueSize()).isZero();
+		assertThat(this.publisher.getQueuedCount()).isEqualTo(2);
+		assertThat(this.publisher.getPublishedCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void publishEventWhenDrainedThenSchedulesAgain() {
+		this.publisher.publishEvent("first");
+		this.tasks.remove(0).run();
+		this.publisher.publishEvent("second");
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.remove(0).run();
+		assertThat(this.published).containsExactly("first", "second");
+	}
+
+	@Test
+	public void publishEventWhenBatchSizeThenPublishesAllBatches() {
+		this.publisher = new AsyncSecurityEventPublisher(this.published::add, 10);
+		this.publisher.setExecutor(this.tasks::add);
+		this.publisher.setBatchSize(3);
+		for (int i = 0; i < 10; i++) {
+			this.publisher.publishEvent(i);
+		}
+		this.tasks.get(0).run();
+		assertThat(this.published).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+	}
+
+	@Test
+	public void publishEventWhenFullAndDropThenDropped() {
+		this.publisher.publishEvent("first");
+		this.publisher.publishEvent("second");
+		this.publisher.publishEvent("third");
+		assertThat(this.publisher.getDroppedCount()).isEqualTo(1);
+		this.tasks.get(0).run();
+		assertThat(this.published).containsExactly("first", "second");
+	}
+
+	@Test
+	public void publishEventWhenFullAndBlockThenWaitsForRoom() throws Exception {
+		this.publisher.setOverflowPolicy(OverflowPolicy.BLOCK);
+		this.publisher.publishEvent("first");
+		this.publisher.publishEvent("second");
+		Thread thread = new Thread(() -> this.publisher.publishEvent("third"));
+		thread.start();
+		while (thread.getState() != Thread.State.WAITING) {
+			Thread.sleep(10);
+		}
+		assertThat(this.publisher.getQueueSize()).isEqualTo(2);
+		this.tasks.remove(0).run();
+		thread.join(5000);
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+		assertThat(this.published).containsExactly("first", "second", "third");
+		assertThat(this.publisher.getDroppedCount()).isZero();
+	}
+
+	@Test
+	public void publishEventWhenFullAndBlockAndPublishedByListenerThenDropped() {
+		List<Object> published = new ArrayList<>();
+		AsyncSecurityEventPublisher[] publisher = new AsyncSecurityEventPublisher[1];
+		ApplicationEventPublisher delegate = (event) -> {
+			published.add(event);
+			if ("first".equals(event)) {
+				publisher[0].publishEvent("nested");
+				publisher[0].publishEvent("dropped");
+			}
+		};
+		publisher[0] = new AsyncSecurityEventPublisher(delegate, 1);
+		publisher[0].setOverflowPolicy(OverflowPolicy.BLOCK);
+		publisher[0].setBatchSize(1);
+		publisher[0].setExecutor(this.tasks::add);
+		publisher[0].publishEvent("first");
+		this.tasks.get(0).run();
+		assertThat(published).containsExactly("first", "nested");
+		assertThat(publisher[0].getDroppedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void publishEventWhenDelegateFailsThenContinues() {
+		this.publisher = new AsyncSecurityEventPublisher((event) -> {
+			if ("first".equals(event)) {
+				throw new IllegalStateException("failed");
+			}
+			this.published.add(event);
+		});
+		this.publisher.setExecutor(this.tasks::add);
+		this.publisher.publishEvent("first");
+		this.publisher.publishEvent("second");
+		this.tasks.get(0).run();
+		assertThat(this.published).containsExactly("second");
+		assertThat(this.publisher.getFailedCount()).isEqualTo(1);
+		assertThat(this.publisher.getPublishedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void publishEventWhenDelegateThrowsErrorThenRemainingEventsScheduledAgain() {
+		this.publisher = new AsyncSecurityEventPublisher((event) -> {
+			if ("first".equals(event)) {
+				throw new AssertionError("failed");
+			}
+			this.published.add(event);
+		});
+		this.publisher.setExecutor(this.tasks::add);
+		this.publisher.setBatchSize(1);
+		this.publisher.publishEvent("first");
+		this.publisher.publishEvent("second");
+		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> this.tasks.remove(0).run());
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.remove(0).run();
+		assertThat(this.published).containsExactly("second");
+		this.publisher.publishEvent("third");
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.remove(0).run();
+		assertThat(this.published).containsExactly("second", "third");
+	}
+
+	@Test
+	public void publishEventWhenExecutorRejectsThenPublishedOnCallingThread() {
+		this.publisher.setExecutor((task) -> {
+			throw new RejectedExecutionException();
+		});
+		this.publisher.publishEvent("first");
+		assertThat(this.published).containsExactly("first");
+		assertThat(this.publisher.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void setOverflowPolicyWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.publisher.setOverflowPolicy(null));
+	}
+
+	@Test
+	public void setBatchSizeWhenZeroThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.publisher.setBatchSize(0));
+	}
+
+}
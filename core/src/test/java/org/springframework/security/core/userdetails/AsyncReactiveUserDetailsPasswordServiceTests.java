@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link AsyncReactiveUserDetailsPasswordService}.
+ */
+public class AsyncReactiveUserDetailsPasswordServiceTests {
+
+	private final ReactiveUserDetailsPasswordService delegate = mock(ReactiveUserDetailsPasswordService.class);
+
+	private final ReactiveUserDetailsService userDetailsService = mock(ReactiveUserDetailsService.class);
+
+	private final UserDetails user = User.withUsername("user").password("{noop}password").roles("USER").build();
+
+	private AsyncReactiveUserDetailsPasswordService service;
+
+	@Before
+	public void setup() {
+		this.service = new AsyncReactiveUserDetailsPasswordService(this.delegate, this.userDetailsService);
+		this.service.setScheduler(Schedulers.immediate());
+		given(this.userDetailsService.findByUsername(any())).willAnswer((invocation) -> Mono
+				.just(User.withUserDetails(this.user).username(invocation.getArgument(0)).build()));
+	}
+
+	@Test
+	public void constructorWhenNullDelegateThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AsyncReactiveUserDetailsPasswordService(null));
+	}
+
+	@Test
+	public void constructorWhenDelegateNotUserDetailsServiceThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new AsyncReactiveUserDetailsPasswordService(this.delegate));
+	}
+
+	@Test
+	public void updatePasswordWhenNotSubscribedThenNotQueued() {
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isZero();
+		verifyZeroInteractions(this.delegate);
+	}
+
+	@Test
+	public void updatePasswordWhenSubscribedThenAppliedOnScheduler() {
+		given(this.delegate.updatePassword(any(), any())).willReturn(Mono.just(this.user));
+		StepVerifier.create(this.service.updatePassword(this.user, () -> "{bcrypt}new")).expectNext(this.user)
+				.verifyComplete();
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenDelegateFailsThenRemainingUpdatesApplied() {
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		given(this.delegate.updatePassword(eq(this.user), any()))
+				.willReturn(Mono.error(new IllegalStateException()));
+		given(this.delegate.updatePassword(eq(other), any())).willReturn(Mono.just(other));
+		this.service.updatePassword(this.user, "{bcrypt}new").block();
+		this.service.updatePassword(other, "{bcrypt}new").block();
+		verify(this.delegate).updatePassword(other, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenPasswordChangedBeforeAppliedThenSkipped() {
+		given(this.userDetailsService.findByUsername("user"))
+				.willReturn(Mono.just(User.withUserDetails(this.user).password("{noop}changed").build()));
+		this.service.updatePassword(this.user, "{bcrypt}new").block();
+		verifyZeroInteractions(this.delegate);
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenMapUserDetailsServiceThenAppliedToIt() {
+		MapReactiveUserDetailsService users = new MapReactiveUserDetailsService(this.user);
+		this.service = new AsyncReactiveUserDetailsPasswordService(users);
+		this.service.setScheduler(Schedulers.immediate());
+		this.service.updatePassword(this.user, "{bcrypt}new").block();
+		assertThat(users.findByUsername("user").block().getPassword()).isEqualTo("{bcrypt}new");
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link AsyncUserDetailsPasswordService}.
+ */
+public class AsyncUserDetailsPasswordServiceTests {
+
+	private final UserDetailsPasswordService delegate = mock(UserDetailsPasswordService.class);
+
+	private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private final UserDetails user = User.withUsername("user").password("{noop}password").roles("USER").build();
+
+	private AsyncUserDetailsPasswordService service;
+
+	@Before
+	public void setup() {
+		this.service = new AsyncUserDetailsPasswordService(this.delegate, this.userDetailsService);
+		this.service.setExecutor(this.tasks::add);
+		given(this.userDetailsService.loadUserByUsername(any())).willAnswer(
+				(invocation) -> User.withUserDetails(this.user).username(invocation.getArgument(0)).build());
+	}
+
+	@Test
+	public void constructorWhenNullDelegateThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AsyncUserDetailsPasswordService(null));
+	}
+
+	@Test
+	public void constructorWhenDelegateNotUserDetailsServiceThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AsyncUserDetailsPasswordService(this.delegate));
+	}
+
+	@Test
+	public void constructorWhenDelegateIsUserDetailsServiceThenLoadsUsersFromDelegate() {
+		InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager(this.user);
+		this.service = new AsyncUserDetailsPasswordService(manager);
+		this.service.setExecutor(Runnable::run);
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		assertThat(manager.loadUserByUsername("user").getPassword()).isEqualTo("{bcrypt}new");
+	}
+
+	@Test
+	public void updatePasswordWhenQueuedThenAppliedByExecutor() {
+		assertThat(this.service.updatePassword(this.user, "{bcrypt}new")).isSameAs(this.user);
+		verifyZeroInteractions(this.delegate);
+		assertThat(this.service.getQueueSize()).isEqualTo(1);
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.get(0).run();
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenSameUserQueuedTwiceThenLatestPasswordApplied() {
+		this.service.updatePassword(this.user, "{bcrypt}first");
+		this.service.updatePassword(this.user, "{bcrypt}second");
+		assertThat(this.service.getQueueSize()).isEqualTo(1);
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.get(0).run();
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}second");
+		verifyNoMoreInteractions(this.delegate);
+	}
+
+	@Test
+	public void updatePasswordWhenQueueFullThenDropped() {
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		this.service.setQueueCapacity(1);
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		this.service.updatePassword(other, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isEqualTo(1);
+		this.tasks.get(0).run();
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}new");
+		verifyNoMoreInteractions(this.delegate);
+	}
+
+	@Test
+	public void updatePasswordWhenSupplierThenObtainedByExecutor() {
+		List<String> encoded = new ArrayList<>();
+		this.service.updatePassword(this.user, () -> {
+			encoded.add("{bcrypt}new");
+			return "{bcrypt}new";
+		});
+		assertThat(encoded).isEmpty();
+		this.tasks.get(0).run();
+		assertThat(encoded).hasSize(1);
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}new");
+	}
+
+	@Test
+	public void updatePasswordWhenDelegateFailsThenRemainingUpdatesApplied() {
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		given(this.delegate.updatePassword(eq(this.user), any())).willThrow(new IllegalStateException());
+		this.service.setBatchSize(1);
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		this.service.updatePassword(other, "{bcrypt}new");
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.get(0).run();
+		verify(this.delegate).updatePassword(other, "{bcrypt}new");
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenDrainedThenNextUpdateSchedulesExecutor() {
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		this.tasks.get(0).run();
+		this.service.updatePassword(this.user, "{bcrypt}newer");
+		assertThat(this.tasks).hasSize(2);
+	}
+
+	@Test
+	public void updatePasswordWhenExecutorRejectsThenScheduledOnNextUpdate() {
+		this.service.setExecutor((task) -> {
+			throw new RejectedExecutionException();
+		});
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		this.service.setExecutor(Runnable::run);
+		this.service.updatePassword(this.user, "{bcrypt}newer");
+		verify(this.delegate).updatePassword(this.user, "{bcrypt}newer");
+		verifyNoMoreInteractions(this.delegate);
+	}
+
+	@Test
+	public void updatePasswordWhenPasswordChangedBeforeAppliedThenSkipped() {
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		given(this.userDetailsService.loadUserByUsername("user"))
+				.willReturn(User.withUserDetails(this.user).password("{noop}changed").build());
+		this.tasks.get(0).run();
+		verifyZeroInteractions(this.delegate);
+		assertThat(this.service.getQueueSize()).isZero();
+	}
+
+	@Test
+	public void updatePasswordWhenUserDeletedBeforeAppliedThenSkipped() {
+		this.service.updatePassword(this.user, "{bcrypt}new");
+		given(this.userDetailsService.loadUserByUsername("user")).willThrow(new UsernameNotFoundException("user"));
+		this.tasks.get(0).run();
+		verifyZeroInteractions(this.delegate);
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link InMemoryUserCache}.
+ */
+public class InMemoryUserCacheTests {
+
+	private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
+	private final InMemoryUserCache cache = new InMemoryUserCache(100, Duration.ofMinutes(5));
+
+	@Test
+	public void constructorWhenMaximumSizeNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new InMemoryUserCache(0, Duration.ofMinutes(5)));
+	}
+
+	@Test
+	public void constructorWhenTimeToLiveZeroThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new InMemoryUserCache(100, Duration.ZERO));
+	}
+
+	@Test
+	public void getUserFromCacheWhenPutThenFound() {
+		UserDetails user = user("user");
+		this.cache.putUserInCache(user);
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(user);
+		assertThat(this.cache.getUserFromCache("other")).isNull();
+		assertThat(this.cache.getUserFromCache(null)).isNull();
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void getUserFromCacheWhenExpiredThenNull() {
+		this.cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		this.cache.putUserInCache(user("user"));
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void putUserInCacheWhenSameInstanceThenTimeToLiveNotExtended() {
+		UserDetails user = user("user");
+		this.cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		this.cache.putUserInCache(user);
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(4)), ZoneOffset.UTC));
+		this.cache.putUserInCache(user);
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+	}
+
+	@Test
+	public void putUserInCacheWhenNewInstanceThenReplaced() {
+		UserDetails updated = user("user");
+		this.cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		this.cache.putUserInCache(user("user"));
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(4)), ZoneOffset.UTC));
+		this.cache.putUserInCache(updated);
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(updated);
+	}
+
+	@Test
+	public void putUserInCacheWhenFullThenLeastRecentlyUsedEvicted() {
+		InMemoryUserCache cache = new InMemoryUserCache(1, Duration.ofMinutes(5));
+		cache.putUserInCache(user("first"));
+		cache.putUserInCache(user("second"));
+		assertThat(cache.getUserFromCache("first")).isNull();
+		assertThat(cache.getUserFromCache("second")).isNotNull();
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void putUserInCacheWhenManyUsersThenSizeBounded() {
+		for (int i = 0; i < 1000; i++) {
+			this.cache.putUserInCache(user("user" + i));
+		}
+		assertThat(this.cache.size()).isLessThanOrEqualTo(100);
+		assertThat(this.cache.getEvictionCount()).isEqualTo(1000 - this.cache.size());
+	}
+
+	@Test
+	public void removeUserFromCacheWhenCachedThenRemoved() {
+		this.cache.putUserInCache(user("user"));
+		this.cache.putUserInCache(user("other"));
+		this.cache.removeUserFromCache("user");
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+		assertThat(this.cache.getUserFromCache("other")).isNotNull();
+		this.cache.removeAllUsersFromCache();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	private static UserDetails user(String username) {
+		return User.withUsername(username).password("password").roles("USER").build();
+	}
+
+}
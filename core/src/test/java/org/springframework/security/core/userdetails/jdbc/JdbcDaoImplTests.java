@@ -16,6 +16,10 @@
 
 package org.springframework.security.core.userdetails.jdbc;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
 import org.springframework.context.MessageSource;
@@ -141,6 +145,68 @@ public class JdbcDaoImplTests {
 		assertThat(tom.getAuthorities()).hasSize(3);
 	}
 
+	@Test
+	public void loadUserByUsernameWhenCombinedQueryThenUserAndAuthoritiesLoaded() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUserWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+		UserDetails user = dao.loadUserByUsername("ScOTt");
+		assertThat(user.getUsername()).isEqualTo("scott");
+		assertThat(user.getPassword()).isEqualTo("wombat");
+		assertThat(user.isEnabled()).isTrue();
+		assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities())).containsOnly("ROLE_TELLER");
+		assertThat(AuthorityUtils.authorityListToSet(dao.loadUserByUsername("rod").getAuthorities()))
+				.containsOnly("ROLE_TELLER", "ROLE_SUPERVISOR");
+		assertThat(dao.loadUserByUsername("peter").isEnabled()).isFalse();
+	}
+
+	@Test
+	public void loadUserByUsernameWhenCombinedQueryAndNoAuthoritiesThenUsernameNotFoundException() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUserWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+		assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(() -> dao.loadUserByUsername("cooper"));
+		assertThatExceptionOfType(UsernameNotFoundException.class)
+				.isThrownBy(() -> dao.loadUserByUsername("UNKNOWN_USER"));
+	}
+
+	@Test
+	public void loadUserByUsernameWhenCombinedQueryWithGroupsThenGroupAuthoritiesLoaded() {
+		JdbcDaoImpl dao = makePopulatedJdbcDaoWithRolePrefix();
+		dao.setUserWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY
+				+ " union all select u.username,u.password,u.enabled,ga.authority from users u "
+				+ "join group_members gm on gm.username = u.username "
+				+ "join group_authorities ga on ga.group_id = gm.group_id where u.username = :username");
+		UserDetails tom = dao.loadUserByUsername("tom");
+		assertThat(AuthorityUtils.authorityListToSet(tom.getAuthorities())).containsOnly("ARBITRARY_PREFIX_ROLE_A",
+				"ARBITRARY_PREFIX_ROLE_B", "ARBITRARY_PREFIX_ROLE_C");
+	}
+
+	@Test
+	public void loadUserByUsernameWhenCombinedQueryHasQuestionMarkLiteralThenOnlyParametersBound() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUserWithAuthoritiesByUsernameQuery(
+				JdbcDaoImpl.DEF_USER_WITH_AUTHORITIES_BY_USERNAME_QUERY + " and u.password <> '?'");
+		UserDetails user = dao.loadUserByUsername("rod");
+		assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities())).containsOnly("ROLE_TELLER",
+				"ROLE_SUPERVISOR");
+	}
+
+	@Test
+	public void loadUsersByUsernamesWhenUsersExistThenLoadedWithAuthorities() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		List<UserDetails> users = dao.loadUsersByUsernames(Arrays.asList("rod", "scott", "cooper", "UNKNOWN_USER"));
+		assertThat(users).extracting(UserDetails::getUsername).containsOnly("rod", "scott");
+		UserDetails rod = users.stream().filter((user) -> user.getUsername().equals("rod")).findFirst().get();
+		assertThat(rod.getPassword()).isEqualTo("koala");
+		assertThat(AuthorityUtils.authorityListToSet(rod.getAuthorities())).containsOnly("ROLE_TELLER",
+				"ROLE_SUPERVISOR");
+	}
+
+	@Test
+	public void loadUsersByUsernamesWhenEmptyThenEmpty() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		assertThat(dao.loadUsersByUsernames(Collections.emptyList())).isEmpty();
+	}
+
 	@Test
 	public void testStartupFailsIfDataSourceNotSet() {
 		JdbcDaoImpl dao = new JdbcDaoImpl();
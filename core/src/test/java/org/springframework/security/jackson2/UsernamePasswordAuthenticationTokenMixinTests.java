@@ -28,6 +28,7 @@ import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityRegistry;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
@@ -125,6 +126,18 @@ public class UsernamePasswordAuthenticationTokenMixinTests extends AbstractMixin
 		assertThat(token.getAuthorities()).hasSize(1).contains(new SimpleGrantedAuthority("ROLE_USER"));
 	}
 
+	@Test
+	public void deserializeWhenSerializedWithInternedAuthoritiesThenEqualToken() throws IOException {
+		AuthorityRegistry registry = new AuthorityRegistry();
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("admin", "1234",
+				registry.getAuthorities("ROLE_USER", "ROLE_ADMIN"));
+		String json = this.mapper.writeValueAsString(token);
+		UsernamePasswordAuthenticationToken deserialized = this.mapper.readValue(json,
+				UsernamePasswordAuthenticationToken.class);
+		assertThat(deserialized.getAuthorities()).containsExactlyElementsOf(token.getAuthorities());
+		assertThat(deserialized).isEqualTo(token);
+	}
+
 	@Test
 	public void serializeAuthenticatedUsernamePasswordAuthenticationTokenMixinAfterEraseCredentialInvoked()
 			throws JsonProcessingException, JSONException {
@@ -16,6 +16,8 @@
 
 package org.springframework.security.provisioning;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import org.springframework.security.core.userdetails.PasswordEncodedUser;
@@ -23,6 +25,7 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * @author Rob Winch
@@ -34,6 +37,42 @@ public class InMemoryUserDetailsManagerTests {
 
 	private InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager(this.user);
 
+	@Test
+	public void createUsersWhenNewThenCreated() {
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		UserDetails another = User.withUserDetails(this.user).username("another").build();
+		this.manager.createUsers(Arrays.asList(other, another));
+		assertThat(this.manager.userExists("other")).isTrue();
+		assertThat(this.manager.userExists("another")).isTrue();
+	}
+
+	@Test
+	public void createUsersWhenOneExistsThenNoneCreated() {
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.manager.createUsers(Arrays.asList(other, this.user)));
+		assertThat(this.manager.userExists("other")).isFalse();
+	}
+
+	@Test
+	public void updateUsersWhenOneMissingThenNoneUpdated() {
+		UserDetails updated = User.withUserDetails(this.user).password("{noop}updated").build();
+		UserDetails other = User.withUserDetails(this.user).username("other").build();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.manager.updateUsers(Arrays.asList(updated, other)));
+		assertThat(this.manager.loadUserByUsername(this.user.getUsername()).getPassword())
+				.isEqualTo(this.user.getPassword());
+		this.manager.updateUsers(Arrays.asList(updated));
+		assertThat(this.manager.loadUserByUsername(this.user.getUsername()).getPassword())
+				.isEqualTo("{noop}updated");
+	}
+
+	@Test
+	public void deleteUsersWhenExistThenDeleted() {
+		this.manager.deleteUsers(Arrays.asList(this.user.getUsername().toUpperCase(), "missing"));
+		assertThat(this.manager.userExists(this.user.getUsername())).isFalse();
+	}
+
 	@Test
 	public void changePassword() {
 		String newPassword = "newPassword";
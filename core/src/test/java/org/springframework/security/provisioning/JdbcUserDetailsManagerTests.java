@@ -16,6 +16,7 @@
 
 package org.springframework.security.provisioning;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -27,7 +28,9 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.security.PopulatedDatabase;
 import org.springframework.security.TestDataSource;
 import org.springframework.security.access.AccessDeniedException;
@@ -45,6 +48,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -145,6 +149,81 @@ public class JdbcUserDetailsManagerTests {
 		assertThat(user2).isEqualToComparingFieldByField(user);
 	}
 
+	@Test
+	public void createUsersInsertsCorrectData() {
+		UserDetails bob = new User("bob", "password", true, true, true, true, AuthorityUtils.createAuthorityList("A"));
+		UserDetails ann = new User("ann", "password", true, true, true, true, AuthorityUtils.NO_AUTHORITIES);
+		this.manager.setBatchSize(2);
+		this.manager.createUsers(Arrays.asList(joe, bob, ann));
+		assertThat(this.manager.loadUserByUsername("joe")).isEqualTo(joe);
+		assertThat(this.manager.loadUserByUsername("bob")).isEqualTo(bob);
+		assertThat(this.manager.userExists("ann")).isTrue();
+	}
+
+	@Test
+	public void createUsersWhenTransactionManagerAndChunkFailsThenOnlyChunkRolledBack() {
+		// the authority does not fit into its column
+		UserDetails bob = new User("bob", "password", true, true, true, true,
+				AuthorityUtils.createAuthorityList("ROLE_WITH_A_VERY_LONG_NAME"));
+		this.manager.setBatchSize(1);
+		this.manager.setTransactionManager(new DataSourceTransactionManager(dataSource));
+		assertThatExceptionOfType(DataAccessException.class)
+				.isThrownBy(() -> this.manager.createUsers(Arrays.asList(joe, bob)));
+		assertThat(this.manager.userExists("joe")).isTrue();
+		assertThat(this.manager.userExists("bob")).isFalse();
+	}
+
+	@Test
+	public void updateUsersWritesOnlyChangedAuthoritiesAndClearsCache() {
+		insertJoe();
+		UserDetails bob = new User("bob", "password", true, true, true, true, AuthorityUtils.createAuthorityList("A"));
+		this.manager.createUser(bob);
+		UserDetails newJoe = new User("joe", "newpassword", false, true, true, true,
+				AuthorityUtils.createAuthorityList("A", "D"));
+		UserDetails newBob = new User("bob", "newpassword", true, true, true, true, AuthorityUtils.NO_AUTHORITIES);
+		this.manager.updateUsers(Arrays.asList(newJoe, newBob));
+		assertThat(this.manager.loadUserByUsername("joe")).isEqualToComparingFieldByField(newJoe);
+		assertThat(this.template.queryForList("select * from authorities where username = 'bob'")).isEmpty();
+		assertThat(this.cache.getUserMap().containsKey("joe")).isFalse();
+	}
+
+	@Test
+	public void updateUsersWhenUsernamesReturnedInOtherCaseThenOnlyChangedAuthoritiesWritten() {
+		insertJoe();
+		this.manager.setAuthoritiesByUsernamesSql(
+				"select upper(username), authority from authorities where username in (:usernames)");
+		UserDetails newJoe = new User("joe", "newpassword", true, true, true, true,
+				AuthorityUtils.createAuthorityList("A", "D"));
+		this.manager.updateUsers(Collections.singletonList(newJoe));
+		assertThat(this.template.queryForList("select authority from authorities where username = 'joe'",
+				String.class)).containsOnly("A", "D").hasSize(2);
+	}
+
+	@Test
+	public void updateUsersWhenDuplicateUsernameThenIllegalArgumentException() {
+		insertJoe();
+		UserDetails newJoe = new User("joe", "newpassword", true, true, true, true,
+				AuthorityUtils.createAuthorityList("D"));
+		UserDetails upperJoe = new User("JOE", "newpassword", true, true, true, true,
+				AuthorityUtils.createAuthorityList("E"));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.manager.updateUsers(Arrays.asList(newJoe, upperJoe)));
+		assertThat(this.template.queryForList("select authority from authorities where username = 'joe'",
+				String.class)).containsOnly("A", "B", "C");
+	}
+
+	@Test
+	public void deleteUsersRemovesUserDataAndAuthoritiesAndClearsCache() {
+		insertJoe();
+		this.manager.createUser(new User("bob", "password", true, true, true, true,
+				AuthorityUtils.createAuthorityList("A")));
+		this.manager.deleteUsers(Arrays.asList("joe", "bob"));
+		assertThat(this.template.queryForList(SELECT_JOE_SQL)).isEmpty();
+		assertThat(this.template.queryForList("select * from authorities")).isEmpty();
+		assertThat(this.manager.userExists("bob")).isFalse();
+		assertThat(this.cache.getUserMap().containsKey("joe")).isFalse();
+	}
+
 	@Test
 	public void deleteUserRemovesUserDataAndAuthoritiesAndClearsCache() {
 		insertJoe();
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.provisioning;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link R2dbcReactiveUserDetailsManager}
+ */
+public class R2dbcReactiveUserDetailsManagerTests {
+
+	private static final String USERS_SCHEMA_SQL_RESOURCE = "org/springframework/security/core/userdetails/jdbc/users.ddl";
+
+	private static int databaseId = 1;
+
+	private DatabaseClient databaseClient;
+
+	private R2dbcReactiveUserDetailsManager manager;
+
+	@Before
+	public void setUp() {
+		ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("users-test-" + databaseId++);
+		ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+		initializer.setDatabasePopulator(
+				new ResourceDatabasePopulator(new ClassPathResource(USERS_SCHEMA_SQL_RESOURCE)));
+		initializer.setConnectionFactory(connectionFactory);
+		initializer.afterPropertiesSet();
+		this.databaseClient = DatabaseClient.create(connectionFactory);
+		execute("insert into users (username, password, enabled) values ('rod', 'koala', true)");
+		execute("insert into users (username, password, enabled) values ('peter', 'opal', false)");
+		execute("insert into users (username, password, enabled) values ('nobody', 'none', true)");
+		execute("insert into authorities (username, authority) values ('rod', 'ROLE_USER')");
+		execute("insert into authorities (username, authority) values ('rod', 'ROLE_ADMIN')");
+		execute("insert into authorities (username, authority) values ('peter', 'ROLE_USER')");
+		this.manager = new R2dbcReactiveUserDetailsManager(this.databaseClient);
+	}
+
+	private void execute(String sql) {
+		this.databaseClient.sql(sql).then().as(StepVerifier::create).verifyComplete();
+	}
+
+	@Test
+	public void constructorWhenDatabaseClientIsNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new R2dbcReactiveUserDetailsManager(null))
+				.withMessageContaining("databaseClient cannot be null");
+	}
+
+	@Test
+	public void findByUsernameWhenExistsThenReturnsUserWithAllAuthorities() {
+		UserDetails user = this.manager.findByUsername("rod").block();
+		assertThat(user.getUsername()).isEqualTo("rod");
+		assertThat(user.getPassword()).isEqualTo("koala");
+		assertThat(user.isEnabled()).isTrue();
+		assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities())).containsOnly("ROLE_USER",
+				"ROLE_ADMIN");
+	}
+
+	@Test
+	public void findByUsernameWhenDisabledThenReturnsDisabledUser() {
+		UserDetails user = this.manager.findByUsername("peter").block();
+		assertThat(user.isEnabled()).isFalse();
+	}
+
+	@Test
+	public void findByUsernameWhenNotFoundThenEmpty() {
+		this.manager.findByUsername("unknown").as(StepVerifier::create).verifyComplete();
+	}
+
+	@Test
+	public void findByUsernameWhenNoAuthoritiesThenEmpty() {
+		this.manager.findByUsername("nobody").as(StepVerifier::create).verifyComplete();
+	}
+
+	@Test
+	public void findByUsernameWhenRolePrefixThenPrependsPrefix() {
+		this.manager.setRolePrefix("ARBITRARY_PREFIX_");
+		UserDetails user = this.manager.findByUsername("peter").block();
+		assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities()))
+				.containsOnly("ARBITRARY_PREFIX_ROLE_USER");
+	}
+
+	@Test
+	public void updatePasswordThenStoresAndReturnsNewPassword() {
+		UserDetails user = this.manager.findByUsername("rod").block();
+		UserDetails updated = this.manager.updatePassword(user, "{noop}newpassword").block();
+		assertThat(updated.getPassword()).isEqualTo("{noop}newpassword");
+		assertThat(updated.getAuthorities()).isEqualTo(user.getAuthorities());
+		assertThat(this.manager.findByUsername("rod").block().getPassword()).isEqualTo("{noop}newpassword");
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.security.oauth2.server.resource;
 
+import org.springframework.security.core.SecurityExceptionStackTraces;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 
 /**
@@ -53,4 +54,15 @@ public class InvalidBearerTokenException extends OAuth2AuthenticationException {
 		super(BearerTokenErrors.invalidToken(description), cause);
 	}
 
+	/**
+	 * Records the stack trace unless disabled through
+	 * {@link SecurityExceptionStackTraces#setEnabled(boolean)}
+	 * @return this exception
+	 * @since 5.5
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return SecurityExceptionStackTraces.isEnabled() ? super.fillInStackTrace() : this;
+	}
+
 }
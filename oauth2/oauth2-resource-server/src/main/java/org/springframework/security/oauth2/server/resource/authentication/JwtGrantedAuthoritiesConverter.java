@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.log.LogMessage;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityRegistry;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.util.Assert;
@@ -51,6 +52,8 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 
 	private String authoritiesClaimName;
 
+	private AuthorityRegistry authorityRegistry;
+
 	/**
 	 * Extract {@link GrantedAuthority}s from the given {@link Jwt}.
 	 * @param jwt The {@link Jwt} token
@@ -62,6 +65,9 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 		for (String authority : getAuthorities(jwt)) {
 			grantedAuthorities.add(new SimpleGrantedAuthority(this.authorityPrefix + authority));
 		}
+		if (this.authorityRegistry != null) {
+			return this.authorityRegistry.getAuthorities(grantedAuthorities);
+		}
 		return grantedAuthorities;
 	}
 
@@ -89,6 +95,18 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 		this.authoritiesClaimName = authoritiesClaimName;
 	}
 
+	/**
+	 * Sets the {@link AuthorityRegistry} used to share identical sets of
+	 * {@link GrantedAuthority authorities} between tokens. When set, the converter
+	 * returns the registry's shared, immutable instances.
+	 * @param authorityRegistry The {@link AuthorityRegistry} to use
+	 * @since 5.5
+	 */
+	public void setAuthorityRegistry(AuthorityRegistry authorityRegistry) {
+		Assert.notNull(authorityRegistry, "authorityRegistry cannot be null");
+		this.authorityRegistry = authorityRegistry;
+	}
+
 	private String getAuthoritiesClaimName(Jwt jwt) {
 		if (this.authoritiesClaimName != null) {
 			return this.authoritiesClaimName;
@@ -23,6 +23,8 @@ import java.util.Collections;
 import org.junit.Test;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityRegistry;
+import org.springframework.security.core.authority.InternedGrantedAuthorities;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.TestJwts;
@@ -256,4 +258,23 @@ public class JwtGrantedAuthoritiesConverterTests {
 		assertThat(authorities).isEmpty();
 	}
 
+	@Test
+	public void convertWithAuthorityRegistryWhenTokensHaveSameScopesThenSameAuthorities() {
+		// @formatter:off
+		Jwt first = TestJwts.jwt()
+				.claim("scope", "message:read message:write")
+				.build();
+		Jwt second = TestJwts.jwt()
+				.claim("scp", Arrays.asList("message:write", "message:read"))
+				.build();
+		// @formatter:on
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		jwtGrantedAuthoritiesConverter.setAuthorityRegistry(new AuthorityRegistry());
+		Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(first);
+		assertThat(authorities).isInstanceOf(InternedGrantedAuthorities.class);
+		assertThat(authorities).containsExactly(new SimpleGrantedAuthority("SCOPE_message:read"),
+				new SimpleGrantedAuthority("SCOPE_message:write"));
+		assertThat(jwtGrantedAuthoritiesConverter.convert(second)).isSameAs(authorities);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.security.web.access.expression;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.security.access.expression.AbstractSecurityExpressionHandler;
 import org.springframework.security.access.expression.SecurityExpressionHandler;
 import org.springframework.security.access.expression.SecurityExpressionOperations;
@@ -23,6 +27,7 @@ import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.util.matcher.CidrSetRequestMatcher;
 import org.springframework.util.Assert;
 
 /**
@@ -37,6 +42,8 @@ public class DefaultWebSecurityExpressionHandler extends AbstractSecurityExpress
 
 	private String defaultRolePrefix = "ROLE_";
 
+	private Map<String, CidrSetRequestMatcher> ipAddressSets = Collections.emptyMap();
+
 	@Override
 	protected SecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication,
 			FilterInvocation fi) {
@@ -45,6 +52,7 @@ public class DefaultWebSecurityExpressionHandler extends AbstractSecurityExpress
 		root.setTrustResolver(this.trustResolver);
 		root.setRoleHierarchy(getRoleHierarchy());
 		root.setDefaultRolePrefix(this.defaultRolePrefix);
+		root.setIpAddressSets(this.ipAddressSets);
 		return root;
 	}
 
@@ -78,4 +86,17 @@ public class DefaultWebSecurityExpressionHandler extends AbstractSecurityExpress
 		this.defaultRolePrefix = defaultRolePrefix;
 	}
 
+	/**
+	 * Sets the named sets of IP addresses that expressions can refer to with
+	 * {@code hasIpAddressIn('name')}. Reloading one of the matchers takes effect for all
+	 * subsequent evaluations.
+	 * @param ipAddressSets the sets of IP addresses by name. Cannot be null.
+	 * @since 5.5
+	 * @see WebSecurityExpressionRoot#hasIpAddressIn(String)
+	 */
+	public void setIpAddressSets(Map<String, CidrSetRequestMatcher> ipAddressSets) {
+		Assert.notNull(ipAddressSets, "ipAddressSets cannot be null");
+		this.ipAddressSets = Collections.unmodifiableMap(new LinkedHashMap<>(ipAddressSets));
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,17 @@
 
 package org.springframework.security.web.access.expression;
 
+import java.util.Collections;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.security.access.expression.SecurityExpressionRoot;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.util.matcher.CidrSetRequestMatcher;
 import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.util.Assert;
 
 /**
  * @author Luke Taylor
@@ -34,6 +39,8 @@ public class WebSecurityExpressionRoot extends SecurityExpressionRoot {
 	 */
 	public final HttpServletRequest request;
 
+	private Map<String, CidrSetRequestMatcher> ipAddressSets = Collections.emptyMap();
+
 	public WebSecurityExpressionRoot(Authentication a, FilterInvocation fi) {
 		super(a);
 		this.request = fi.getRequest();
@@ -51,4 +58,30 @@ public class WebSecurityExpressionRoot extends SecurityExpressionRoot {
 		return matcher.matches(this.request);
 	}
 
+	/**
+	 * Takes the name of a set of IP addresses and ranges registered with
+	 * {@link #setIpAddressSets(Map)}.
+	 * @param setName the name of the set of addresses from which the request must come
+	 * @return true if the IP address of the current request is in the named set
+	 * @since 5.5
+	 */
+	public boolean hasIpAddressIn(String setName) {
+		CidrSetRequestMatcher matcher = this.ipAddressSets.get(setName);
+		if (matcher == null) {
+			throw new IllegalArgumentException("No IP address set named '" + setName + "' is registered");
+		}
+		return matcher.matches(this.request);
+	}
+
+	/**
+	 * Sets the named sets of IP addresses that can be referred to by
+	 * {@link #hasIpAddressIn(String)}
+	 * @param ipAddressSets the sets of IP addresses by name
+	 * @since 5.5
+	 */
+	public void setIpAddressSets(Map<String, CidrSetRequestMatcher> ipAddressSets) {
+		Assert.notNull(ipAddressSets, "ipAddressSets cannot be null");
+		this.ipAddressSets = ipAddressSets;
+	}
+
 }
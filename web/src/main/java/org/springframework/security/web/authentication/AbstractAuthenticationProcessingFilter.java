@@ -17,7 +17,14 @@
 package org.springframework.security.web.authentication;
 
 import java.io.IOException;
-
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -33,11 +40,14 @@ import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.core.log.LogMessage;
 import org.springframework.security.authentication.AuthenticationDetailsSource;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.SpringSecurityMessageSource;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.session.NullAuthenticatedSessionStrategy;
 import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
@@ -105,12 +115,24 @@ import org.springframework.web.filter.GenericFilterBean;
  * can be injected} to enable things like session-fixation attack prevention or to control
  * the number of simultaneous sessions a principal may have.
  *
+ * <h4>Asynchronous Authentication</h4>
+ *
+ * When an {@link #setAuthenticationExecutor(Executor) authentication executor} is
+ * configured, authentication requests that support Servlet 3 async processing are
+ * authenticated on that executor instead of the container thread, so that expensive
+ * password hashing does not hold container threads. The outcome is handled on an async
+ * dispatch back to the container, so the filter must also be mapped to the {@code ASYNC}
+ * dispatcher type.
+ *
  * @author Ben Alex
  * @author Luke Taylor
  */
 public abstract class AbstractAuthenticationProcessingFilter extends GenericFilterBean
 		implements ApplicationEventPublisherAware, MessageSourceAware {
 
+	private static final String ASYNC_AUTHENTICATION_RESULT_ATTRIBUTE = AbstractAuthenticationProcessingFilter.class
+			.getName() + ".ASYNC_AUTHENTICATION_RESULT";
+
 	protected ApplicationEventPublisher eventPublisher;
 
 	protected AuthenticationDetailsSource<HttpServletRequest, ?> authenticationDetailsSource = new WebAuthenticationDetailsSource();
@@ -133,6 +155,8 @@ public abstract class AbstractAuthenticationProcessingFilter extends GenericFilt
 
 	private AuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler();
 
+	private Executor authenticationExecutor;
+
 	/**
 	 * @param defaultFilterProcessesUrl the default value for <tt>filterProcessesUrl</tt>.
 	 */
@@ -218,27 +242,109 @@ public abstract class AbstractAuthenticationProcessingFilter extends GenericFilt
 			chain.doFilter(request, response);
 			return;
 		}
+		AsyncAuthenticationResult asyncResult = getAsyncAuthenticationResult(request);
+		if (asyncResult != null) {
+			authenticate(request, response, chain, asyncResult);
+			return;
+		}
+		if (isAsynchronous(request)) {
+			authenticateAsynchronously(request, response);
+			return;
+		}
+		authenticate(request, response, chain);
+	}
+
+	private boolean isAsynchronous(HttpServletRequest request) {
+		return this.authenticationExecutor != null && !this.continueChainBeforeSuccessfulAuthentication
+				&& request.isAsyncSupported();
+	}
+
+	/**
+	 * Only attempts the authentication on the executor. The result is handed back to the
+	 * container with an async dispatch, so that the rest of the authentication, including
+	 * the handlers, runs on a container thread.
+	 */
+	private void authenticateAsynchronously(HttpServletRequest request, HttpServletResponse response) {
+		AsyncAuthentication asyncAuthentication = new AsyncAuthentication(request, request.startAsync());
+		SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+		securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+		Runnable authentication = new DelegatingSecurityContextRunnable(() -> {
+			AsyncAuthenticationResult result;
+			try {
+				result = new AsyncAuthenticationResult(this, attemptAuthentication(request, response), null);
+			}
+			catch (Throwable ex) {
+				result = new AsyncAuthenticationResult(this, null, ex);
+			}
+			asyncAuthentication.dispatch(result);
+		}, securityContext);
+		try {
+			this.authenticationExecutor.execute(authentication);
+		}
+		catch (RejectedExecutionException ex) {
+			asyncAuthentication.dispatch(new AsyncAuthenticationResult(this, null,
+					new AuthenticationServiceException("Too many authentication requests", ex)));
+		}
+	}
+
+	private AsyncAuthenticationResult getAsyncAuthenticationResult(HttpServletRequest request) {
+		if (request.getDispatcherType() != DispatcherType.ASYNC) {
+			return null;
+		}
+		Object result = request.getAttribute(ASYNC_AUTHENTICATION_RESULT_ATTRIBUTE);
+		if (!(result instanceof AsyncAuthenticationResult) || ((AsyncAuthenticationResult) result).filter != this) {
+			return null;
+		}
+		request.removeAttribute(ASYNC_AUTHENTICATION_RESULT_ATTRIBUTE);
+		return (AsyncAuthenticationResult) result;
+	}
+
+	private void authenticate(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
 		try {
 			Authentication authenticationResult = attemptAuthentication(request, response);
 			if (authenticationResult == null) {
 				// return immediately as subclass has indicated that it hasn't completed
 				return;
 			}
-			this.sessionStrategy.onAuthentication(authenticationResult, request, response);
-			// Authentication success
-			if (this.continueChainBeforeSuccessfulAuthentication) {
-				chain.doFilter(request, response);
-			}
-			successfulAuthentication(request, response, chain, authenticationResult);
+			authenticated(request, response, chain, authenticationResult);
 		}
-		catch (InternalAuthenticationServiceException failed) {
-			this.logger.error("An internal error occurred while trying to authenticate the user.", failed);
-			unsuccessfulAuthentication(request, response, failed);
+		catch (AuthenticationException ex) {
+			unsuccessfulAuthenticationAttempt(request, response, ex);
+		}
+	}
+
+	private void authenticate(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+			AsyncAuthenticationResult asyncResult) throws IOException, ServletException {
+		try {
+			Authentication authenticationResult = asyncResult.getAuthentication();
+			if (authenticationResult == null) {
+				return;
+			}
+			authenticated(request, response, chain, authenticationResult);
 		}
 		catch (AuthenticationException ex) {
-			// Authentication failed
-			unsuccessfulAuthentication(request, response, ex);
+			unsuccessfulAuthenticationAttempt(request, response, ex);
+		}
+	}
+
+	private void authenticated(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+			Authentication authenticationResult) throws IOException, ServletException {
+		this.sessionStrategy.onAuthentication(authenticationResult, request, response);
+		// Authentication success
+		if (this.continueChainBeforeSuccessfulAuthentication) {
+			chain.doFilter(request, response);
 		}
+		successfulAuthentication(request, response, chain, authenticationResult);
+	}
+
+	private void unsuccessfulAuthenticationAttempt(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException failed) throws IOException, ServletException {
+		if (failed instanceof InternalAuthenticationServiceException) {
+			this.logger.error("An internal error occurred while trying to authenticate the user.", failed);
+		}
+		// Authentication failed
+		unsuccessfulAuthentication(request, response, failed);
 	}
 
 	/**
@@ -432,6 +538,30 @@ public abstract class AbstractAuthenticationProcessingFilter extends GenericFilt
 		this.failureHandler = failureHandler;
 	}
 
+	/**
+	 * Sets the {@link Executor} on which authentication requests are processed
+	 * asynchronously. The request is put into asynchronous mode and
+	 * {@link #attemptAuthentication(HttpServletRequest, HttpServletResponse)} is invoked
+	 * on the executor with the current {@link SecurityContext}. The result is then
+	 * handed back to the container with an async dispatch, on which the session
+	 * authentication strategy and the success or failure handler are invoked. The filter
+	 * chain must therefore also be mapped to the {@code ASYNC} dispatcher type. The
+	 * executor should be bounded; when it rejects a request, or when the container times
+	 * out the async request before the executor finishes, authentication fails with an
+	 * {@link AuthenticationServiceException}.
+	 *
+	 * <p>
+	 * Requests that do not support async processing, and filters that
+	 * {@link #setContinueChainBeforeSuccessfulAuthentication(boolean) continue the chain
+	 * before successful authentication}, are still authenticated on the container
+	 * thread. By default, all requests are authenticated on the container thread.
+	 * @param authenticationExecutor the {@link Executor} to use, or {@code null}
+	 * @since 5.5
+	 */
+	public void setAuthenticationExecutor(Executor authenticationExecutor) {
+		this.authenticationExecutor = authenticationExecutor;
+	}
+
 	protected AuthenticationSuccessHandler getSuccessHandler() {
 		return this.successHandler;
 	}
@@ -440,4 +570,101 @@ public abstract class AbstractAuthenticationProcessingFilter extends GenericFilt
 		return this.failureHandler;
 	}
 
+	/**
+	 * Hands the outcome of an authentication attempted on the executor back to the
+	 * container exactly once. If the container times out first, the timeout is reported
+	 * as an authentication failure and the late outcome is dropped.
+	 */
+	private final class AsyncAuthentication implements AsyncListener {
+
+		private final HttpServletRequest request;
+
+		private final AsyncContext asyncContext;
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		private AsyncAuthentication(HttpServletRequest request, AsyncContext asyncContext) {
+			this.request = request;
+			this.asyncContext = asyncContext;
+			asyncContext.addListener(this);
+		}
+
+		private void dispatch(AsyncAuthenticationResult result) {
+			if (!this.completed.compareAndSet(false, true)) {
+				AbstractAuthenticationProcessingFilter.this.logger
+						.debug("Dropped authentication result since the async request has already completed");
+				return;
+			}
+			this.request.setAttribute(ASYNC_AUTHENTICATION_RESULT_ATTRIBUTE, result);
+			try {
+				this.asyncContext.dispatch();
+			}
+			catch (IllegalStateException ex) {
+				this.request.removeAttribute(ASYNC_AUTHENTICATION_RESULT_ATTRIBUTE);
+				AbstractAuthenticationProcessingFilter.this.logger
+						.debug("Failed to dispatch authentication result to an inactive async request", ex);
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			dispatch(new AsyncAuthenticationResult(AbstractAuthenticationProcessingFilter.this, null,
+					new AuthenticationServiceException("Authentication timed out")));
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			this.completed.set(true);
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			this.completed.set(true);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+	}
+
+	/**
+	 * The outcome of an authentication attempted on the executor.
+	 */
+	private static final class AsyncAuthenticationResult {
+
+		private final AbstractAuthenticationProcessingFilter filter;
+
+		private final Authentication authentication;
+
+		private final Throwable failure;
+
+		private AsyncAuthenticationResult(AbstractAuthenticationProcessingFilter filter, Authentication authentication,
+				Throwable failure) {
+			this.filter = filter;
+			this.authentication = authentication;
+			this.failure = failure;
+		}
+
+		private Authentication getAuthentication() throws IOException, ServletException {
+			if (this.failure instanceof IOException) {
+				throw (IOException) this.failure;
+			}
+			if (this.failure instanceof ServletException) {
+				throw (ServletException) this.failure;
+			}
+			if (this.failure instanceof RuntimeException) {
+				throw (RuntimeException) this.failure;
+			}
+			if (this.failure instanceof Error) {
+				throw (Error) this.failure;
+			}
+			if (this.failure != null) {
+				throw new ServletException(this.failure);
+			}
+			return this.authentication;
+		}
+
+	}
+
 }
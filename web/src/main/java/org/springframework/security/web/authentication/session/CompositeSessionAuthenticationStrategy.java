@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.authentication.session;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -83,6 +84,15 @@ public class CompositeSessionAuthenticationStrategy implements SessionAuthentica
 		}
 	}
 
+	/**
+	 * Returns the strategies that are delegated to, in order
+	 * @return the delegate strategies
+	 * @since 5.5
+	 */
+	public List<SessionAuthenticationStrategy> getDelegateStrategies() {
+		return Collections.unmodifiableList(this.delegateStrategies);
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getName() + " [delegateStrategies = " + this.delegateStrategies + "]";
@@ -35,6 +35,7 @@ import org.springframework.security.web.WebAttributes;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.rememberme.AbstractRememberMeServices;
+import org.springframework.security.web.util.PageTemplate;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.GenericFilterBean;
 import org.springframework.web.util.HtmlUtils;
@@ -89,6 +90,8 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 
 	private Function<HttpServletRequest, Map<String, String>> resolveHiddenInputs = (request) -> Collections.emptyMap();
 
+	private volatile LoginPageTemplate loginPageTemplate;
+
 	public DefaultLoginPageGeneratingFilter() {
 	}
 
@@ -170,51 +173,63 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 
 	public void setFormLoginEnabled(boolean formLoginEnabled) {
 		this.formLoginEnabled = formLoginEnabled;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOpenIdEnabled(boolean openIdEnabled) {
 		this.openIdEnabled = openIdEnabled;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOauth2LoginEnabled(boolean oauth2LoginEnabled) {
 		this.oauth2LoginEnabled = oauth2LoginEnabled;
+		this.loginPageTemplate = null;
 	}
 
 	public void setSaml2LoginEnabled(boolean saml2LoginEnabled) {
 		this.saml2LoginEnabled = saml2LoginEnabled;
+		this.loginPageTemplate = null;
 	}
 
 	public void setAuthenticationUrl(String authenticationUrl) {
 		this.authenticationUrl = authenticationUrl;
+		this.loginPageTemplate = null;
 	}
 
 	public void setUsernameParameter(String usernameParameter) {
 		this.usernameParameter = usernameParameter;
+		this.loginPageTemplate = null;
 	}
 
 	public void setPasswordParameter(String passwordParameter) {
 		this.passwordParameter = passwordParameter;
+		this.loginPageTemplate = null;
 	}
 
 	public void setRememberMeParameter(String rememberMeParameter) {
 		this.rememberMeParameter = rememberMeParameter;
 		this.openIDrememberMeParameter = rememberMeParameter;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOpenIDauthenticationUrl(String openIDauthenticationUrl) {
 		this.openIDauthenticationUrl = openIDauthenticationUrl;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOpenIDusernameParameter(String openIDusernameParameter) {
 		this.openIDusernameParameter = openIDusernameParameter;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOauth2AuthenticationUrlToClientName(Map<String, String> oauth2AuthenticationUrlToClientName) {
 		this.oauth2AuthenticationUrlToClientName = oauth2AuthenticationUrlToClientName;
+		this.loginPageTemplate = null;
 	}
 
 	public void setSaml2AuthenticationUrlToProviderName(Map<String, String> saml2AuthenticationUrlToProviderName) {
 		this.saml2AuthenticationUrlToProviderName = saml2AuthenticationUrlToProviderName;
+		this.loginPageTemplate = null;
 	}
 
 	@Override
@@ -228,16 +243,16 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 		boolean loginError = isErrorPage(request);
 		boolean logoutSuccess = isLogoutSuccess(request);
 		if (isLoginUrlRequest(request) || loginError || logoutSuccess) {
-			String loginPageHtml = generateLoginPageHtml(request, loginError, logoutSuccess);
+			byte[] loginPage = generateLoginPage(request, loginError, logoutSuccess);
 			response.setContentType("text/html;charset=UTF-8");
-			response.setContentLength(loginPageHtml.getBytes(StandardCharsets.UTF_8).length);
-			response.getWriter().write(loginPageHtml);
+			response.setContentLength(loginPage.length);
+			response.getOutputStream().write(loginPage);
 			return;
 		}
 		chain.doFilter(request, response);
 	}
 
-	private String generateLoginPageHtml(HttpServletRequest request, boolean loginError, boolean logoutSuccess) {
+	private byte[] generateLoginPage(HttpServletRequest request, boolean loginError, boolean logoutSuccess) {
 		String errorMsg = "Invalid credentials";
 		if (loginError) {
 			HttpSession session = request.getSession(false);
@@ -248,6 +263,25 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 			}
 		}
 		String contextPath = request.getContextPath();
+		LoginPageTemplate template = this.loginPageTemplate;
+		if (template == null || !template.contextPath.equals(contextPath)) {
+			template = new LoginPageTemplate(contextPath,
+					PageTemplate.compile(generateLoginPageHtml(contextPath), StandardCharsets.UTF_8));
+			this.loginPageTemplate = template;
+		}
+		return template.page.render(createError(loginError, errorMsg), createLogoutSuccess(logoutSuccess),
+				renderHiddenInputs(request));
+	}
+
+	/**
+	 * Renders the parts of the login page that are the same for every request, leaving
+	 * {@link PageTemplate#slot(int) slots} for the error and logout messages and the
+	 * hidden inputs.
+	 */
+	private String generateLoginPageHtml(String contextPath) {
+		String error = PageTemplate.slot(0);
+		String logoutSuccess = PageTemplate.slot(1);
+		String hiddenInputs = PageTemplate.slot(2);
 		StringBuilder sb = new StringBuilder();
 		sb.append("<!DOCTYPE html>\n");
 		sb.append("<html lang=\"en\">\n");
@@ -268,7 +302,7 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 			sb.append("      <form class=\"form-signin\" method=\"post\" action=\"" + contextPath
 					+ this.authenticationUrl + "\">\n");
 			sb.append("        <h2 class=\"form-signin-heading\">Please sign in</h2>\n");
-			sb.append(createError(loginError, errorMsg) + createLogoutSuccess(logoutSuccess) + "        <p>\n");
+			sb.append(error + logoutSuccess + "        <p>\n");
 			sb.append("          <label for=\"username\" class=\"sr-only\">Username</label>\n");
 			sb.append("          <input type=\"text\" id=\"username\" name=\"" + this.usernameParameter
 					+ "\" class=\"form-control\" placeholder=\"Username\" required autofocus>\n");
@@ -278,7 +312,7 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 			sb.append("          <input type=\"password\" id=\"password\" name=\"" + this.passwordParameter
 					+ "\" class=\"form-control\" placeholder=\"Password\" required>\n");
 			sb.append("        </p>\n");
-			sb.append(createRememberMe(this.rememberMeParameter) + renderHiddenInputs(request));
+			sb.append(createRememberMe(this.rememberMeParameter) + hiddenInputs);
 			sb.append("        <button class=\"btn btn-lg btn-primary btn-block\" type=\"submit\">Sign in</button>\n");
 			sb.append("      </form>\n");
 		}
@@ -286,19 +320,19 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 			sb.append("      <form name=\"oidf\" class=\"form-signin\" method=\"post\" action=\"" + contextPath
 					+ this.openIDauthenticationUrl + "\">\n");
 			sb.append("        <h2 class=\"form-signin-heading\">Login with OpenID Identity</h2>\n");
-			sb.append(createError(loginError, errorMsg) + createLogoutSuccess(logoutSuccess) + "        <p>\n");
+			sb.append(error + logoutSuccess + "        <p>\n");
 			sb.append("          <label for=\"username\" class=\"sr-only\">Identity</label>\n");
 			sb.append("          <input type=\"text\" id=\"username\" name=\"" + this.openIDusernameParameter
 					+ "\" class=\"form-control\" placeholder=\"Username\" required autofocus>\n");
 			sb.append("        </p>\n");
-			sb.append(createRememberMe(this.openIDrememberMeParameter) + renderHiddenInputs(request));
+			sb.append(createRememberMe(this.openIDrememberMeParameter) + hiddenInputs);
 			sb.append("        <button class=\"btn btn-lg btn-primary btn-block\" type=\"submit\">Sign in</button>\n");
 			sb.append("      </form>\n");
 		}
 		if (this.oauth2LoginEnabled) {
 			sb.append("<h2 class=\"form-signin-heading\">Login with OAuth 2.0</h2>");
-			sb.append(createError(loginError, errorMsg));
-			sb.append(createLogoutSuccess(logoutSuccess));
+			sb.append(error);
+			sb.append(logoutSuccess);
 			sb.append("<table class=\"table table-striped\">\n");
 			for (Map.Entry<String, String> clientAuthenticationUrlToClientName : this.oauth2AuthenticationUrlToClientName
 					.entrySet()) {
@@ -314,8 +348,8 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 		}
 		if (this.saml2LoginEnabled) {
 			sb.append("<h2 class=\"form-signin-heading\">Login with SAML 2.0</h2>");
-			sb.append(createError(loginError, errorMsg));
-			sb.append(createLogoutSuccess(logoutSuccess));
+			sb.append(error);
+			sb.append(logoutSuccess);
 			sb.append("<table class=\"table table-striped\">\n");
 			for (Map.Entry<String, String> relyingPartyUrlToName : this.saml2AuthenticationUrlToProviderName
 					.entrySet()) {
@@ -398,4 +432,17 @@ public class DefaultLoginPageGeneratingFilter extends GenericFilterBean {
 		return uri.equals(request.getContextPath() + url);
 	}
 
+	private static final class LoginPageTemplate {
+
+		private final String contextPath;
+
+		private final PageTemplate page;
+
+		private LoginPageTemplate(String contextPath, PageTemplate page) {
+			this.contextPath = contextPath;
+			this.page = page;
+		}
+
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.security.web.authentication.ui;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
@@ -27,6 +28,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.core.log.LogMessage;
+import org.springframework.security.web.util.PageTemplate;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
@@ -44,6 +46,8 @@ public class DefaultLogoutPageGeneratingFilter extends OncePerRequestFilter {
 
 	private Function<HttpServletRequest, Map<String, String>> resolveHiddenInputs = (request) -> Collections.emptyMap();
 
+	private volatile LogoutPageTemplate logoutPageTemplate;
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
@@ -60,6 +64,24 @@ public class DefaultLogoutPageGeneratingFilter extends OncePerRequestFilter {
 	}
 
 	private void renderLogout(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String contextPath = request.getContextPath();
+		LogoutPageTemplate template = this.logoutPageTemplate;
+		if (template == null || !template.contextPath.equals(contextPath)) {
+			template = new LogoutPageTemplate(contextPath,
+					PageTemplate.compile(generateLogoutPageHtml(contextPath), StandardCharsets.UTF_8));
+			this.logoutPageTemplate = template;
+		}
+		byte[] logoutPage = template.page.render(renderHiddenInputs(request));
+		response.setContentType("text/html;charset=UTF-8");
+		response.setContentLength(logoutPage.length);
+		response.getOutputStream().write(logoutPage);
+	}
+
+	/**
+	 * Renders the parts of the logout page that are the same for every request, leaving a
+	 * {@link PageTemplate#slot(int) slot} for the hidden inputs.
+	 */
+	private String generateLogoutPageHtml(String contextPath) {
 		StringBuilder sb = new StringBuilder();
 		sb.append("<!DOCTYPE html>\n");
 		sb.append("<html lang=\"en\">\n");
@@ -77,17 +99,15 @@ public class DefaultLogoutPageGeneratingFilter extends OncePerRequestFilter {
 		sb.append("  </head>\n");
 		sb.append("  <body>\n");
 		sb.append("     <div class=\"container\">\n");
-		sb.append("      <form class=\"form-signin\" method=\"post\" action=\"" + request.getContextPath()
-				+ "/logout\">\n");
+		sb.append("      <form class=\"form-signin\" method=\"post\" action=\"" + contextPath + "/logout\">\n");
 		sb.append("        <h2 class=\"form-signin-heading\">Are you sure you want to log out?</h2>\n");
-		sb.append(renderHiddenInputs(request)
+		sb.append(PageTemplate.slot(0)
 				+ "        <button class=\"btn btn-lg btn-primary btn-block\" type=\"submit\">Log Out</button>\n");
 		sb.append("      </form>\n");
 		sb.append("    </div>\n");
 		sb.append("  </body>\n");
 		sb.append("</html>");
-		response.setContentType("text/html;charset=UTF-8");
-		response.getWriter().write(sb.toString());
+		return sb.toString();
 	}
 
 	/**
@@ -113,4 +133,17 @@ public class DefaultLogoutPageGeneratingFilter extends OncePerRequestFilter {
 		return sb.toString();
 	}
 
+	private static final class LogoutPageTemplate {
+
+		private final String contextPath;
+
+		private final PageTemplate page;
+
+		private LogoutPageTemplate(String contextPath, PageTemplate page) {
+			this.contextPath = contextPath;
+			this.page = page;
+		}
+
+	}
+
 }
@@ -16,6 +16,8 @@
 
 package org.springframework.security.web.firewall;
 
+import org.springframework.security.core.SecurityExceptionStackTraces;
+
 /**
  * @author Luke Taylor
  */
@@ -25,4 +27,15 @@ public class RequestRejectedException extends RuntimeException {
 		super(message);
 	}
 
+	/**
+	 * Records the stack trace unless disabled through
+	 * {@link SecurityExceptionStackTraces#setEnabled(boolean)}
+	 * @return this exception
+	 * @since 5.5
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return SecurityExceptionStackTraces.isEnabled() ? super.fillInStackTrace() : this;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,4 +63,13 @@ public class RequestCacheAwareFilter extends GenericFilterBean {
 		chain.doFilter((wrappedSavedRequest != null) ? wrappedSavedRequest : request, response);
 	}
 
+	/**
+	 * Returns the {@link RequestCache} used to find a matching saved request
+	 * @return the {@link RequestCache}
+	 * @since 5.5
+	 */
+	public RequestCache getRequestCache() {
+		return this.requestCache;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.SynchronousServerWebExchangeMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -56,4 +57,21 @@ public class MatcherSecurityWebFilterChain implements SecurityWebFilterChain {
 		return Flux.fromIterable(this.filters);
 	}
 
+	/**
+	 * Whether this chain can be selected without using Reactor, i.e. it has not been
+	 * customized and its matcher is synchronous.
+	 */
+	boolean isSynchronous() {
+		return getClass() == MatcherSecurityWebFilterChain.class
+				&& SynchronousServerWebExchangeMatcher.isSynchronous(this.matcher);
+	}
+
+	boolean matchesSynchronously(ServerWebExchange exchange) {
+		return ((SynchronousServerWebExchangeMatcher) this.matcher).matchSynchronously(exchange).isMatch();
+	}
+
+	List<WebFilter> getFilters() {
+		return this.filters;
+	}
+
 }
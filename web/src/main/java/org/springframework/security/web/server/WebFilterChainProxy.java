@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.server;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -31,6 +32,12 @@ import org.springframework.web.server.handler.FilteringWebHandler;
 /**
  * Used to delegate to a List of {@link SecurityWebFilterChain} instances.
  *
+ * <p>
+ * If every {@link SecurityWebFilterChain} is a {@link MatcherSecurityWebFilterChain}
+ * whose matcher is a
+ * {@link org.springframework.security.web.server.util.matcher.SynchronousServerWebExchangeMatcher
+ * synchronous} matcher, the chain is selected without using Reactor.
+ *
  * @author Rob Winch
  * @since 5.0
  */
@@ -38,16 +45,27 @@ public class WebFilterChainProxy implements WebFilter {
 
 	private final List<SecurityWebFilterChain> filters;
 
+	private final List<MatcherSecurityWebFilterChain> synchronousFilters;
+
 	public WebFilterChainProxy(List<SecurityWebFilterChain> filters) {
 		this.filters = filters;
+		this.synchronousFilters = synchronousFilters(filters);
 	}
 
 	public WebFilterChainProxy(SecurityWebFilterChain... filters) {
-		this.filters = Arrays.asList(filters);
+		this(Arrays.asList(filters));
 	}
 
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (this.synchronousFilters != null) {
+			for (MatcherSecurityWebFilterChain securityWebFilterChain : this.synchronousFilters) {
+				if (securityWebFilterChain.matchesSynchronously(exchange)) {
+					return new FilteringWebHandler(chain::filter, securityWebFilterChain.getFilters()).handle(exchange);
+				}
+			}
+			return chain.filter(exchange);
+		}
 		return Flux.fromIterable(this.filters)
 				.filterWhen((securityWebFilterChain) -> securityWebFilterChain.matches(exchange)).next()
 				.switchIfEmpty(chain.filter(exchange).then(Mono.empty()))
@@ -56,4 +74,16 @@ public class WebFilterChainProxy implements WebFilter {
 				.flatMap((securedChain) -> securedChain.filter(exchange));
 	}
 
+	private static List<MatcherSecurityWebFilterChain> synchronousFilters(List<SecurityWebFilterChain> filters) {
+		List<MatcherSecurityWebFilterChain> synchronousFilters = new ArrayList<>(filters.size());
+		for (SecurityWebFilterChain filter : filters) {
+			if (!(filter instanceof MatcherSecurityWebFilterChain)
+					|| !((MatcherSecurityWebFilterChain) filter).isSynchronous()) {
+				return null;
+			}
+			synchronousFilters.add((MatcherSecurityWebFilterChain) filter);
+		}
+		return synchronousFilters;
+	}
+
 }
@@ -18,6 +18,7 @@ package org.springframework.security.web.server.authorization;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,11 +29,20 @@ import org.springframework.core.log.LogMessage;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcherEntry;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcherIndex;
+import org.springframework.security.web.server.util.matcher.SynchronousServerWebExchangeMatcher;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
+ * A {@link ReactiveAuthorizationManager} that delegates to the
+ * {@link ReactiveAuthorizationManager} of the first matching entry. Entries based on
+ * {@link org.springframework.web.util.pattern.PathPattern}s are looked up in a
+ * {@link ServerWebExchangeMatcherIndex}, so only the entries that may match the request
+ * are evaluated, in the order they were added.
+ *
  * @author Rob Winch
  * @author Mathieu Ouellet
  * @since 5.0
@@ -41,22 +51,60 @@ public final class DelegatingReactiveAuthorizationManager implements ReactiveAut
 
 	private static final Log logger = LogFactory.getLog(DelegatingReactiveAuthorizationManager.class);
 
-	private final List<ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>>> mappings;
+	private final ServerWebExchangeMatcherIndex<ReactiveAuthorizationManager<AuthorizationContext>> mappings;
 
 	private DelegatingReactiveAuthorizationManager(
 			List<ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>>> mappings) {
-		this.mappings = mappings;
+		this.mappings = new ServerWebExchangeMatcherIndex<>(mappings);
 	}
 
 	@Override
 	public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, ServerWebExchange exchange) {
-		return Flux.fromIterable(this.mappings).concatMap((mapping) -> mapping.getMatcher().matches(exchange)
-				.filter(MatchResult::isMatch).map(MatchResult::getVariables).flatMap((variables) -> {
-					logger.debug(LogMessage.of(() -> "Checking authorization on '"
-							+ exchange.getRequest().getPath().pathWithinApplication() + "' using "
-							+ mapping.getEntry()));
-					return mapping.getEntry().check(authentication, new AuthorizationContext(exchange, variables));
-				})).next().defaultIfEmpty(new AuthorizationDecision(false));
+		return Mono.defer(() -> check(authentication, exchange, this.mappings.getCandidates(exchange), 0))
+				.defaultIfEmpty(new AuthorizationDecision(false));
+	}
+
+	/**
+	 * Evaluates the candidates from the given offset in order. Synchronous matchers are
+	 * evaluated in place; the first one that is not synchronous hands the remaining
+	 * candidates over to the reactive pipeline. If the manager of a matching entry yields
+	 * no decision, evaluation continues with the next candidate.
+	 */
+	private Mono<AuthorizationDecision> check(Mono<Authentication> authentication, ServerWebExchange exchange,
+			List<ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>>> candidates,
+			int offset) {
+		for (int i = offset; i < candidates.size(); i++) {
+			ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>> mapping = candidates
+					.get(i);
+			ServerWebExchangeMatcher matcher = mapping.getMatcher();
+			if (!SynchronousServerWebExchangeMatcher.isSynchronous(matcher)) {
+				return check(authentication, exchange, candidates.subList(i, candidates.size()));
+			}
+			MatchResult matchResult = ((SynchronousServerWebExchangeMatcher) matcher).matchSynchronously(exchange);
+			if (matchResult.isMatch()) {
+				int next = i + 1;
+				return check(authentication, exchange, mapping, matchResult.getVariables())
+						.switchIfEmpty(Mono.defer(() -> check(authentication, exchange, candidates, next)));
+			}
+		}
+		return Mono.empty();
+	}
+
+	private Mono<AuthorizationDecision> check(Mono<Authentication> authentication, ServerWebExchange exchange,
+			List<ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>>> candidates) {
+		return Flux.fromIterable(candidates)
+				.concatMap((mapping) -> mapping.getMatcher().matches(exchange).filter(MatchResult::isMatch)
+						.map(MatchResult::getVariables)
+						.flatMap((variables) -> check(authentication, exchange, mapping, variables)))
+				.next();
+	}
+
+	private Mono<AuthorizationDecision> check(Mono<Authentication> authentication, ServerWebExchange exchange,
+			ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>> mapping,
+			Map<String, Object> variables) {
+		logger.debug(LogMessage.of(() -> "Checking authorization on '"
+				+ exchange.getRequest().getPath().pathWithinApplication() + "' using " + mapping.getEntry()));
+		return mapping.getEntry().check(authentication, new AuthorizationContext(exchange, variables));
 	}
 
 	public static DelegatingReactiveAuthorizationManager.Builder builder() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.security.web.server.context;
 
+import java.time.Duration;
+
 import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
@@ -28,20 +30,41 @@ import org.springframework.web.server.WebFilterChain;
 
 /**
  * Uses a {@link ServerSecurityContextRepository} to provide the {@link SecurityContext}
- * to initialize the {@link ReactiveSecurityContextHolder}.
+ * to initialize the {@link ReactiveSecurityContextHolder}. The {@link SecurityContext} is
+ * loaded lazily, each time it is accessed, unless
+ * {@link #setCacheSecurityContext(boolean) caching} is enabled.
  *
  * @author Rob Winch
  * @since 5.0
  */
 public class ReactorContextWebFilter implements WebFilter {
 
+	private static final Duration CACHE_FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
 	private final ServerSecurityContextRepository repository;
 
+	private boolean cacheSecurityContext;
+
 	public ReactorContextWebFilter(ServerSecurityContextRepository repository) {
 		Assert.notNull(repository, "repository cannot be null");
 		this.repository = repository;
 	}
 
+	/**
+	 * Sets whether the {@link SecurityContext} is loaded at most once per exchange, no
+	 * matter how many times it is accessed. A failed load is not remembered. Since the
+	 * loaded {@link SecurityContext} is kept for the rest of the exchange, a
+	 * {@link SecurityContext} saved to the repository later in the same exchange, for
+	 * example on logout, is not visible through the
+	 * {@link ReactiveSecurityContextHolder}. The default is {@code false}.
+	 * @param cacheSecurityContext whether to load the {@link SecurityContext} at most
+	 * once per exchange
+	 * @since 5.5
+	 */
+	public void setCacheSecurityContext(boolean cacheSecurityContext) {
+		this.cacheSecurityContext = cacheSecurityContext;
+	}
+
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
 		return chain.filter(exchange).subscriberContext(
@@ -49,8 +72,12 @@ public class ReactorContextWebFilter implements WebFilter {
 	}
 
 	private Context withSecurityContext(Context mainContext, ServerWebExchange exchange) {
-		return mainContext
-				.putAll(this.repository.load(exchange).as(ReactiveSecurityContextHolder::withSecurityContext));
+		Mono<SecurityContext> securityContext = this.repository.load(exchange);
+		if (this.cacheSecurityContext) {
+			securityContext = securityContext.cache((context) -> CACHE_FOREVER, (ex) -> Duration.ZERO,
+					() -> CACHE_FOREVER);
+		}
+		return mainContext.putAll(securityContext.as(ReactiveSecurityContextHolder::withSecurityContext));
 	}
 
 }
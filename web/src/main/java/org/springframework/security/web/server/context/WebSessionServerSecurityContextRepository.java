@@ -16,11 +16,14 @@
 
 package org.springframework.security.web.server.context;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.util.Assert;
 import org.springframework.web.server.ServerWebExchange;
@@ -44,8 +47,21 @@ public class WebSessionServerSecurityContextRepository implements ServerSecurity
 	 */
 	public static final String DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME = "SPRING_SECURITY_CONTEXT";
 
+	private static final String LOADED_CONTEXT_ATTR_PREFIX = WebSessionServerSecurityContextRepository.class.getName()
+			+ ".LOADED_CONTEXT.";
+
 	private String springSecurityContextAttrName = DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME;
 
+	private String loadedContextAttrName = LOADED_CONTEXT_ATTR_PREFIX + DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME;
+
+	private boolean cacheSecurityContext;
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private final LongAdder skippedSaves = new LongAdder();
+
 	/**
 	 * Sets the session attribute name used to save and load the {@link SecurityContext}
 	 * @param springSecurityContextAttrName the session attribute name to use to save and
@@ -54,10 +70,63 @@ public class WebSessionServerSecurityContextRepository implements ServerSecurity
 	public void setSpringSecurityContextAttrName(String springSecurityContextAttrName) {
 		Assert.hasText(springSecurityContextAttrName, "springSecurityContextAttrName cannot be null or empty");
 		this.springSecurityContextAttrName = springSecurityContextAttrName;
+		this.loadedContextAttrName = LOADED_CONTEXT_ATTR_PREFIX + springSecurityContextAttrName;
+	}
+
+	/**
+	 * Sets whether the {@link SecurityContext} read from the {@link WebSession} is
+	 * remembered in the exchange attributes. When enabled, the session is read at most
+	 * once per exchange, and {@link #save(ServerWebExchange, SecurityContext)} does not
+	 * touch the session if the authentication is the same as the one that was loaded, or
+	 * if there was no {@link SecurityContext} to begin with and there still is none. The
+	 * default is {@code false}.
+	 * @param cacheSecurityContext whether to remember the loaded {@link SecurityContext}
+	 * @since 5.5
+	 */
+	public void setCacheSecurityContext(boolean cacheSecurityContext) {
+		this.cacheSecurityContext = cacheSecurityContext;
+	}
+
+	/**
+	 * Returns the number of loads that were answered from the exchange attributes
+	 * @return the number of cache hits
+	 * @since 5.5
+	 * @see #setCacheSecurityContext(boolean)
+	 */
+	public long getCacheHits() {
+		return this.cacheHits.sum();
+	}
+
+	/**
+	 * Returns the number of loads that had to read the {@link WebSession}
+	 * @return the number of cache misses
+	 * @since 5.5
+	 * @see #setCacheSecurityContext(boolean)
+	 */
+	public long getCacheMisses() {
+		return this.cacheMisses.sum();
+	}
+
+	/**
+	 * Returns the number of saves that were skipped because nothing changed
+	 * @return the number of skipped saves
+	 * @since 5.5
+	 * @see #setCacheSecurityContext(boolean)
+	 */
+	public long getSkippedSaves() {
+		return this.skippedSaves.sum();
 	}
 
 	@Override
 	public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+		if (this.cacheSecurityContext) {
+			LoadedContext loaded = exchange.getAttribute(this.loadedContextAttrName);
+			if (loaded != null && loaded.isUnchanged(context)) {
+				this.skippedSaves.increment();
+				logger.debug(LogMessage.format("Did not save unchanged SecurityContext '%s'", context));
+				return Mono.empty();
+			}
+		}
 		return exchange.getSession().doOnNext((session) -> {
 			if (context == null) {
 				session.getAttributes().remove(this.springSecurityContextAttrName);
@@ -67,18 +136,57 @@ public class WebSessionServerSecurityContextRepository implements ServerSecurity
 				session.getAttributes().put(this.springSecurityContextAttrName, context);
 				logger.debug(LogMessage.format("Saved SecurityContext '%s' in WebSession: '%s'", context, session));
 			}
+			if (this.cacheSecurityContext) {
+				exchange.getAttributes().put(this.loadedContextAttrName, new LoadedContext(context));
+			}
 		}).flatMap(WebSession::changeSessionId);
 	}
 
 	@Override
 	public Mono<SecurityContext> load(ServerWebExchange exchange) {
+		if (this.cacheSecurityContext) {
+			LoadedContext loaded = exchange.getAttribute(this.loadedContextAttrName);
+			if (loaded != null) {
+				this.cacheHits.increment();
+				return Mono.justOrEmpty(loaded.context);
+			}
+		}
 		return exchange.getSession().flatMap((session) -> {
 			SecurityContext context = (SecurityContext) session.getAttribute(this.springSecurityContextAttrName);
 			logger.debug((context != null)
 					? LogMessage.format("Found SecurityContext '%s' in WebSession: '%s'", context, session)
 					: LogMessage.format("No SecurityContext found in WebSession: '%s'", session));
+			if (this.cacheSecurityContext) {
+				this.cacheMisses.increment();
+				exchange.getAttributes().put(this.loadedContextAttrName, new LoadedContext(context));
+			}
 			return Mono.justOrEmpty(context);
 		});
 	}
 
+	/**
+	 * A {@link SecurityContext} as it was loaded or saved, along with its authentication
+	 * at that time.
+	 */
+	private static final class LoadedContext {
+
+		private final SecurityContext context;
+
+		private final Authentication authentication;
+
+		private LoadedContext(SecurityContext context) {
+			this.context = context;
+			this.authentication = (context != null) ? context.getAuthentication() : null;
+		}
+
+		private boolean isUnchanged(SecurityContext context) {
+			if (this.context == null || context == null) {
+				return this.context == context;
+			}
+			return context.getAuthentication() == this.authentication
+					&& this.context.getAuthentication() == this.authentication;
+		}
+
+	}
+
 }
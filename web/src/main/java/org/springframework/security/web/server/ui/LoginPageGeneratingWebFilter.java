@@ -31,6 +31,7 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.web.server.csrf.CsrfToken;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.security.web.util.PageTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.ServerWebExchange;
@@ -52,13 +53,17 @@ public class LoginPageGeneratingWebFilter implements WebFilter {
 
 	private boolean formLoginEnabled;
 
+	private volatile LoginPageTemplate loginPageTemplate;
+
 	public void setFormLoginEnabled(boolean enabled) {
 		this.formLoginEnabled = enabled;
+		this.loginPageTemplate = null;
 	}
 
 	public void setOauth2AuthenticationUrlToClientName(Map<String, String> oauth2AuthenticationUrlToClientName) {
 		Assert.notNull(oauth2AuthenticationUrlToClientName, "oauth2AuthenticationUrlToClientName cannot be null");
 		this.oauth2AuthenticationUrlToClientName = oauth2AuthenticationUrlToClientName;
+		this.loginPageTemplate = null;
 	}
 
 	@Override
@@ -86,6 +91,22 @@ public class LoginPageGeneratingWebFilter implements WebFilter {
 	private byte[] createPage(ServerWebExchange exchange, String csrfTokenHtmlInput) {
 		MultiValueMap<String, String> queryParams = exchange.getRequest().getQueryParams();
 		String contextPath = exchange.getRequest().getPath().contextPath().value();
+		LoginPageTemplate template = this.loginPageTemplate;
+		if (template == null || !template.contextPath.equals(contextPath)) {
+			template = new LoginPageTemplate(contextPath,
+					PageTemplate.compile(createPageHtml(contextPath), Charset.defaultCharset()));
+			this.loginPageTemplate = template;
+		}
+		return template.page.render(createError(queryParams.containsKey("error")),
+				createLogoutSuccess(queryParams.containsKey("logout")), csrfTokenHtmlInput);
+	}
+
+	/**
+	 * Renders the parts of the login page that are the same for every request, leaving
+	 * {@link PageTemplate#slot(int) slots} for the error and logout messages and the CSRF
+	 * token.
+	 */
+	private String createPageHtml(String contextPath) {
 		StringBuilder page = new StringBuilder();
 		page.append("<!DOCTYPE html>\n");
 		page.append("<html lang=\"en\">\n");
@@ -103,25 +124,23 @@ public class LoginPageGeneratingWebFilter implements WebFilter {
 		page.append("  </head>\n");
 		page.append("  <body>\n");
 		page.append("     <div class=\"container\">\n");
-		page.append(formLogin(queryParams, contextPath, csrfTokenHtmlInput));
-		page.append(oauth2LoginLinks(queryParams, contextPath, this.oauth2AuthenticationUrlToClientName));
+		page.append(formLogin(contextPath));
+		page.append(oauth2LoginLinks(contextPath, this.oauth2AuthenticationUrlToClientName));
 		page.append("    </div>\n");
 		page.append("  </body>\n");
 		page.append("</html>");
-		return page.toString().getBytes(Charset.defaultCharset());
+		return page.toString();
 	}
 
-	private String formLogin(MultiValueMap<String, String> queryParams, String contextPath, String csrfTokenHtmlInput) {
+	private String formLogin(String contextPath) {
 		if (!this.formLoginEnabled) {
 			return "";
 		}
-		boolean isError = queryParams.containsKey("error");
-		boolean isLogoutSuccess = queryParams.containsKey("logout");
 		StringBuilder page = new StringBuilder();
 		page.append("      <form class=\"form-signin\" method=\"post\" action=\"" + contextPath + "/login\">\n");
 		page.append("        <h2 class=\"form-signin-heading\">Please sign in</h2>\n");
-		page.append(createError(isError));
-		page.append(createLogoutSuccess(isLogoutSuccess));
+		page.append(PageTemplate.slot(0));
+		page.append(PageTemplate.slot(1));
 		page.append("        <p>\n");
 		page.append("          <label for=\"username\" class=\"sr-only\">Username</label>\n");
 		page.append("          <input type=\"text\" id=\"username\" name=\"username\" "
@@ -131,21 +150,20 @@ public class LoginPageGeneratingWebFilter implements WebFilter {
 		page.append("          <input type=\"password\" id=\"password\" name=\"password\" "
 				+ "class=\"form-control\" placeholder=\"Password\" required>\n");
 		page.append("        </p>\n");
-		page.append(csrfTokenHtmlInput);
+		page.append(PageTemplate.slot(2));
 		page.append("        <button class=\"btn btn-lg btn-primary btn-block\" type=\"submit\">Sign in</button>\n");
 		page.append("      </form>\n");
 		return page.toString();
 	}
 
-	private static String oauth2LoginLinks(MultiValueMap<String, String> queryParams, String contextPath,
+	private static String oauth2LoginLinks(String contextPath,
 			Map<String, String> oauth2AuthenticationUrlToClientName) {
 		if (oauth2AuthenticationUrlToClientName.isEmpty()) {
 			return "";
 		}
-		boolean isError = queryParams.containsKey("error");
 		StringBuilder sb = new StringBuilder();
 		sb.append("<div class=\"container\"><h2 class=\"form-signin-heading\">Login with OAuth 2.0</h2>");
-		sb.append(createError(isError));
+		sb.append(PageTemplate.slot(0));
 		sb.append("<table class=\"table table-striped\">\n");
 		for (Map.Entry<String, String> clientAuthenticationUrlToClientName : oauth2AuthenticationUrlToClientName
 				.entrySet()) {
@@ -175,4 +193,17 @@ public class LoginPageGeneratingWebFilter implements WebFilter {
 				: "";
 	}
 
+	private static final class LoginPageTemplate {
+
+		private final String contextPath;
+
+		private final PageTemplate page;
+
+		private LoginPageTemplate(String contextPath, PageTemplate page) {
+			this.contextPath = contextPath;
+			this.page = page;
+		}
+
+	}
+
 }
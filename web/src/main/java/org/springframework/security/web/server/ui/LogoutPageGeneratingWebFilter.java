@@ -29,6 +29,7 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.web.server.csrf.CsrfToken;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.security.web.util.PageTemplate;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -41,6 +42,8 @@ import org.springframework.web.server.WebFilterChain;
  */
 public class LogoutPageGeneratingWebFilter implements WebFilter {
 
+	private static final PageTemplate LOGOUT_PAGE = PageTemplate.compile(createPageHtml(), Charset.defaultCharset());
+
 	private ServerWebExchangeMatcher matcher = ServerWebExchangeMatchers.pathMatchers(HttpMethod.GET, "/logout");
 
 	@Override
@@ -59,13 +62,13 @@ public class LogoutPageGeneratingWebFilter implements WebFilter {
 	private Mono<DataBuffer> createBuffer(ServerWebExchange exchange) {
 		Mono<CsrfToken> token = exchange.getAttributeOrDefault(CsrfToken.class.getName(), Mono.empty());
 		return token.map(LogoutPageGeneratingWebFilter::csrfToken).defaultIfEmpty("").map((csrfTokenHtmlInput) -> {
-			byte[] bytes = createPage(csrfTokenHtmlInput);
+			byte[] bytes = LOGOUT_PAGE.render(csrfTokenHtmlInput);
 			DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
 			return bufferFactory.wrap(bytes);
 		});
 	}
 
-	private static byte[] createPage(String csrfTokenHtmlInput) {
+	private static String createPageHtml() {
 		StringBuilder page = new StringBuilder();
 		page.append("<!DOCTYPE html>\n");
 		page.append("<html lang=\"en\">\n");
@@ -84,13 +87,13 @@ public class LogoutPageGeneratingWebFilter implements WebFilter {
 		page.append("     <div class=\"container\">\n");
 		page.append("      <form class=\"form-signin\" method=\"post\" action=\"/logout\">\n");
 		page.append("        <h2 class=\"form-signin-heading\">Are you sure you want to log out?</h2>\n");
-		page.append(csrfTokenHtmlInput);
+		page.append(PageTemplate.slot(0));
 		page.append("        <button class=\"btn btn-lg btn-primary btn-block\" type=\"submit\">Log Out</button>\n");
 		page.append("      </form>\n");
 		page.append("    </div>\n");
 		page.append("  </body>\n");
 		page.append("</html>");
-		return page.toString().getBytes(Charset.defaultCharset());
+		return page.toString();
 	}
 
 	private static String csrfToken(CsrfToken token) {
@@ -31,22 +31,28 @@ import org.springframework.util.Assert;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
- * Matches if all the provided {@link ServerWebExchangeMatcher} match
+ * Matches if all the provided {@link ServerWebExchangeMatcher} match. Matching is
+ * synchronous if all of the provided matchers are
+ * {@link SynchronousServerWebExchangeMatcher synchronous}.
  *
  * @author Rob Winch
  * @author Mathieu Ouellet
  * @since 5.0
  * @see OrServerWebExchangeMatcher
  */
-public class AndServerWebExchangeMatcher implements ServerWebExchangeMatcher {
+public class AndServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
 
 	private static final Log logger = LogFactory.getLog(AndServerWebExchangeMatcher.class);
 
 	private final List<ServerWebExchangeMatcher> matchers;
 
+	private final boolean synchronous;
+
 	public AndServerWebExchangeMatcher(List<ServerWebExchangeMatcher> matchers) {
 		Assert.notEmpty(matchers, "matchers cannot be empty");
 		this.matchers = matchers;
+		// a subclass may have overridden matches
+		this.synchronous = getClass() == AndServerWebExchangeMatcher.class && allSynchronous(matchers);
 	}
 
 	public AndServerWebExchangeMatcher(ServerWebExchangeMatcher... matchers) {
@@ -55,6 +61,9 @@ public class AndServerWebExchangeMatcher implements ServerWebExchangeMatcher {
 
 	@Override
 	public Mono<MatchResult> matches(ServerWebExchange exchange) {
+		if (isSynchronous()) {
+			return MatchResult.toMono(matchSynchronously(exchange));
+		}
 		return Mono.defer(() -> {
 			Map<String, Object> variables = new HashMap<>();
 			return Flux.fromIterable(this.matchers)
@@ -67,6 +76,36 @@ public class AndServerWebExchangeMatcher implements ServerWebExchangeMatcher {
 		});
 	}
 
+	@Override
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
+		Map<String, Object> variables = new HashMap<>();
+		for (ServerWebExchangeMatcher matcher : this.matchers) {
+			logger.debug(LogMessage.format("Trying to match using %s", matcher));
+			MatchResult matchResult = ((SynchronousServerWebExchangeMatcher) matcher).matchSynchronously(exchange);
+			if (!matchResult.isMatch()) {
+				logger.debug("Did not match");
+				return MatchResult.notMatched();
+			}
+			variables.putAll(matchResult.getVariables());
+		}
+		logger.debug("All requestMatchers returned true");
+		return MatchResult.matched(variables);
+	}
+
+	@Override
+	public boolean isSynchronous() {
+		return this.synchronous;
+	}
+
+	private static boolean allSynchronous(List<ServerWebExchangeMatcher> matchers) {
+		for (ServerWebExchangeMatcher matcher : matchers) {
+			if (!SynchronousServerWebExchangeMatcher.isSynchronous(matcher)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return "AndServerWebExchangeMatcher{" + "matchers=" + this.matchers + '}';
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import java.net.InetSocketAddress;
+import java.util.function.Supplier;
+
+import org.springframework.security.web.util.CidrSet;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Matches an exchange if its remote address is in a {@link CidrSet}.
+ *
+ * <p>
+ * When created with a {@link Supplier}, the set can be replaced atomically by calling
+ * {@link #reload()}.
+ *
+ * @since 5.5
+ * @see CidrSet
+ */
+public final class CidrSetServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
+
+	private final Supplier<CidrSet> cidrSetSupplier;
+
+	private volatile CidrSet cidrSet;
+
+	/**
+	 * Creates a new instance
+	 * @param cidrSet the addresses to match
+	 */
+	public CidrSetServerWebExchangeMatcher(CidrSet cidrSet) {
+		this(() -> cidrSet);
+	}
+
+	/**
+	 * Creates a new instance that obtains the addresses to match from the given
+	 * {@link Supplier} immediately and on every {@link #reload()}
+	 * @param cidrSetSupplier the {@link Supplier} of the addresses to match
+	 */
+	public CidrSetServerWebExchangeMatcher(Supplier<CidrSet> cidrSetSupplier) {
+		Assert.notNull(cidrSetSupplier, "cidrSetSupplier cannot be null");
+		this.cidrSetSupplier = cidrSetSupplier;
+		reload();
+	}
+
+	@Override
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		if (remoteAddress != null && this.cidrSet.contains(remoteAddress.getAddress())) {
+			return MatchResult.matched();
+		}
+		return MatchResult.notMatched();
+	}
+
+	/**
+	 * Replaces the addresses to match with the ones obtained from the {@link Supplier}.
+	 * Exchanges being matched concurrently see either the previous or the new addresses.
+	 */
+	public void reload() {
+		CidrSet cidrSet = this.cidrSetSupplier.get();
+		Assert.notNull(cidrSet, "cidrSetSupplier cannot supply null");
+		this.cidrSet = cidrSet;
+	}
+
+	/**
+	 * Returns the addresses currently matched
+	 * @return the {@link CidrSet}
+	 */
+	public CidrSet getCidrSet() {
+		return this.cidrSet;
+	}
+
+	@Override
+	public String toString() {
+		return "CidrSetServerWebExchangeMatcher[" + this.cidrSet + "]";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,6 @@ import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import reactor.core.publisher.Mono;
 
 import org.springframework.core.log.LogMessage;
 import org.springframework.http.InvalidMediaTypeException;
@@ -40,7 +39,7 @@ import org.springframework.web.server.ServerWebExchange;
  * @author Rob Winch
  * @since 5.0
  */
-public class MediaTypeServerWebExchangeMatcher implements ServerWebExchangeMatcher {
+public class MediaTypeServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
 
 	private final Log logger = LogFactory.getLog(getClass());
 
@@ -72,14 +71,14 @@ public class MediaTypeServerWebExchangeMatcher implements ServerWebExchangeMatch
 	}
 
 	@Override
-	public Mono<MatchResult> matches(ServerWebExchange exchange) {
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
 		List<MediaType> httpRequestMediaTypes;
 		try {
 			httpRequestMediaTypes = resolveMediaTypes(exchange);
 		}
 		catch (NotAcceptableStatusException ex) {
 			this.logger.debug("Failed to parse MediaTypes, returning false", ex);
-			return MatchResult.notMatch();
+			return MatchResult.notMatched();
 		}
 		this.logger.debug(LogMessage.format("httpRequestMediaTypes=%s", httpRequestMediaTypes));
 		for (MediaType httpRequestMediaType : httpRequestMediaTypes) {
@@ -91,19 +90,25 @@ public class MediaTypeServerWebExchangeMatcher implements ServerWebExchangeMatch
 			if (this.useEquals) {
 				boolean isEqualTo = this.matchingMediaTypes.contains(httpRequestMediaType);
 				this.logger.debug("isEqualTo " + isEqualTo);
-				return isEqualTo ? MatchResult.match() : MatchResult.notMatch();
+				return isEqualTo ? MatchResult.matched() : MatchResult.notMatched();
 			}
 			for (MediaType matchingMediaType : this.matchingMediaTypes) {
 				boolean isCompatibleWith = matchingMediaType.isCompatibleWith(httpRequestMediaType);
 				this.logger.debug(LogMessage.format("%s .isCompatibleWith %s = %s", matchingMediaType,
 						httpRequestMediaType, isCompatibleWith));
 				if (isCompatibleWith) {
-					return MatchResult.match();
+					return MatchResult.matched();
 				}
 			}
 		}
 		this.logger.debug("Did not match any media types");
-		return MatchResult.notMatch();
+		return MatchResult.notMatched();
+	}
+
+	@Override
+	public boolean isSynchronous() {
+		// a subclass may have overridden matches
+		return getClass() == MediaTypeServerWebExchangeMatcher.class;
 	}
 
 	private boolean shouldIgnore(MediaType httpRequestMediaType) {
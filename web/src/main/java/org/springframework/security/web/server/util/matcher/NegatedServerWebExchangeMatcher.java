@@ -32,19 +32,27 @@ import org.springframework.web.server.ServerWebExchange;
  * @author Mathieu Ouellet
  * @since 5.1
  */
-public class NegatedServerWebExchangeMatcher implements ServerWebExchangeMatcher {
+public class NegatedServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
 
 	private static final Log logger = LogFactory.getLog(NegatedServerWebExchangeMatcher.class);
 
 	private final ServerWebExchangeMatcher matcher;
 
+	private final boolean synchronous;
+
 	public NegatedServerWebExchangeMatcher(ServerWebExchangeMatcher matcher) {
 		Assert.notNull(matcher, "matcher cannot be null");
 		this.matcher = matcher;
+		// a subclass may have overridden matches
+		this.synchronous = getClass() == NegatedServerWebExchangeMatcher.class
+				&& SynchronousServerWebExchangeMatcher.isSynchronous(matcher);
 	}
 
 	@Override
 	public Mono<MatchResult> matches(ServerWebExchange exchange) {
+		if (isSynchronous()) {
+			return MatchResult.toMono(matchSynchronously(exchange));
+		}
 		return this.matcher.matches(exchange).flatMap(this::negate)
 				.doOnNext((matchResult) -> logger.debug(LogMessage.format("matches = %s", matchResult.isMatch())));
 	}
@@ -53,6 +61,19 @@ public class NegatedServerWebExchangeMatcher implements ServerWebExchangeMatcher
 		return matchResult.isMatch() ? MatchResult.notMatch() : MatchResult.match();
 	}
 
+	@Override
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
+		MatchResult matchResult = ((SynchronousServerWebExchangeMatcher) this.matcher).matchSynchronously(exchange);
+		MatchResult negated = matchResult.isMatch() ? MatchResult.notMatched() : MatchResult.matched();
+		logger.debug(LogMessage.format("matches = %s", negated.isMatch()));
+		return negated;
+	}
+
+	@Override
+	public boolean isSynchronous() {
+		return this.synchronous;
+	}
+
 	@Override
 	public String toString() {
 		return "NegatedServerWebExchangeMatcher{" + "matcher=" + this.matcher + '}';
@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.server.util.matcher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,22 +30,33 @@ import org.springframework.util.Assert;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
- * Matches if any of the provided {@link ServerWebExchangeMatcher} match
+ * Matches if any of the provided {@link ServerWebExchangeMatcher} match. Matching is
+ * synchronous if all of the provided matchers are
+ * {@link SynchronousServerWebExchangeMatcher synchronous}. If all of them are
+ * {@link PathPatternParserServerWebExchangeMatcher}s, the patterns are evaluated together
+ * against a single lookup of the request path.
  *
  * @author Rob Winch
  * @author Mathieu Ouellet
  * @since 5.0
  * @see AndServerWebExchangeMatcher
  */
-public class OrServerWebExchangeMatcher implements ServerWebExchangeMatcher {
+public class OrServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
 
 	private static final Log logger = LogFactory.getLog(OrServerWebExchangeMatcher.class);
 
 	private final List<ServerWebExchangeMatcher> matchers;
 
+	private final boolean synchronous;
+
+	private final PathPatternsServerWebExchangeMatcher pathMatcher;
+
 	public OrServerWebExchangeMatcher(List<ServerWebExchangeMatcher> matchers) {
 		Assert.notEmpty(matchers, "matchers cannot be empty");
 		this.matchers = matchers;
+		// a subclass may have overridden matches
+		this.synchronous = getClass() == OrServerWebExchangeMatcher.class && allSynchronous(matchers);
+		this.pathMatcher = createPathMatcher(matchers);
 	}
 
 	public OrServerWebExchangeMatcher(ServerWebExchangeMatcher... matchers) {
@@ -53,6 +65,9 @@ public class OrServerWebExchangeMatcher implements ServerWebExchangeMatcher {
 
 	@Override
 	public Mono<MatchResult> matches(ServerWebExchange exchange) {
+		if (isSynchronous()) {
+			return MatchResult.toMono(matchSynchronously(exchange));
+		}
 		return Flux.fromIterable(this.matchers)
 				.doOnNext((matcher) -> logger.debug(LogMessage.format("Trying to match using %s", matcher)))
 				.flatMap((matcher) -> matcher.matches(exchange)).filter(MatchResult::isMatch).next()
@@ -60,6 +75,52 @@ public class OrServerWebExchangeMatcher implements ServerWebExchangeMatcher {
 				.doOnNext((matchResult) -> logger.debug(matchResult.isMatch() ? "matched" : "No matches found"));
 	}
 
+	@Override
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
+		if (this.pathMatcher != null) {
+			return this.pathMatcher.matchSynchronously(exchange);
+		}
+		for (ServerWebExchangeMatcher matcher : this.matchers) {
+			logger.debug(LogMessage.format("Trying to match using %s", matcher));
+			MatchResult matchResult = ((SynchronousServerWebExchangeMatcher) matcher).matchSynchronously(exchange);
+			if (matchResult.isMatch()) {
+				logger.debug("matched");
+				return matchResult;
+			}
+		}
+		logger.debug("No matches found");
+		return MatchResult.notMatched();
+	}
+
+	@Override
+	public boolean isSynchronous() {
+		return this.synchronous;
+	}
+
+	private static boolean allSynchronous(List<ServerWebExchangeMatcher> matchers) {
+		for (ServerWebExchangeMatcher matcher : matchers) {
+			if (!SynchronousServerWebExchangeMatcher.isSynchronous(matcher)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static PathPatternsServerWebExchangeMatcher createPathMatcher(List<ServerWebExchangeMatcher> matchers) {
+		List<PathPatternParserServerWebExchangeMatcher> pathMatchers = new ArrayList<>(matchers.size());
+		for (ServerWebExchangeMatcher matcher : matchers) {
+			if (!(matcher instanceof PathPatternParserServerWebExchangeMatcher)) {
+				return null;
+			}
+			pathMatchers.add((PathPatternParserServerWebExchangeMatcher) matcher);
+		}
+		return new PathPatternsServerWebExchangeMatcher(pathMatchers);
+	}
+
+	List<ServerWebExchangeMatcher> getMatchers() {
+		return this.matchers;
+	}
+
 	@Override
 	public String toString() {
 		return "OrServerWebExchangeMatcher{matchers=" + this.matchers + '}';
@@ -21,7 +21,6 @@ import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import reactor.core.publisher.Mono;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.http.server.PathContainer;
@@ -38,7 +37,7 @@ import org.springframework.web.util.pattern.PathPatternParser;
  * @author Mathieu Ouellet
  * @since 5.0
  */
-public final class PathPatternParserServerWebExchangeMatcher implements ServerWebExchangeMatcher {
+public final class PathPatternParserServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
 
 	private static final Log logger = LogFactory.getLog(PathPatternParserServerWebExchangeMatcher.class);
 
@@ -69,25 +68,23 @@ public final class PathPatternParserServerWebExchangeMatcher implements ServerWe
 	}
 
 	@Override
-	public Mono<MatchResult> matches(ServerWebExchange exchange) {
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
 		ServerHttpRequest request = exchange.getRequest();
 		PathContainer path = request.getPath().pathWithinApplication();
 		if (this.method != null && !this.method.equals(request.getMethod())) {
-			return MatchResult.notMatch().doOnNext((result) -> {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Request '" + request.getMethod() + " " + path + "' doesn't match '" + this.method
-							+ " " + this.pattern.getPatternString() + "'");
-				}
-			});
+			if (logger.isDebugEnabled()) {
+				logger.debug("Request '" + request.getMethod() + " " + path + "' doesn't match '" + this.method + " "
+						+ this.pattern.getPatternString() + "'");
+			}
+			return MatchResult.notMatched();
 		}
 		boolean match = this.pattern.matches(path);
 		if (!match) {
-			return MatchResult.notMatch().doOnNext((result) -> {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Request '" + request.getMethod() + " " + path + "' doesn't match '" + this.method
-							+ " " + this.pattern.getPatternString() + "'");
-				}
-			});
+			if (logger.isDebugEnabled()) {
+				logger.debug("Request '" + request.getMethod() + " " + path + "' doesn't match '" + this.method + " "
+						+ this.pattern.getPatternString() + "'");
+			}
+			return MatchResult.notMatched();
 		}
 		Map<String, String> pathVariables = this.pattern.matchAndExtract(path).getUriVariables();
 		Map<String, Object> variables = new HashMap<>(pathVariables);
@@ -95,7 +92,15 @@ public final class PathPatternParserServerWebExchangeMatcher implements ServerWe
 			logger.debug(
 					"Checking match of request : '" + path + "'; against '" + this.pattern.getPatternString() + "'");
 		}
-		return MatchResult.match(variables);
+		return MatchResult.matched(variables);
+	}
+
+	PathPattern getPattern() {
+		return this.pattern;
+	}
+
+	HttpMethod getMethod() {
+		return this.method;
 	}
 
 	@Override
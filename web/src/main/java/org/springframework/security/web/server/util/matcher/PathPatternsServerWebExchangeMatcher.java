@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+
+/**
+ * Matches if any of a set of {@link PathPatternParserServerWebExchangeMatcher}s matches.
+ * The path within the application is obtained once for all patterns, and the variables
+ * of the matching pattern are only extracted when they are first read.
+ *
+ * @since 5.5
+ * @see OrServerWebExchangeMatcher
+ */
+final class PathPatternsServerWebExchangeMatcher implements SynchronousServerWebExchangeMatcher {
+
+	private static final Log logger = LogFactory.getLog(PathPatternsServerWebExchangeMatcher.class);
+
+	private final PathPattern[] patterns;
+
+	private final HttpMethod[] methods;
+
+	PathPatternsServerWebExchangeMatcher(List<PathPatternParserServerWebExchangeMatcher> matchers) {
+		this.patterns = new PathPattern[matchers.size()];
+		this.methods = new HttpMethod[matchers.size()];
+		for (int i = 0; i < matchers.size(); i++) {
+			this.patterns[i] = matchers.get(i).getPattern();
+			this.methods[i] = matchers.get(i).getMethod();
+		}
+	}
+
+	@Override
+	public MatchResult matchSynchronously(ServerWebExchange exchange) {
+		ServerHttpRequest request = exchange.getRequest();
+		HttpMethod method = request.getMethod();
+		PathContainer path = request.getPath().pathWithinApplication();
+		for (int i = 0; i < this.patterns.length; i++) {
+			if (this.methods[i] != null && !this.methods[i].equals(method)) {
+				continue;
+			}
+			PathPattern pattern = this.patterns[i];
+			if (pattern.matches(path)) {
+				logger.debug(LogMessage.format("Request '%s %s' matched '%s %s'", method, path, this.methods[i],
+						pattern.getPatternString()));
+				return MatchResult.matched(new PathVariables(pattern, path));
+			}
+		}
+		logger.debug(LogMessage.format("Request '%s %s' doesn't match any of %s", method, path, this));
+		return MatchResult.notMatched();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("PathPatternsServerWebExchangeMatcher{patterns=[");
+		for (int i = 0; i < this.patterns.length; i++) {
+			if (i > 0) {
+				result.append(", ");
+			}
+			if (this.methods[i] != null) {
+				result.append(this.methods[i]).append(' ');
+			}
+			result.append(this.patterns[i]);
+		}
+		return result.append("]}").toString();
+	}
+
+	/**
+	 * The variables of a matching pattern, extracted on first access.
+	 */
+	private static final class PathVariables extends AbstractMap<String, Object> {
+
+		private final PathPattern pattern;
+
+		private final PathContainer path;
+
+		private Map<String, Object> variables;
+
+		private PathVariables(PathPattern pattern, PathContainer path) {
+			this.pattern = pattern;
+			this.path = path;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return getVariables().entrySet();
+		}
+
+		@Override
+		public Object get(Object key) {
+			return getVariables().get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return getVariables().containsKey(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return getVariables().put(key, value);
+		}
+
+		private Map<String, Object> getVariables() {
+			if (this.variables == null) {
+				PathPattern.PathMatchInfo info = this.pattern.matchAndExtract(this.path);
+				this.variables = (info != null) ? new HashMap<>(info.getUriVariables()) : new HashMap<>();
+			}
+			return this.variables;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,14 @@ public interface ServerWebExchangeMatcher {
 	 */
 	class MatchResult {
 
+		private static final MatchResult MATCHED = new MatchResult(true, Collections.emptyMap());
+
+		private static final MatchResult NOT_MATCHED = new MatchResult(false, Collections.emptyMap());
+
+		private static final Mono<MatchResult> MATCH = Mono.just(MATCHED);
+
+		private static final Mono<MatchResult> NOT_MATCH = Mono.just(NOT_MATCHED);
+
 		private final boolean match;
 
 		private final Map<String, Object> variables;
@@ -69,7 +77,7 @@ public interface ServerWebExchangeMatcher {
 		 * @return
 		 */
 		public static Mono<MatchResult> match() {
-			return match(Collections.emptyMap());
+			return MATCH;
 		}
 
 		/**
@@ -88,7 +96,55 @@ public interface ServerWebExchangeMatcher {
 		 * @return
 		 */
 		public static Mono<MatchResult> notMatch() {
-			return Mono.just(new MatchResult(false, Collections.emptyMap()));
+			return NOT_MATCH;
+		}
+
+		/**
+		 * Creates an instance of {@link MatchResult} that is a match with no variables,
+		 * for use by a {@link SynchronousServerWebExchangeMatcher}
+		 * @return
+		 * @since 5.5
+		 */
+		public static MatchResult matched() {
+			return MATCHED;
+		}
+
+		/**
+		 * Creates an instance of {@link MatchResult} that is a match with the specified
+		 * variables, for use by a {@link SynchronousServerWebExchangeMatcher}
+		 * @param variables
+		 * @return
+		 * @since 5.5
+		 */
+		public static MatchResult matched(Map<String, Object> variables) {
+			return new MatchResult(true, variables);
+		}
+
+		/**
+		 * Creates an instance of {@link MatchResult} that is not a match, for use by a
+		 * {@link SynchronousServerWebExchangeMatcher}
+		 * @return
+		 * @since 5.5
+		 */
+		public static MatchResult notMatched() {
+			return NOT_MATCHED;
+		}
+
+		/**
+		 * Wraps a {@link MatchResult} in a {@link Mono}, reusing a shared instance where
+		 * possible
+		 * @param result the result to wrap
+		 * @return
+		 * @since 5.5
+		 */
+		public static Mono<MatchResult> toMono(MatchResult result) {
+			if (result == MATCHED) {
+				return MATCH;
+			}
+			if (result == NOT_MATCHED) {
+				return NOT_MATCH;
+			}
+			return Mono.just(result);
 		}
 
 	}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+
+/**
+ * An index over an ordered list of {@link ServerWebExchangeMatcherEntry} instances that
+ * narrows down the entries that may match a {@link ServerWebExchange}.
+ *
+ * <p>
+ * Entries whose matcher is a {@link PathPatternParserServerWebExchangeMatcher}, or an
+ * {@link OrServerWebExchangeMatcher} composed only of such matchers, are indexed by the
+ * HTTP method and the literal leading segments of their {@link PathPattern}. All other
+ * entries are always candidates. The candidates are returned in their original order and
+ * are a superset of the entries that match, so callers still have to evaluate each
+ * candidate's matcher.
+ *
+ * @param <T> the type of the entries
+ * @since 5.5
+ */
+public final class ServerWebExchangeMatcherIndex<T> {
+
+	private final List<ServerWebExchangeMatcherEntry<T>> entries;
+
+	private final Node root = new Node();
+
+	private final BitSet unindexed = new BitSet();
+
+	private final boolean indexed;
+
+	/**
+	 * Creates a new instance
+	 * @param entries the entries to index, in the order they are evaluated
+	 */
+	public ServerWebExchangeMatcherIndex(List<ServerWebExchangeMatcherEntry<T>> entries) {
+		Assert.notNull(entries, "entries cannot be null");
+		this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+		for (int i = 0; i < this.entries.size(); i++) {
+			List<PathPatternParserServerWebExchangeMatcher> matchers = new ArrayList<>();
+			if (collectPathMatchers(this.entries.get(i).getMatcher(), matchers)) {
+				for (PathPatternParserServerWebExchangeMatcher matcher : matchers) {
+					this.root.add(getLiteralSegments(matcher.getPattern()), 0, i, matcher.getMethod());
+				}
+			}
+			else {
+				this.unindexed.set(i);
+			}
+		}
+		this.indexed = this.unindexed.cardinality() < this.entries.size();
+	}
+
+	/**
+	 * Returns the entries that may match the given exchange, in their original order.
+	 * @param exchange the exchange
+	 * @return the candidate entries
+	 */
+	public List<ServerWebExchangeMatcherEntry<T>> getCandidates(ServerWebExchange exchange) {
+		if (!this.indexed) {
+			return this.entries;
+		}
+		HttpMethod method = exchange.getRequest().getMethod();
+		List<PathContainer.Element> elements = exchange.getRequest().getPath().pathWithinApplication().elements();
+		BitSet candidates = (BitSet) this.unindexed.clone();
+		Node node = this.root;
+		node.collect(method, candidates);
+		int index = 0;
+		while (node.hasChildren() && index + 1 < elements.size()
+				&& elements.get(index) instanceof PathContainer.Separator
+				&& elements.get(index + 1) instanceof PathContainer.PathSegment) {
+			String segment = ((PathContainer.PathSegment) elements.get(index + 1)).valueToMatch();
+			if (!isIndexable(segment)) {
+				// case-insensitive patterns may match non-ASCII characters
+				return this.entries;
+			}
+			node = node.getChild(segment);
+			if (node == null) {
+				break;
+			}
+			node.collect(method, candidates);
+			index += 2;
+		}
+		List<ServerWebExchangeMatcherEntry<T>> result = new ArrayList<>(candidates.cardinality());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			result.add(this.entries.get(i));
+		}
+		return result;
+	}
+
+	private static boolean collectPathMatchers(ServerWebExchangeMatcher matcher,
+			List<PathPatternParserServerWebExchangeMatcher> result) {
+		if (matcher instanceof PathPatternParserServerWebExchangeMatcher) {
+			result.add((PathPatternParserServerWebExchangeMatcher) matcher);
+			return true;
+		}
+		if (matcher != null && matcher.getClass() == OrServerWebExchangeMatcher.class) {
+			for (ServerWebExchangeMatcher delegate : ((OrServerWebExchangeMatcher) matcher).getMatchers()) {
+				if (!collectPathMatchers(delegate, result)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the leading segments of the pattern that are plain literals. Stopping early
+	 * only widens the set of candidates, so anything that is not obviously a literal ends
+	 * the prefix.
+	 */
+	private static List<String> getLiteralSegments(PathPattern pattern) {
+		String patternString = pattern.getPatternString();
+		List<String> segments = new ArrayList<>();
+		if (!patternString.startsWith("/")) {
+			return segments;
+		}
+		for (String part : patternString.substring(1).split("/", -1)) {
+			if (!isLiteral(part)) {
+				break;
+			}
+			segments.add(part);
+		}
+		return segments;
+	}
+
+	private static boolean isLiteral(String segment) {
+		if (segment.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.'
+					|| c == '_' || c == '~')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isIndexable(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			if (segment.charAt(i) > 127) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toLowerCase(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				char[] chars = segment.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					if (chars[j] >= 'A' && chars[j] <= 'Z') {
+						chars[j] = (char) (chars[j] + ('a' - 'A'));
+					}
+				}
+				return new String(chars);
+			}
+		}
+		return segment;
+	}
+
+	/**
+	 * A node of the literal prefix tree. Keys are lower-cased so that patterns parsed
+	 * case-insensitively are found as well.
+	 */
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private final List<Integer> entryIndexes = new ArrayList<>();
+
+		private final List<HttpMethod> methods = new ArrayList<>();
+
+		void add(List<String> segments, int depth, int entryIndex, HttpMethod method) {
+			if (depth == segments.size()) {
+				this.entryIndexes.add(entryIndex);
+				this.methods.add(method);
+				return;
+			}
+			this.children.computeIfAbsent(toLowerCase(segments.get(depth)), (key) -> new Node()).add(segments,
+					depth + 1, entryIndex, method);
+		}
+
+		void collect(HttpMethod method, BitSet candidates) {
+			for (int i = 0; i < this.entryIndexes.size(); i++) {
+				HttpMethod entryMethod = this.methods.get(i);
+				if (entryMethod == null || entryMethod.equals(method)) {
+					candidates.set(this.entryIndexes.get(i));
+				}
+			}
+		}
+
+		boolean hasChildren() {
+			return !this.children.isEmpty();
+		}
+
+		Node getChild(String segment) {
+			return this.children.get(toLowerCase(segment));
+		}
+
+	}
+
+}
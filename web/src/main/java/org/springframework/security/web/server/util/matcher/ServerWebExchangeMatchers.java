@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,6 @@ package org.springframework.security.web.server.util.matcher;
 import java.util.ArrayList;
 import java.util.List;
 
-import reactor.core.publisher.Mono;
-
 import org.springframework.http.HttpMethod;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -77,11 +75,11 @@ public abstract class ServerWebExchangeMatchers {
 		// we don't use a lambda to ensure a unique equals and hashcode
 		// which otherwise can cause problems with adding multiple entries to an ordered
 		// LinkedHashMap
-		return new ServerWebExchangeMatcher() {
+		return new SynchronousServerWebExchangeMatcher() {
 
 			@Override
-			public Mono<MatchResult> matches(ServerWebExchange exchange) {
-				return ServerWebExchangeMatcher.MatchResult.match();
+			public MatchResult matchSynchronously(ServerWebExchange exchange) {
+				return MatchResult.matched();
 			}
 
 		};
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ServerWebExchangeMatcher} that is able to determine whether an exchange
+ * matches without using Reactor. Callers that evaluate many matchers per exchange can
+ * use {@link #matchSynchronously(ServerWebExchange)} to avoid allocating a
+ * {@link Mono} pipeline for every matcher.
+ *
+ * <p>
+ * Composite matchers implement this interface but are only synchronous if all of their
+ * delegates are, which is why callers must check {@link #isSynchronous()} first.
+ *
+ * @since 5.5
+ * @see #isSynchronous(ServerWebExchangeMatcher)
+ */
+public interface SynchronousServerWebExchangeMatcher extends ServerWebExchangeMatcher {
+
+	/**
+	 * Determines if a request matches or not, without using Reactor. May only be invoked
+	 * if {@link #isSynchronous()} returns {@code true}.
+	 * @param exchange the exchange to match
+	 * @return the {@link MatchResult}
+	 */
+	MatchResult matchSynchronously(ServerWebExchange exchange);
+
+	/**
+	 * Whether {@link #matchSynchronously(ServerWebExchange)} may be used. Defaults to
+	 * {@code true}. Implementations that are not final should only return {@code true}
+	 * for their own class, since callers would otherwise skip a subclass that overrides
+	 * {@link #matches(ServerWebExchange)}.
+	 * @return {@code true} if the matcher can match synchronously
+	 */
+	default boolean isSynchronous() {
+		return true;
+	}
+
+	@Override
+	default Mono<MatchResult> matches(ServerWebExchange exchange) {
+		return MatchResult.toMono(matchSynchronously(exchange));
+	}
+
+	/**
+	 * Determines whether the given matcher can match synchronously
+	 * @param matcher the matcher to check
+	 * @return {@code true} if the matcher is a {@link SynchronousServerWebExchangeMatcher}
+	 * that can match synchronously
+	 */
+	static boolean isSynchronous(ServerWebExchangeMatcher matcher) {
+		return matcher instanceof SynchronousServerWebExchangeMatcher
+				&& ((SynchronousServerWebExchangeMatcher) matcher).isSynchronous();
+	}
+
+}
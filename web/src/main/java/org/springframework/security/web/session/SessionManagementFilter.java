@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -126,6 +126,35 @@ public class SessionManagementFilter extends GenericFilterBean {
 		chain.doFilter(request, response);
 	}
 
+	/**
+	 * Returns the {@link SecurityContextRepository} used to find out whether the user
+	 * authenticated during the current request
+	 * @return the {@link SecurityContextRepository}
+	 * @since 5.5
+	 */
+	public SecurityContextRepository getSecurityContextRepository() {
+		return this.securityContextRepository;
+	}
+
+	/**
+	 * Returns the {@link SessionAuthenticationStrategy} invoked when the user
+	 * authenticated during the current request
+	 * @return the {@link SessionAuthenticationStrategy}
+	 * @since 5.5
+	 */
+	public SessionAuthenticationStrategy getSessionAuthenticationStrategy() {
+		return this.sessionAuthenticationStrategy;
+	}
+
+	/**
+	 * Returns the strategy invoked if the user agent requests an invalid session ID
+	 * @return the {@link InvalidSessionStrategy}, or {@code null} if none is set
+	 * @since 5.5
+	 */
+	public InvalidSessionStrategy getInvalidSessionStrategy() {
+		return this.invalidSessionStrategy;
+	}
+
 	/**
 	 * Sets the strategy which will be invoked instead of allowing the filter chain to
 	 * proceed, if the user agent requests an invalid session ID. If the property is not
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * An immutable set of IPv4 and IPv6 address ranges, specified as single addresses or in
+ * CIDR notation (e.g. 192.168.1.0/24 or 2001:db8::/32).
+ *
+ * <p>
+ * The ranges are kept in a path-compressed binary trie per address family, so looking
+ * up an address takes at most one step per bit of the address regardless of the number
+ * of ranges. As with {@link org.springframework.security.web.util.matcher.IpAddressMatcher}
+ * an IPv4 range never contains an IPv6 address, and vice-versa.
+ *
+ * <p>
+ * Only address literals are accepted, host names are never resolved.
+ *
+ * @since 5.5
+ * @see org.springframework.security.web.util.matcher.CidrSetRequestMatcher
+ */
+public final class CidrSet {
+
+	private final Node ipv4 = new Node(new byte[4], 0, false);
+
+	private final Node ipv6 = new Node(new byte[16], 0, false);
+
+	private final int size;
+
+	private CidrSet(Collection<String> cidrs) {
+		for (String cidr : cidrs) {
+			Assert.hasText(cidr, "cidrs cannot contain empty values");
+			add(cidr.trim());
+		}
+		this.size = cidrs.size();
+	}
+
+	/**
+	 * Creates a set of the given ranges
+	 * @param cidrs the addresses or ranges of addresses (e.g. 192.168.1.0/24)
+	 * @return the {@link CidrSet}
+	 */
+	public static CidrSet of(String... cidrs) {
+		Assert.notNull(cidrs, "cidrs cannot be null");
+		return of(Arrays.asList(cidrs));
+	}
+
+	/**
+	 * Creates a set of the given ranges
+	 * @param cidrs the addresses or ranges of addresses (e.g. 192.168.1.0/24)
+	 * @return the {@link CidrSet}
+	 */
+	public static CidrSet of(Collection<String> cidrs) {
+		Assert.notNull(cidrs, "cidrs cannot be null");
+		return new CidrSet(cidrs);
+	}
+
+	/**
+	 * Creates a set of the ranges listed in the given UTF-8 encoded resource, one per
+	 * line. Blank lines and lines starting with {@code #} are ignored.
+	 * @param resource the resource to read
+	 * @return the {@link CidrSet}
+	 * @throws UncheckedIOException if the resource cannot be read
+	 */
+	public static CidrSet from(Resource resource) {
+		Assert.notNull(resource, "resource cannot be null");
+		List<String> cidrs = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#")) {
+					cidrs.add(line);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return new CidrSet(cidrs);
+	}
+
+	/**
+	 * Whether the given address is in one of the ranges
+	 * @param address the IPv4 or IPv6 address literal
+	 * @return {@code true} if the address is in one of the ranges, {@code false} if it is
+	 * not or if it is not an address literal
+	 */
+	public boolean contains(String address) {
+		if (address == null) {
+			return false;
+		}
+		byte[] bytes = parseAddress(address);
+		return (bytes != null) && contains(bytes);
+	}
+
+	/**
+	 * Whether the given address is in one of the ranges
+	 * @param address the address
+	 * @return {@code true} if the address is in one of the ranges
+	 */
+	public boolean contains(InetAddress address) {
+		return (address != null) && contains(address.getAddress());
+	}
+
+	/**
+	 * Returns the number of ranges this set was created from
+	 * @return the number of ranges
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public String toString() {
+		return "CidrSet[size=" + this.size + "]";
+	}
+
+	private boolean contains(byte[] address) {
+		Node node = (address.length == 4) ? this.ipv4 : this.ipv6;
+		int bits = address.length * 8;
+		while (node != null) {
+			if (commonPrefixLength(node.prefix, address, node.length) < node.length) {
+				return false;
+			}
+			if (node.terminal) {
+				return true;
+			}
+			if (node.length == bits) {
+				return false;
+			}
+			node = node.getChild(bit(address, node.length));
+		}
+		return false;
+	}
+
+	private void add(String cidr) {
+		int slash = cidr.indexOf('/');
+		byte[] address = parseAddress((slash > 0) ? cidr.substring(0, slash) : cidr);
+		Assert.isTrue(address != null, () -> "Failed to parse address " + cidr);
+		int length = address.length * 8;
+		if (slash > 0) {
+			try {
+				length = Integer.parseInt(cidr.substring(slash + 1));
+			}
+			catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("Invalid bitmask in " + cidr, ex);
+			}
+			if (length < 0 || length > address.length * 8) {
+				throw new IllegalArgumentException("Invalid bitmask in " + cidr);
+			}
+		}
+		add((address.length == 4) ? this.ipv4 : this.ipv6, mask(address, length), length);
+	}
+
+	/**
+	 * Adds the range to the subtree of the given node, whose prefix is known to be a
+	 * prefix of the range.
+	 */
+	private static void add(Node node, byte[] prefix, int length) {
+		while (!node.terminal) {
+			if (node.length == length) {
+				// the range covers everything below this node
+				node.terminal = true;
+				node.zero = null;
+				node.one = null;
+				return;
+			}
+			int bit = bit(prefix, node.length);
+			Node child = node.getChild(bit);
+			if (child == null) {
+				node.setChild(bit, new Node(prefix, length, true));
+				return;
+			}
+			int common = commonPrefixLength(child.prefix, prefix, Math.min(child.length, length));
+			if (common == child.length) {
+				node = child;
+				continue;
+			}
+			if (common == length) {
+				node.setChild(bit, new Node(prefix, length, true));
+				return;
+			}
+			Node branch = new Node(mask(prefix, common), common, false);
+			branch.setChild(bit(child.prefix, common), child);
+			branch.setChild(bit(prefix, common), new Node(prefix, length, true));
+			node.setChild(bit, branch);
+			return;
+		}
+	}
+
+	private static int bit(byte[] address, int index) {
+		return (address[index >> 3] >> (7 - (index & 7))) & 1;
+	}
+
+	private static int commonPrefixLength(byte[] a, byte[] b, int maxLength) {
+		int fullBytes = maxLength >> 3;
+		for (int i = 0; i < fullBytes; i++) {
+			if (a[i] != b[i]) {
+				return i * 8 + Integer.numberOfLeadingZeros((a[i] ^ b[i]) & 0xFF) - 24;
+			}
+		}
+		int remainingBits = maxLength & 7;
+		if (remainingBits != 0) {
+			int difference = (a[fullBytes] ^ b[fullBytes]) & (0xFF00 >> remainingBits) & 0xFF;
+			if (difference != 0) {
+				return fullBytes * 8 + Integer.numberOfLeadingZeros(difference) - 24;
+			}
+		}
+		return maxLength;
+	}
+
+	private static byte[] mask(byte[] address, int length) {
+		byte[] result = new byte[address.length];
+		int fullBytes = length >> 3;
+		System.arraycopy(address, 0, result, 0, fullBytes);
+		int remainingBits = length & 7;
+		if (remainingBits != 0) {
+			result[fullBytes] = (byte) (address[fullBytes] & (0xFF00 >> remainingBits));
+		}
+		return result;
+	}
+
+	/**
+	 * Parses an address literal, returning {@code null} if it is not one.
+	 */
+	private static byte[] parseAddress(String address) {
+		if (address.indexOf(':') >= 0) {
+			if (!isIpv6Literal(address)) {
+				return null;
+			}
+			try {
+				// an IPv6 literal is parsed without a lookup
+				return InetAddress.getByName(address).getAddress();
+			}
+			catch (UnknownHostException ex) {
+				return null;
+			}
+		}
+		return parseIpv4Address(address);
+	}
+
+	/**
+	 * Whether the address only consists of the characters of an IPv6 literal, optionally
+	 * followed by a scope, so that {@link InetAddress#getByName(String)} never resolves
+	 * it as a host name.
+	 */
+	private static boolean isIpv6Literal(String address) {
+		int scope = address.indexOf('%');
+		int end = (scope >= 0) ? scope : address.length();
+		// InetAddress only parses a literal that starts with a hex digit or a colon
+		if (end == 0 || (address.charAt(0) != ':' && !isHexDigit(address.charAt(0)))) {
+			return false;
+		}
+		for (int i = 0; i < end; i++) {
+			char c = address.charAt(i);
+			if (!isHexDigit(c) && c != ':' && c != '.') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isHexDigit(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+
+	private static byte[] parseIpv4Address(String address) {
+		byte[] result = new byte[4];
+		int part = 0;
+		int value = 0;
+		int digits = 0;
+		for (int i = 0; i < address.length(); i++) {
+			char c = address.charAt(i);
+			if (c == '.') {
+				if (digits == 0 || part == 3) {
+					return null;
+				}
+				result[part++] = (byte) value;
+				value = 0;
+				digits = 0;
+			}
+			else if (c >= '0' && c <= '9' && digits < 3) {
+				value = value * 10 + (c - '0');
+				digits++;
+				if (value > 255) {
+					return null;
+				}
+			}
+			else {
+				return null;
+			}
+		}
+		if (digits == 0 || part != 3) {
+			return null;
+		}
+		result[part] = (byte) value;
+		return result;
+	}
+
+	/**
+	 * A node of the trie. The first {@code length} bits of {@code prefix} are shared by
+	 * all ranges below it, and a terminal node is a range itself.
+	 */
+	private static final class Node {
+
+		private final byte[] prefix;
+
+		private final int length;
+
+		private boolean terminal;
+
+		private Node zero;
+
+		private Node one;
+
+		private Node(byte[] prefix, int length, boolean terminal) {
+			this.prefix = prefix;
+			this.length = length;
+			this.terminal = terminal;
+		}
+
+		private Node getChild(int bit) {
+			return (bit == 0) ? this.zero : this.one;
+		}
+
+		private void setChild(int bit, Node child) {
+			if (bit == 0) {
+				this.zero = child;
+			}
+			else {
+				this.one = child;
+			}
+		}
+
+	}
+
+}
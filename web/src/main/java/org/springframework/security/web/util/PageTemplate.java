@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Internal utility for pages that are rendered once and then served many times with a
+ * few request specific values spliced in, such as the default login and logout pages.
+ *
+ * <p>
+ * A page is rendered with {@link #slot(int)} placeholders where the request specific
+ * values go, and {@link #compile(String, Charset) compiled} into encoded static segments.
+ * {@link #render(String...)} then only has to encode the values for the slots.
+ *
+ * @since 5.5
+ */
+public final class PageTemplate {
+
+	private static final char MARKER = '\u0000';
+
+	private final byte[][] segments;
+
+	private final int[] slots;
+
+	private final Charset charset;
+
+	private PageTemplate(byte[][] segments, int[] slots, Charset charset) {
+		this.segments = segments;
+		this.slots = slots;
+		this.charset = charset;
+	}
+
+	/**
+	 * Returns the placeholder for the value at the given index of
+	 * {@link #render(String...)}
+	 * @param index the index of the value
+	 * @return the placeholder
+	 */
+	public static String slot(int index) {
+		Assert.isTrue(index >= 0, "index cannot be negative");
+		return MARKER + String.valueOf(index) + MARKER;
+	}
+
+	/**
+	 * Compiles the given page
+	 * @param page the page containing {@link #slot(int)} placeholders
+	 * @param charset the charset to encode the page with
+	 * @return the compiled template
+	 */
+	public static PageTemplate compile(String page, Charset charset) {
+		Assert.notNull(page, "page cannot be null");
+		Assert.notNull(charset, "charset cannot be null");
+		List<byte[]> segments = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+		int start = 0;
+		int marker = page.indexOf(MARKER);
+		while (marker >= 0) {
+			int end = page.indexOf(MARKER, marker + 1);
+			Assert.isTrue(end > marker, "page contains an unterminated slot");
+			segments.add(page.substring(start, marker).getBytes(charset));
+			slots.add(Integer.parseInt(page.substring(marker + 1, end)));
+			start = end + 1;
+			marker = page.indexOf(MARKER, start);
+		}
+		segments.add(page.substring(start).getBytes(charset));
+		int[] slotIndexes = new int[slots.size()];
+		for (int i = 0; i < slotIndexes.length; i++) {
+			slotIndexes[i] = slots.get(i);
+		}
+		return new PageTemplate(segments.toArray(new byte[0][]), slotIndexes, charset);
+	}
+
+	/**
+	 * Renders the page
+	 * @param values the values of the slots, by index. A {@code null} value renders as
+	 * nothing.
+	 * @return the encoded page
+	 */
+	public byte[] render(String... values) {
+		byte[][] encoded = new byte[this.slots.length][];
+		int length = this.segments[0].length;
+		for (int i = 0; i < this.slots.length; i++) {
+			String value = (this.slots[i] < values.length) ? values[this.slots[i]] : null;
+			encoded[i] = (value != null) ? value.getBytes(this.charset) : new byte[0];
+			length += encoded[i].length + this.segments[i + 1].length;
+		}
+		byte[] page = new byte[length];
+		int position = append(this.segments[0], page, 0);
+		for (int i = 0; i < this.slots.length; i++) {
+			position = append(encoded[i], page, position);
+			position = append(this.segments[i + 1], page, position);
+		}
+		return page;
+	}
+
+	private static int append(byte[] source, byte[] target, int position) {
+		System.arraycopy(source, 0, target, position, source.length);
+		return position + source.length;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -147,8 +147,20 @@ public final class AntPathRequestMatcher implements RequestMatcher, RequestVaria
 		if (this.pattern.equals(MATCH_ALL)) {
 			return true;
 		}
+		// equal matchers may use different UrlPathHelpers, so only share plain results
+		RequestMatcherResultCache cache = (this.urlPathHelper != null) ? null : RequestMatcherResultCache.get(request);
+		if (cache != null) {
+			Boolean result = cache.getResult(request, this);
+			if (result != null) {
+				return result;
+			}
+		}
 		String url = getRequestPath(request);
-		return this.matcher.matches(url);
+		boolean result = this.matcher.matches(url);
+		if (cache != null) {
+			cache.putResult(request, this, result);
+		}
+		return result;
 	}
 
 	@Override
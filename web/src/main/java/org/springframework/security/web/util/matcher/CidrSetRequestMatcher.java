@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.security.web.util.CidrSet;
+import org.springframework.util.Assert;
+
+/**
+ * Matches a request if its remote address is in a {@link CidrSet}. Unlike an
+ * {@link OrRequestMatcher} of {@link IpAddressMatcher}s, the remote address is parsed
+ * once and looked up in time independent of the number of ranges.
+ *
+ * <p>
+ * When created with a {@link Supplier}, the set can be replaced atomically by calling
+ * {@link #reload()}, for example after the file it was read from has changed:
+ *
+ * <pre>
+ * CidrSetRequestMatcher partners = new CidrSetRequestMatcher(() -&gt; CidrSet.from(resource));
+ * </pre>
+ *
+ * @since 5.5
+ * @see CidrSet
+ */
+public final class CidrSetRequestMatcher implements RequestMatcher {
+
+	private final Supplier<CidrSet> cidrSetSupplier;
+
+	private volatile CidrSet cidrSet;
+
+	/**
+	 * Creates a new instance
+	 * @param cidrSet the addresses to match
+	 */
+	public CidrSetRequestMatcher(CidrSet cidrSet) {
+		this(() -> cidrSet);
+	}
+
+	/**
+	 * Creates a new instance that obtains the addresses to match from the given
+	 * {@link Supplier} immediately and on every {@link #reload()}
+	 * @param cidrSetSupplier the {@link Supplier} of the addresses to match
+	 */
+	public CidrSetRequestMatcher(Supplier<CidrSet> cidrSetSupplier) {
+		Assert.notNull(cidrSetSupplier, "cidrSetSupplier cannot be null");
+		this.cidrSetSupplier = cidrSetSupplier;
+		reload();
+	}
+
+	@Override
+	public boolean matches(HttpServletRequest request) {
+		return this.cidrSet.contains(request.getRemoteAddr());
+	}
+
+	/**
+	 * Replaces the addresses to match with the ones obtained from the {@link Supplier}.
+	 * Requests being matched concurrently see either the previous or the new addresses.
+	 */
+	public void reload() {
+		CidrSet cidrSet = this.cidrSetSupplier.get();
+		Assert.notNull(cidrSet, "cidrSetSupplier cannot supply null");
+		this.cidrSet = cidrSet;
+	}
+
+	/**
+	 * Returns the addresses currently matched
+	 * @return the {@link CidrSet}
+	 */
+	public CidrSet getCidrSet() {
+		return this.cidrSet;
+	}
+
+	@Override
+	public String toString() {
+		return "CidrSetRequestMatcher[" + this.cidrSet + "]";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.security.web.util.matcher;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -27,8 +29,10 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationStrategy;
 import org.springframework.web.accept.HeaderContentNegotiationStrategy;
@@ -136,6 +140,13 @@ import org.springframework.web.context.request.ServletWebRequest;
  * assert matcher.matches(request) == false // returns false
  * </pre>
  *
+ * <h3>Caching</h3>
+ *
+ * When a {@link HeaderContentNegotiationStrategy} is used, the resolved
+ * {@link MediaType}s are stored as a request attribute, so that all matchers that
+ * evaluate the same request only parse the Accept header once. Each matcher also
+ * remembers how it matches the media types it has seen.
+ *
  * @author Rob Winch
  * @author Dan Zheng
  * @since 3.2
@@ -143,16 +154,25 @@ import org.springframework.web.context.request.ServletWebRequest;
 
 public final class MediaTypeRequestMatcher implements RequestMatcher {
 
+	private static final String RESOLVED_MEDIA_TYPES_ATTR = MediaTypeRequestMatcher.class.getName()
+			.concat(".RESOLVED_MEDIA_TYPES");
+
+	private static final int MAX_COMPATIBILITY_ENTRIES = 256;
+
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private final ContentNegotiationStrategy contentNegotiationStrategy;
 
+	private final boolean resolvesAcceptHeader;
+
 	private final Collection<MediaType> matchingMediaTypes;
 
 	private boolean useEquals;
 
 	private Set<MediaType> ignoredMediaTypes = Collections.emptySet();
 
+	private volatile ConcurrentLruCache<MediaType, Compatibility> compatibility = createCompatibilityCache();
+
 	/**
 	 * Creates an instance
 	 * @param matchingMediaTypes the {@link MediaType} that will make the http request.
@@ -194,35 +214,89 @@ public final class MediaTypeRequestMatcher implements RequestMatcher {
 		Assert.notEmpty(matchingMediaTypes, "matchingMediaTypes cannot be null or empty");
 		this.contentNegotiationStrategy = contentNegotiationStrategy;
 		this.matchingMediaTypes = matchingMediaTypes;
+		this.resolvesAcceptHeader = contentNegotiationStrategy.getClass() == HeaderContentNegotiationStrategy.class;
 	}
 
 	@Override
 	public boolean matches(HttpServletRequest request) {
-		List<MediaType> httpRequestMediaTypes;
-		try {
-			httpRequestMediaTypes = this.contentNegotiationStrategy.resolveMediaTypes(new ServletWebRequest(request));
-		}
-		catch (HttpMediaTypeNotAcceptableException ex) {
-			this.logger.debug("Failed to match request since failed to parse MediaTypes", ex);
+		List<MediaType> httpRequestMediaTypes = resolveMediaTypes(request);
+		if (httpRequestMediaTypes == null) {
 			return false;
 		}
 		for (MediaType httpRequestMediaType : httpRequestMediaTypes) {
-			if (shouldIgnore(httpRequestMediaType)) {
+			Compatibility compatibility = getCompatibility(httpRequestMediaType);
+			if (compatibility == Compatibility.IGNORED) {
 				continue;
 			}
-			if (this.useEquals) {
-				return this.matchingMediaTypes.contains(httpRequestMediaType);
+			if (compatibility == Compatibility.COMPATIBLE) {
+				return true;
 			}
-			for (MediaType matchingMediaType : this.matchingMediaTypes) {
-				boolean isCompatibleWith = matchingMediaType.isCompatibleWith(httpRequestMediaType);
-				if (isCompatibleWith) {
-					return true;
-				}
+			if (this.useEquals) {
+				return false;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Resolves the media types of the request, or returns {@code null} if they cannot be
+	 * parsed. A {@link HeaderContentNegotiationStrategy} only depends on the Accept
+	 * header, so its result is shared by all matchers through a request attribute.
+	 */
+	private List<MediaType> resolveMediaTypes(HttpServletRequest request) {
+		if (!this.resolvesAcceptHeader) {
+			return resolveMediaTypes(new ServletWebRequest(request));
+		}
+		Enumeration<String> acceptHeaders = request.getHeaders(HttpHeaders.ACCEPT);
+		List<String> accept = (acceptHeaders != null) ? Collections.list(acceptHeaders) : Collections.emptyList();
+		Object resolved = request.getAttribute(RESOLVED_MEDIA_TYPES_ATTR);
+		if (resolved instanceof ResolvedMediaTypes && ((ResolvedMediaTypes) resolved).accept.equals(accept)) {
+			return ((ResolvedMediaTypes) resolved).mediaTypes;
+		}
+		List<MediaType> mediaTypes = resolveMediaTypes(new ServletWebRequest(request));
+		request.setAttribute(RESOLVED_MEDIA_TYPES_ATTR, new ResolvedMediaTypes(accept, mediaTypes));
+		return mediaTypes;
+	}
+
+	private List<MediaType> resolveMediaTypes(ServletWebRequest request) {
+		try {
+			return Collections.unmodifiableList(this.contentNegotiationStrategy.resolveMediaTypes(request));
+		}
+		catch (HttpMediaTypeNotAcceptableException ex) {
+			this.logger.debug("Failed to match request since failed to parse MediaTypes", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up how the given media type matches. The number of remembered media types is
+	 * bounded, since they come from the client, and the least recently used ones are
+	 * evicted.
+	 */
+	private Compatibility getCompatibility(MediaType httpRequestMediaType) {
+		return this.compatibility.get(httpRequestMediaType);
+	}
+
+	private ConcurrentLruCache<MediaType, Compatibility> createCompatibilityCache() {
+		return new ConcurrentLruCache<>(MAX_COMPATIBILITY_ENTRIES, this::computeCompatibility);
+	}
+
+	private Compatibility computeCompatibility(MediaType httpRequestMediaType) {
+		if (shouldIgnore(httpRequestMediaType)) {
+			return Compatibility.IGNORED;
+		}
+		if (this.useEquals) {
+			return this.matchingMediaTypes.contains(httpRequestMediaType) ? Compatibility.COMPATIBLE
+					: Compatibility.INCOMPATIBLE;
+		}
+		for (MediaType matchingMediaType : this.matchingMediaTypes) {
+			if (matchingMediaType.isCompatibleWith(httpRequestMediaType)) {
+				return Compatibility.COMPATIBLE;
+			}
+		}
+		return Compatibility.INCOMPATIBLE;
+	}
+
 	private boolean shouldIgnore(MediaType httpRequestMediaType) {
 		for (MediaType ignoredMediaType : this.ignoredMediaTypes) {
 			if (httpRequestMediaType.includes(ignoredMediaType)) {
@@ -239,6 +313,7 @@ public final class MediaTypeRequestMatcher implements RequestMatcher {
 	 */
 	public void setUseEquals(boolean useEquals) {
 		this.useEquals = useEquals;
+		this.compatibility = createCompatibilityCache();
 	}
 
 	/**
@@ -249,7 +324,9 @@ public final class MediaTypeRequestMatcher implements RequestMatcher {
 	 * {@link ContentNegotiationStrategy}
 	 */
 	public void setIgnoredMediaTypes(Set<MediaType> ignoredMediaTypes) {
-		this.ignoredMediaTypes = ignoredMediaTypes;
+		Assert.notNull(ignoredMediaTypes, "ignoredMediaTypes cannot be null");
+		this.ignoredMediaTypes = new LinkedHashSet<>(ignoredMediaTypes);
+		this.compatibility = createCompatibilityCache();
 	}
 
 	@Override
@@ -259,4 +336,23 @@ public final class MediaTypeRequestMatcher implements RequestMatcher {
 				+ ", ignoredMediaTypes=" + this.ignoredMediaTypes + "]";
 	}
 
+	private enum Compatibility {
+
+		IGNORED, COMPATIBLE, INCOMPATIBLE
+
+	}
+
+	private static final class ResolvedMediaTypes {
+
+		private final List<String> accept;
+
+		private final List<MediaType> mediaTypes;
+
+		private ResolvedMediaTypes(List<String> accept, List<MediaType> mediaTypes) {
+			this.accept = accept;
+			this.mediaTypes = mediaTypes;
+		}
+
+	}
+
 }
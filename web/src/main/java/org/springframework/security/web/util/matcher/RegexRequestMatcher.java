@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,6 +51,10 @@ public final class RegexRequestMatcher implements RequestMatcher {
 
 	private final HttpMethod httpMethod;
 
+	private final String literalPrefix;
+
+	private final boolean mayMatchQueryString;
+
 	/**
 	 * Creates a case-sensitive {@code Pattern} instance to match against the request.
 	 * @param pattern the regular expression to compile into a pattern.
@@ -70,6 +74,8 @@ public final class RegexRequestMatcher implements RequestMatcher {
 	public RegexRequestMatcher(String pattern, String httpMethod, boolean caseInsensitive) {
 		this.pattern = Pattern.compile(pattern, caseInsensitive ? Pattern.CASE_INSENSITIVE : DEFAULT);
 		this.httpMethod = StringUtils.hasText(httpMethod) ? HttpMethod.valueOf(httpMethod) : null;
+		this.literalPrefix = getLiteralPrefix(pattern);
+		this.mayMatchQueryString = mayMatchQuestionMark(pattern);
 	}
 
 	/**
@@ -81,26 +87,80 @@ public final class RegexRequestMatcher implements RequestMatcher {
 	 */
 	@Override
 	public boolean matches(HttpServletRequest request) {
-		if (this.httpMethod != null && request.getMethod() != null && this.httpMethod != valueOf(request.getMethod())) {
+		if (!matchesMethod(request)) {
 			return false;
 		}
-		String url = request.getServletPath();
-		String pathInfo = request.getPathInfo();
 		String query = request.getQueryString();
-		if (pathInfo != null || query != null) {
-			StringBuilder sb = new StringBuilder(url);
-			if (pathInfo != null) {
-				sb.append(pathInfo);
-			}
-			if (query != null) {
-				sb.append('?').append(query);
-			}
-			url = sb.toString();
+		if (query != null && !this.mayMatchQueryString) {
+			return false;
 		}
+		String url = getUrl(request.getServletPath(), request.getPathInfo(), query);
 		logger.debug(LogMessage.format("Checking match of request : '%s'; against '%s'", url, this.pattern));
 		return this.pattern.matcher(url).matches();
 	}
 
+	boolean matchesMethod(HttpServletRequest request) {
+		return this.httpMethod == null || request.getMethod() == null
+				|| this.httpMethod == valueOf(request.getMethod());
+	}
+
+	/**
+	 * Whether the URL may match, judging by its literal prefix and query string only
+	 */
+	boolean mayMatch(String url, boolean hasQueryString) {
+		if (hasQueryString && !this.mayMatchQueryString) {
+			return false;
+		}
+		boolean ignoreCase = (this.pattern.flags() & Pattern.CASE_INSENSITIVE) != 0;
+		return url.regionMatches(ignoreCase, 0, this.literalPrefix, 0, this.literalPrefix.length());
+	}
+
+	Pattern getPattern() {
+		return this.pattern;
+	}
+
+	static String getUrl(String servletPath, String pathInfo, String query) {
+		if (pathInfo == null && query == null) {
+			return servletPath;
+		}
+		StringBuilder sb = new StringBuilder(servletPath);
+		if (pathInfo != null) {
+			sb.append(pathInfo);
+		}
+		if (query != null) {
+			sb.append('?').append(query);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the characters every match starts with, or an empty string if there are
+	 * none or the pattern has alternatives.
+	 */
+	private static String getLiteralPrefix(String pattern) {
+		if (pattern.indexOf('|') >= 0) {
+			return "";
+		}
+		int start = pattern.startsWith("^") ? 1 : 0;
+		int end = start;
+		while (end < pattern.length() && "\\^$.|?*+()[]{}".indexOf(pattern.charAt(end)) < 0) {
+			end++;
+		}
+		if (end < pattern.length() && end > start && "?*+{".indexOf(pattern.charAt(end)) >= 0) {
+			// the last literal is quantified
+			end--;
+		}
+		return pattern.substring(start, end);
+	}
+
+	/**
+	 * Whether the pattern may match a question mark, and so a URL with a query string.
+	 * Without any of these constructs a question mark is only ever a quantifier.
+	 */
+	private static boolean mayMatchQuestionMark(String pattern) {
+		return pattern.indexOf('.') >= 0 || pattern.indexOf('[') >= 0 || pattern.indexOf('\\') >= 0;
+	}
+
 	/**
 	 * Provides a save way of obtaining the HttpMethod from a String. If the method is
 	 * invalid, returns null.
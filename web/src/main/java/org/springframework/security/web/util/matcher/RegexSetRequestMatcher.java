@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.Assert;
+
+/**
+ * Matches if any of a list of {@link RegexRequestMatcher}s matches. The URL of the
+ * request is built once for all patterns, and patterns are skipped without running the
+ * regular expression when the URL does not start with their literal prefix or when they
+ * cannot match the query string of the request.
+ *
+ * @since 5.5
+ * @see RegexRequestMatcher
+ */
+public final class RegexSetRequestMatcher implements RequestMatcher {
+
+	private static final Log logger = LogFactory.getLog(RegexSetRequestMatcher.class);
+
+	private final RegexRequestMatcher[] matchers;
+
+	/**
+	 * Creates a new instance
+	 * @param matchers the {@link RegexRequestMatcher}s to try, in order
+	 */
+	public RegexSetRequestMatcher(List<RegexRequestMatcher> matchers) {
+		Assert.notEmpty(matchers, "matchers must contain a value");
+		Assert.noNullElements(matchers, "matchers cannot contain null values");
+		this.matchers = matchers.toArray(new RegexRequestMatcher[0]);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param matchers the {@link RegexRequestMatcher}s to try, in order
+	 */
+	public RegexSetRequestMatcher(RegexRequestMatcher... matchers) {
+		this(Arrays.asList(matchers));
+	}
+
+	@Override
+	public boolean matches(HttpServletRequest request) {
+		return indexOf(request) >= 0;
+	}
+
+	/**
+	 * Returns the index of the first matcher that matches the request
+	 * @param request the request to match
+	 * @return the index of the first matching matcher, or -1 if none matches
+	 */
+	public int indexOf(HttpServletRequest request) {
+		String query = request.getQueryString();
+		String url = RegexRequestMatcher.getUrl(request.getServletPath(), request.getPathInfo(), query);
+		for (int i = 0; i < this.matchers.length; i++) {
+			RegexRequestMatcher matcher = this.matchers[i];
+			if (matcher.matchesMethod(request) && matcher.mayMatch(url, query != null)
+					&& matcher.getPattern().matcher(url).matches()) {
+				logger.debug(LogMessage.format("Request '%s' matched %s", url, matcher));
+				return i;
+			}
+		}
+		logger.debug(LogMessage.format("Request '%s' doesn't match any of %s", url, this));
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return "RegexSet [matchers=" + Arrays.toString(this.matchers) + "]";
+	}
+
+}
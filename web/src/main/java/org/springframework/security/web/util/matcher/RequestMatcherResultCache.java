@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Remembers the results of {@link RequestMatcher}s for the current request, so that
+ * equal matchers used by different filters of the same chain are only evaluated once.
+ *
+ * <p>
+ * Results are keyed by the {@link RequestMatcher} itself, so matchers that are
+ * {@link Object#equals(Object) equal} share a single result. Results are discarded when
+ * the servlet path, the path info or the {@link DispatcherType} changes, for example when
+ * the request is forwarded or wrapped.
+ *
+ * <p>
+ * A cache is only available while {@link RequestMatcherResultCacheFilter} is processing
+ * the request.
+ *
+ * @since 5.5
+ * @see AntPathRequestMatcher
+ */
+public final class RequestMatcherResultCache {
+
+	static final String ATTRIBUTE_NAME = RequestMatcherResultCache.class.getName();
+
+	private final Map<RequestMatcher, Boolean> results = new HashMap<>();
+
+	private String servletPath;
+
+	private String pathInfo;
+
+	private DispatcherType dispatcherType;
+
+	RequestMatcherResultCache() {
+	}
+
+	/**
+	 * Returns the cache of the given request
+	 * @param request the request
+	 * @return the cache, or {@code null} if there is none
+	 */
+	public static RequestMatcherResultCache get(HttpServletRequest request) {
+		Object cache = request.getAttribute(ATTRIBUTE_NAME);
+		return (cache instanceof RequestMatcherResultCache) ? (RequestMatcherResultCache) cache : null;
+	}
+
+	/**
+	 * Returns the remembered result of the given matcher
+	 * @param request the request
+	 * @param matcher the matcher
+	 * @return the result, or {@code null} if it is not known
+	 */
+	public Boolean getResult(HttpServletRequest request, RequestMatcher matcher) {
+		if (!isCurrent(request)) {
+			return null;
+		}
+		return this.results.get(matcher);
+	}
+
+	/**
+	 * Remembers the result of the given matcher
+	 * @param request the request
+	 * @param matcher the matcher
+	 * @param result whether the matcher matched
+	 */
+	public void putResult(HttpServletRequest request, RequestMatcher matcher, boolean result) {
+		Assert.notNull(matcher, "matcher cannot be null");
+		if (!isCurrent(request)) {
+			this.results.clear();
+			this.servletPath = request.getServletPath();
+			this.pathInfo = request.getPathInfo();
+			this.dispatcherType = request.getDispatcherType();
+		}
+		this.results.put(matcher, result);
+	}
+
+	/**
+	 * Whether the results were remembered for the values the matchers read from the
+	 * request.
+	 */
+	private boolean isCurrent(HttpServletRequest request) {
+		return this.dispatcherType != null && this.dispatcherType == request.getDispatcherType()
+				&& ObjectUtils.nullSafeEquals(this.servletPath, request.getServletPath())
+				&& ObjectUtils.nullSafeEquals(this.pathInfo, request.getPathInfo());
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Makes a {@link RequestMatcherResultCache} available to the rest of the filter chain.
+ *
+ * @since 5.5
+ */
+public final class RequestMatcherResultCacheFilter extends GenericFilterBean {
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		if (request.getAttribute(RequestMatcherResultCache.ATTRIBUTE_NAME) != null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		request.setAttribute(RequestMatcherResultCache.ATTRIBUTE_NAME, new RequestMatcherResultCache());
+		try {
+			chain.doFilter(request, response);
+		}
+		finally {
+			request.removeAttribute(RequestMatcherResultCache.ATTRIBUTE_NAME);
+		}
+	}
+
+}
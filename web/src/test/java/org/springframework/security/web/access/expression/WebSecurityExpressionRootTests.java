@@ -16,6 +16,8 @@
 
 package org.springframework.security.web.access.expression;
 
+import java.util.Collections;
+
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletResponse;
 
@@ -24,8 +26,11 @@ import org.junit.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.util.CidrSet;
+import org.springframework.security.web.util.matcher.CidrSetRequestMatcher;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -80,4 +85,19 @@ public class WebSecurityExpressionRootTests {
 		assertThat(root.hasIpAddress("202.24.0.0/14")).isTrue();
 	}
 
+	@Test
+	public void hasIpAddressInWhenAddressInNamedSetThenTrue() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRequestURI("/test");
+		WebSecurityExpressionRoot root = new WebSecurityExpressionRoot(mock(Authentication.class),
+				new FilterInvocation(request, mock(HttpServletResponse.class), mock(FilterChain.class)));
+		root.setIpAddressSets(Collections.singletonMap("partners",
+				new CidrSetRequestMatcher(CidrSet.of("192.168.1.0/24", "202.24.0.0/14"))));
+		request.setRemoteAddr("202.25.179.135");
+		assertThat(root.hasIpAddressIn("partners")).isTrue();
+		request.setRemoteAddr("192.168.2.1");
+		assertThat(root.hasIpAddressIn("partners")).isFalse();
+		assertThatIllegalArgumentException().isThrownBy(() -> root.hasIpAddressIn("unknown"));
+	}
+
 }
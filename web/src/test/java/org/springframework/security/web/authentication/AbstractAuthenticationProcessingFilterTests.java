@@ -16,6 +16,14 @@
 
 package org.springframework.security.web.authentication;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -28,6 +36,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.mock.web.MockFilterConfig;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -38,16 +47,20 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.rememberme.AbstractRememberMeServicesTests;
 import org.springframework.security.web.authentication.rememberme.TokenBasedRememberMeServices;
 import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextPersistenceFilter;
 import org.springframework.security.web.firewall.DefaultHttpFirewall;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -143,6 +156,168 @@ public class AbstractAuthenticationProcessingFilterTests {
 		assertThat(filter.getAuthenticationManager() != null).isTrue();
 	}
 
+	@Test
+	public void doFilterWhenAuthenticationExecutorThenAuthenticatesAsynchronously() throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationSuccessHandler(this.successHandler);
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(request.isAsyncStarted()).isTrue();
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(getDispatchedPath(request)).isEqualTo(request.getRequestURI());
+		assertThat(response.getRedirectedUrl()).isNull();
+		asyncDispatch(request);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/logged_in.jsp");
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorThenSecurityContextSavedOnAsyncDispatch() throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationSuccessHandler(this.successHandler);
+		filter.setAuthenticationExecutor(tasks::add);
+		SecurityContextPersistenceFilter persistenceFilter = new SecurityContextPersistenceFilter();
+		FilterChain chain = (req, res) -> filter.doFilter(req, res, new MockFilterChain(false));
+		persistenceFilter.doFilter(request, response, chain);
+		tasks.get(0).run();
+		asyncDispatch(request);
+		persistenceFilter.doFilter(request, response, chain);
+		SecurityContext saved = (SecurityContext) request.getSession()
+				.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+		assertThat(saved.getAuthentication().getName()).isEqualTo("test");
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/logged_in.jsp");
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorFailsThenUnsuccessfulAuthenticationOnAsyncDispatch()
+			throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(false);
+		filter.setAuthenticationFailureHandler(this.failureHandler);
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		tasks.get(0).run();
+		assertThat(response.getRedirectedUrl()).isNull();
+		asyncDispatch(request);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/failed.jsp");
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorRejectsThenUnsuccessfulAuthenticationOnAsyncDispatch()
+			throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationFailureHandler(this.failureHandler);
+		filter.setAuthenticationExecutor((task) -> {
+			throw new RejectedExecutionException();
+		});
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(getDispatchedPath(request)).isEqualTo(request.getRequestURI());
+		asyncDispatch(request);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/failed.jsp");
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorThrowsErrorThenRethrownOnAsyncDispatch() throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.errorToThrow = new Error("Mock requested to do so");
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		tasks.get(0).run();
+		assertThat(getDispatchedPath(request)).isEqualTo(request.getRequestURI());
+		asyncDispatch(request);
+		assertThatExceptionOfType(Error.class)
+				.isThrownBy(() -> filter.doFilter(request, response, new MockFilterChain(false)))
+				.withMessage("Mock requested to do so");
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorTimesOutThenUnsuccessfulAuthenticationOnAsyncDispatch()
+			throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationFailureHandler(this.failureHandler);
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		AtomicInteger dispatches = new AtomicInteger();
+		asyncContext.addDispatchHandler(dispatches::incrementAndGet);
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+		assertThat(dispatches).hasValue(1);
+		asyncDispatch(request);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/failed.jsp");
+		tasks.get(0).run();
+		assertThat(dispatches).hasValue(1);
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorFinishesAfterCompleteThenNotDispatched() throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		AtomicInteger dispatches = new AtomicInteger();
+		asyncContext.addDispatchHandler(dispatches::incrementAndGet);
+		asyncContext.complete();
+		tasks.get(0).run();
+		assertThat(dispatches).hasValue(0);
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationExecutorAndAsyncNotSupportedThenAuthenticatesSynchronously()
+			throws Exception {
+		MockHttpServletRequest request = createMockAuthenticationRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		List<Runnable> tasks = new ArrayList<>();
+		MockAuthenticationFilter filter = new MockAuthenticationFilter(true);
+		filter.setAuthenticationSuccessHandler(this.successHandler);
+		filter.setAuthenticationExecutor(tasks::add);
+		filter.doFilter(request, response, new MockFilterChain(false));
+		assertThat(tasks).isEmpty();
+		assertThat(response.getRedirectedUrl()).isEqualTo("/mycontext/logged_in.jsp");
+	}
+
+	private static String getDispatchedPath(MockHttpServletRequest request) {
+		return ((MockAsyncContext) request.getAsyncContext()).getDispatchedPath();
+	}
+
+	private static void asyncDispatch(MockHttpServletRequest request) {
+		request.setAsyncStarted(false);
+		request.setDispatcherType(DispatcherType.ASYNC);
+	}
+
 	@Test
 	public void testIgnoresAnyServletPathOtherThanFilterProcessesUrl() throws Exception {
 		// Setup our HTTP request
@@ -410,6 +585,8 @@ public class AbstractAuthenticationProcessingFilterTests {
 
 		private AuthenticationException exceptionToThrow;
 
+		private Error errorToThrow;
+
 		private boolean grantAccess;
 
 		MockAuthenticationFilter(boolean grantAccess) {
@@ -439,6 +616,9 @@ public class AbstractAuthenticationProcessingFilterTests {
 		@Override
 		public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
 				throws AuthenticationException {
+			if (this.errorToThrow != null) {
+				throw this.errorToThrow;
+			}
 			if (this.grantAccess) {
 				return new UsernamePasswordAuthenticationToken("test", "test",
 						AuthorityUtils.createAuthorityList("TEST"));
@@ -68,4 +68,14 @@ public class DefaultLogoutPageGeneratingFilterTests {
 				.andExpect(content().string(containsString("action=\"/context/logout\"")));
 	}
 
+	@Test
+	public void doFilterWhenRenderedTwiceThenHiddenInputsResolvedPerRequest() throws Exception {
+		this.filter.setResolveHiddenInputs((r) -> Collections.singletonMap("_csrf", r.getParameter("token")));
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new Object()).addFilters(this.filter).build();
+		mockMvc.perform(get("/logout").param("token", "csrf-token-1"))
+				.andExpect(content().string(containsString("value=\"csrf-token-1\"")));
+		mockMvc.perform(get("/logout").param("token", "csrf-token-2"))
+				.andExpect(content().string(containsString("value=\"csrf-token-2\"")));
+	}
+
 }
@@ -25,6 +25,8 @@ import reactor.core.publisher.Mono;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.security.web.server.util.matcher.SynchronousServerWebExchangeMatcher;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -47,6 +49,41 @@ public class WebFilterChainProxyTests {
 				.isNotFound();
 	}
 
+	@Test
+	public void filterWhenSynchronousNoMatchThenContinuesChainAnd404() {
+		List<WebFilter> filters = Arrays.asList(new Http200WebFilter());
+		SynchronousServerWebExchangeMatcher notMatch = (exchange) -> MatchResult.notMatched();
+		MatcherSecurityWebFilterChain chain = new MatcherSecurityWebFilterChain(notMatch, filters);
+		WebFilterChainProxy filter = new WebFilterChainProxy(chain);
+		WebTestClient.bindToController(new Object()).webFilter(filter).build().get().exchange().expectStatus()
+				.isNotFound();
+	}
+
+	@Test
+	public void filterWhenSynchronousMatchThenInvokesMatchingChain() {
+		SynchronousServerWebExchangeMatcher notMatch = (exchange) -> MatchResult.notMatched();
+		MatcherSecurityWebFilterChain first = new MatcherSecurityWebFilterChain(notMatch,
+				Arrays.asList((exchange, chain) -> chain.filter(exchange)));
+		MatcherSecurityWebFilterChain second = new MatcherSecurityWebFilterChain(
+				ServerWebExchangeMatchers.anyExchange(), Arrays.asList(new Http200WebFilter()));
+		WebFilterChainProxy filter = new WebFilterChainProxy(first, second);
+		WebTestClient.bindToController(new Object()).webFilter(filter).build().get().exchange().expectStatus()
+				.isForbidden();
+	}
+
+	@Test
+	public void filterWhenAsynchronousMatcherThenInvokesMatchingChain() {
+		SynchronousServerWebExchangeMatcher notMatch = (exchange) -> MatchResult.notMatched();
+		ServerWebExchangeMatcher match = (exchange) -> MatchResult.match();
+		MatcherSecurityWebFilterChain first = new MatcherSecurityWebFilterChain(notMatch,
+				Arrays.asList((exchange, chain) -> chain.filter(exchange)));
+		MatcherSecurityWebFilterChain second = new MatcherSecurityWebFilterChain(match,
+				Arrays.asList(new Http200WebFilter()));
+		WebFilterChainProxy filter = new WebFilterChainProxy(first, second);
+		WebTestClient.bindToController(new Object()).webFilter(filter).build().get().exchange().expectStatus()
+				.isForbidden();
+	}
+
 	static class Http200WebFilter implements WebFilter {
 
 		@Override
@@ -27,6 +27,8 @@ import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.PathPatternParserServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcherEntry;
 import org.springframework.web.server.ServerWebExchange;
@@ -94,4 +96,63 @@ public class DelegatingReactiveAuthorizationManagerTests {
 		verifyZeroInteractions(this.delegate1);
 	}
 
+	@Test
+	public void checkWhenPathMatchersThenFirstMatchingInOrderInvoked() {
+		this.manager = DelegatingReactiveAuthorizationManager.builder()
+				.add(new ServerWebExchangeMatcherEntry<>(new PathPatternParserServerWebExchangeMatcher("/admin/**"),
+						this.delegate1))
+				.add(new ServerWebExchangeMatcherEntry<>(new PathPatternParserServerWebExchangeMatcher("/test"),
+						this.delegate2))
+				.build();
+		given(this.delegate2.check(eq(this.authentication), any(AuthorizationContext.class)))
+				.willReturn(Mono.just(this.decision));
+		assertThat(this.manager.check(this.authentication, this.exchange).block()).isEqualTo(this.decision);
+		verifyZeroInteractions(this.delegate1);
+	}
+
+	@Test
+	public void checkWhenMatchingDelegateEmptyThenNextMatchingInvoked() {
+		this.manager = DelegatingReactiveAuthorizationManager.builder()
+				.add(new ServerWebExchangeMatcherEntry<>(new PathPatternParserServerWebExchangeMatcher("/test"),
+						this.delegate1))
+				.add(new ServerWebExchangeMatcherEntry<>(this.match2, this.delegate2)).build();
+		given(this.delegate1.check(eq(this.authentication), any(AuthorizationContext.class))).willReturn(Mono.empty());
+		given(this.match2.matches(any())).willReturn(ServerWebExchangeMatcher.MatchResult.match());
+		given(this.delegate2.check(eq(this.authentication), any(AuthorizationContext.class)))
+				.willReturn(Mono.just(this.decision));
+		assertThat(this.manager.check(this.authentication, this.exchange).block()).isEqualTo(this.decision);
+	}
+
+	@Test
+	public void checkWhenNoMatchThenDenied() {
+		this.manager = DelegatingReactiveAuthorizationManager.builder()
+				.add(new ServerWebExchangeMatcherEntry<>(new PathPatternParserServerWebExchangeMatcher("/admin/**"),
+						this.delegate1))
+				.build();
+		assertThat(this.manager.check(this.authentication, this.exchange).block().isGranted()).isFalse();
+		verifyZeroInteractions(this.delegate1);
+	}
+
+	@Test
+	public void checkWhenMatcherSubclassOverridesMatchesThenOverrideUsed() {
+		ServerWebExchangeMatcher neverMatches = new NegatedServerWebExchangeMatcher(
+				new PathPatternParserServerWebExchangeMatcher("/admin/**")) {
+
+			@Override
+			public Mono<MatchResult> matches(ServerWebExchange exchange) {
+				return MatchResult.notMatch();
+			}
+
+		};
+		this.manager = DelegatingReactiveAuthorizationManager.builder()
+				.add(new ServerWebExchangeMatcherEntry<>(neverMatches, this.delegate1))
+				.add(new ServerWebExchangeMatcherEntry<>(new PathPatternParserServerWebExchangeMatcher("/test"),
+						this.delegate2))
+				.build();
+		given(this.delegate2.check(eq(this.authentication), any(AuthorizationContext.class)))
+				.willReturn(Mono.just(this.decision));
+		assertThat(this.manager.check(this.authentication, this.exchange).block()).isEqualTo(this.decision);
+		verifyZeroInteractions(this.delegate1);
+	}
+
 }
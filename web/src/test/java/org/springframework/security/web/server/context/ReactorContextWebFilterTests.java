@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.security.web.server.context;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,6 +35,7 @@ import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.test.web.reactive.server.WebTestHandler;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import org.springframework.web.server.handler.DefaultWebFilterChain;
@@ -102,6 +105,54 @@ public class ReactorContextWebFilterTests {
 		this.securityContext.assertWasNotSubscribed();
 	}
 
+	@Test
+	public void filterWhenGetPrincipalMultipleTimesThenLoadsEachTime() {
+		AtomicInteger loads = new AtomicInteger();
+		given(this.repository.load(any())).willReturn(countingLoad(loads));
+		this.handler = WebTestHandler.bindToWebFilters(this.filter, this::getPrincipalTwice);
+		this.handler.exchange(this.exchange);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	public void filterWhenCacheSecurityContextAndGetPrincipalMultipleTimesThenLoadsOnce() {
+		AtomicInteger loads = new AtomicInteger();
+		given(this.repository.load(any())).willReturn(countingLoad(loads));
+		this.filter.setCacheSecurityContext(true);
+		this.handler = WebTestHandler.bindToWebFilters(this.filter, this::getPrincipalTwice);
+		this.handler.exchange(this.exchange);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	public void filterWhenCacheSecurityContextAndLoadFailsThenLoadsAgain() {
+		SecurityContextImpl context = new SecurityContextImpl(this.principal);
+		AtomicInteger loads = new AtomicInteger();
+		given(this.repository.load(any())).willReturn(Mono.defer(() -> (loads.incrementAndGet() == 1)
+				? Mono.error(new IllegalStateException("failed")) : Mono.just(context)));
+		this.filter.setCacheSecurityContext(true);
+		this.handler = WebTestHandler.bindToWebFilters(this.filter,
+				(e, c) -> ReactiveSecurityContextHolder.getContext().onErrorResume((ex) -> Mono.empty())
+						.then(ReactiveSecurityContextHolder.getContext()).map(SecurityContext::getAuthentication)
+						.doOnSuccess((p) -> assertThat(p).isSameAs(this.principal)).flatMap((p) -> c.filter(e)));
+		this.handler.exchange(this.exchange);
+		assertThat(loads).hasValue(2);
+	}
+
+	private Mono<SecurityContext> countingLoad(AtomicInteger loads) {
+		SecurityContextImpl context = new SecurityContextImpl(this.principal);
+		return Mono.fromCallable(() -> {
+			loads.incrementAndGet();
+			return context;
+		});
+	}
+
+	private Mono<Void> getPrincipalTwice(ServerWebExchange exchange, WebFilterChain chain) {
+		return ReactiveSecurityContextHolder.getContext().then(ReactiveSecurityContextHolder.getContext())
+				.map(SecurityContext::getAuthentication).doOnSuccess((p) -> assertThat(p).isSameAs(this.principal))
+				.flatMap((p) -> chain.filter(exchange));
+	}
+
 	@Test
 	// gh-4962
 	public void filterWhenMainContextThenDoesNotOverride() {
@@ -20,6 +20,7 @@ import org.junit.Test;
 
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.web.server.WebSession;
@@ -79,4 +80,54 @@ public class WebSessionServerSecurityContextRepositoryTests {
 		assertThat(context).isNull();
 	}
 
+	@Test
+	public void loadWhenCacheSecurityContextThenSessionReadOnce() {
+		this.repository.setCacheSecurityContext(true);
+		SecurityContext expected = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		this.exchange.getSession().block().getAttributes()
+				.put(WebSessionServerSecurityContextRepository.DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME, expected);
+		assertThat(this.repository.load(this.exchange).block()).isSameAs(expected);
+		assertThat(this.repository.load(this.exchange).block()).isSameAs(expected);
+		assertThat(this.repository.getCacheMisses()).isEqualTo(1);
+		assertThat(this.repository.getCacheHits()).isEqualTo(1);
+	}
+
+	@Test
+	public void saveWhenCacheSecurityContextAndUnchangedThenSkipped() {
+		this.repository.setCacheSecurityContext(true);
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		this.exchange.getSession().block().getAttributes()
+				.put(WebSessionServerSecurityContextRepository.DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME, context);
+		String originalSessionId = this.exchange.getSession().block().getId();
+		SecurityContext loaded = this.repository.load(this.exchange).block();
+		this.repository.save(this.exchange, loaded).block();
+		assertThat(this.exchange.getSession().block().getId()).isEqualTo(originalSessionId);
+		assertThat(this.repository.getSkippedSaves()).isEqualTo(1);
+	}
+
+	@Test
+	public void saveWhenCacheSecurityContextAndAnonymousThenSessionNotTouched() {
+		this.repository.setCacheSecurityContext(true);
+		String originalSessionId = this.exchange.getSession().block().getId();
+		assertThat(this.repository.load(this.exchange).block()).isNull();
+		this.repository.save(this.exchange, null).block();
+		assertThat(this.exchange.getSession().block().getId()).isEqualTo(originalSessionId);
+		assertThat(this.repository.getSkippedSaves()).isEqualTo(1);
+	}
+
+	@Test
+	public void saveWhenCacheSecurityContextAndAuthenticationChangedThenSaved() {
+		this.repository.setCacheSecurityContext(true);
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		this.exchange.getSession().block().getAttributes()
+				.put(WebSessionServerSecurityContextRepository.DEFAULT_SPRING_SECURITY_CONTEXT_ATTR_NAME, context);
+		String originalSessionId = this.exchange.getSession().block().getId();
+		SecurityContext loaded = this.repository.load(this.exchange).block();
+		loaded.setAuthentication(new TestingAuthenticationToken("admin", "password"));
+		this.repository.save(this.exchange, loaded).block();
+		assertThat(this.exchange.getSession().block().getId()).isNotEqualTo(originalSessionId);
+		assertThat(this.repository.getSkippedSaves()).isZero();
+		assertThat(this.repository.load(this.exchange).block()).isSameAs(loaded);
+	}
+
 }
@@ -45,4 +45,18 @@ public class LoginPageGeneratingWebFilterTests {
 		assertThat(exchange.getResponse().getBodyAsString().block()).contains("action=\"/login\"");
 	}
 
+	@Test
+	public void filterWhenRenderedTwiceThenRequestSpecificPartsRendered() {
+		LoginPageGeneratingWebFilter filter = new LoginPageGeneratingWebFilter();
+		filter.setFormLoginEnabled(true);
+		MockServerWebExchange error = MockServerWebExchange.from(MockServerHttpRequest.get("/login?error"));
+		filter.filter(error, (e) -> Mono.empty()).block();
+		assertThat(error.getResponse().getBodyAsString().block()).contains("Invalid credentials")
+				.doesNotContain("You have been signed out");
+		MockServerWebExchange logout = MockServerWebExchange.from(MockServerHttpRequest.get("/login?logout"));
+		filter.filter(logout, (e) -> Mono.empty()).block();
+		assertThat(logout.getResponse().getBodyAsString().block()).contains("You have been signed out")
+				.doesNotContain("Invalid credentials");
+	}
+
 }
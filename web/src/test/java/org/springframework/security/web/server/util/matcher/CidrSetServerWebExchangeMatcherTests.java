@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.web.util.CidrSet;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CidrSetServerWebExchangeMatcher}
+ */
+public class CidrSetServerWebExchangeMatcherTests {
+
+	@Test
+	public void matchesWhenRemoteAddressInSetThenMatch() {
+		CidrSetServerWebExchangeMatcher matcher = new CidrSetServerWebExchangeMatcher(
+				CidrSet.of("192.168.1.0/24", "2001:db8::/32"));
+		assertThat(matcher.matches(exchange("192.168.1.104")).block().isMatch()).isTrue();
+		assertThat(matcher.matches(exchange("2001:db8::1")).block().isMatch()).isTrue();
+		assertThat(matcher.matches(exchange("192.168.2.104")).block().isMatch()).isFalse();
+	}
+
+	@Test
+	public void matchesWhenNoRemoteAddressThenNotMatch() {
+		CidrSetServerWebExchangeMatcher matcher = new CidrSetServerWebExchangeMatcher(CidrSet.of("0.0.0.0/0"));
+		ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		assertThat(matcher.matches(exchange).block().isMatch()).isFalse();
+	}
+
+	@Test
+	public void reloadWhenSupplierChangedThenNewSetUsed() {
+		AtomicReference<CidrSet> cidrs = new AtomicReference<>(CidrSet.of("192.168.1.0/24"));
+		CidrSetServerWebExchangeMatcher matcher = new CidrSetServerWebExchangeMatcher(cidrs::get);
+		cidrs.set(CidrSet.of("10.0.0.0/8"));
+		matcher.reload();
+		assertThat(matcher.matchSynchronously(exchange("192.168.1.104")).isMatch()).isFalse();
+		assertThat(matcher.matchSynchronously(exchange("10.1.2.3")).isMatch()).isTrue();
+	}
+
+	private static ServerWebExchange exchange(String remoteAddress) {
+		return MockServerWebExchange
+				.from(MockServerHttpRequest.get("/").remoteAddress(new InetSocketAddress(remoteAddress, 8080)));
+	}
+
+}
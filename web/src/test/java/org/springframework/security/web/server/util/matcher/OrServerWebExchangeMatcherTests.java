@@ -24,12 +24,15 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Mono;
 
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -89,4 +92,51 @@ public class OrServerWebExchangeMatcherTests {
 		verify(this.matcher2).matches(this.exchange);
 	}
 
+	@Test
+	public void matchesWhenSynchronousMatchersThenMatchesSynchronously() {
+		Map<String, Object> params = Collections.singletonMap("foo", "bar");
+		SynchronousServerWebExchangeMatcher notMatch = (exchange) -> ServerWebExchangeMatcher.MatchResult.notMatched();
+		SynchronousServerWebExchangeMatcher match = (exchange) -> ServerWebExchangeMatcher.MatchResult.matched(params);
+		OrServerWebExchangeMatcher matcher = new OrServerWebExchangeMatcher(notMatch, match);
+		assertThat(matcher.isSynchronous()).isTrue();
+		assertThat(matcher.matchSynchronously(this.exchange).getVariables()).isEqualTo(params);
+		assertThat(matcher.matches(this.exchange).block().getVariables()).isEqualTo(params);
+	}
+
+	@Test
+	public void matchesWhenSynchronousMatchersThenSynchronousCheckedOnce() {
+		SynchronousServerWebExchangeMatcher match = mock(SynchronousServerWebExchangeMatcher.class);
+		given(match.isSynchronous()).willReturn(true);
+		given(match.matchSynchronously(this.exchange)).willReturn(ServerWebExchangeMatcher.MatchResult.matched());
+		OrServerWebExchangeMatcher matcher = new OrServerWebExchangeMatcher(match);
+		assertThat(matcher.matches(this.exchange).block().isMatch()).isTrue();
+		assertThat(matcher.matches(this.exchange).block().isMatch()).isTrue();
+		verify(match, times(1)).isSynchronous();
+	}
+
+	@Test
+	public void isSynchronousWhenAnyMatcherNotSynchronousThenFalse() {
+		SynchronousServerWebExchangeMatcher match = (exchange) -> ServerWebExchangeMatcher.MatchResult.matched();
+		OrServerWebExchangeMatcher matcher = new OrServerWebExchangeMatcher(match, this.matcher1);
+		assertThat(matcher.isSynchronous()).isFalse();
+	}
+
+	@Test
+	public void isSynchronousWhenSubclassOverridesMatchesThenFalse() {
+		SynchronousServerWebExchangeMatcher match = (exchange) -> ServerWebExchangeMatcher.MatchResult.matched();
+		OrServerWebExchangeMatcher matcher = new OrServerWebExchangeMatcher(match) {
+
+			@Override
+			public Mono<MatchResult> matches(ServerWebExchange exchange) {
+				return MatchResult.notMatch();
+			}
+
+		};
+		assertThat(matcher.isSynchronous()).isFalse();
+		assertThat(SynchronousServerWebExchangeMatcher.isSynchronous(matcher)).isFalse();
+		OrServerWebExchangeMatcher outer = new OrServerWebExchangeMatcher(matcher);
+		assertThat(outer.isSynchronous()).isFalse();
+		assertThat(outer.matches(this.exchange).block().isMatch()).isFalse();
+	}
+
 }
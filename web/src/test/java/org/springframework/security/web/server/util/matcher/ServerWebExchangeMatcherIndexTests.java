@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.util.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ServerWebExchangeMatcherIndex}
+ */
+public class ServerWebExchangeMatcherIndexTests {
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ServerWebExchangeMatcherIndex<String>(null));
+	}
+
+	@Test
+	public void getCandidatesWhenPathMatchersThenOnlyMatchingPrefixesInOrder() {
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/admin/**"), "admin"));
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/api/users/{id}"), "user"));
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/api/orders/**"), "orders"));
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/api/*/details"), "details"));
+		entries.add(entry(ServerWebExchangeMatchers.anyExchange(), "any"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/api/users/1"))).containsExactly("user", "details",
+				"any");
+		assertThat(candidates(index, MockServerHttpRequest.get("/admin"))).containsExactly("admin", "any");
+		assertThat(candidates(index, MockServerHttpRequest.get("/other"))).containsExactly("any");
+	}
+
+	@Test
+	public void getCandidatesWhenMethodDoesNotMatchThenNotCandidate() {
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/api/**", HttpMethod.POST), "post"));
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/api/**", HttpMethod.GET), "get"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/api/1"))).containsExactly("get");
+		assertThat(candidates(index, MockServerHttpRequest.post("/api/1"))).containsExactly("post");
+	}
+
+	@Test
+	public void getCandidatesWhenOrOfPathMatchersThenIndexedByEachPattern() {
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(ServerWebExchangeMatchers.pathMatchers("/a/**", "/b/**"), "ab"));
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/c/**"), "c"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/b/1"))).containsExactly("ab");
+		assertThat(candidates(index, MockServerHttpRequest.get("/c"))).containsExactly("c");
+	}
+
+	@Test
+	public void getCandidatesWhenCaseInsensitivePatternThenCandidate() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setCaseSensitive(false);
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher(parser.parse("/Admin/**")), "admin"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/ADMIN/x"))).containsExactly("admin");
+	}
+
+	@Test
+	public void getCandidatesWhenNonAsciiSegmentThenAllEntries() {
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(new PathPatternParserServerWebExchangeMatcher("/admins/**"), "admins"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/admin\u017f/x"))).containsExactly("admins");
+	}
+
+	@Test
+	public void getCandidatesWhenNoPathMatchersThenAllEntries() {
+		List<ServerWebExchangeMatcherEntry<String>> entries = new ArrayList<>();
+		entries.add(entry(mock(ServerWebExchangeMatcher.class), "one"));
+		entries.add(entry(mock(ServerWebExchangeMatcher.class), "two"));
+		ServerWebExchangeMatcherIndex<String> index = new ServerWebExchangeMatcherIndex<>(entries);
+		assertThat(candidates(index, MockServerHttpRequest.get("/"))).containsExactly("one", "two");
+	}
+
+	private static ServerWebExchangeMatcherEntry<String> entry(ServerWebExchangeMatcher matcher, String value) {
+		return new ServerWebExchangeMatcherEntry<>(matcher, value);
+	}
+
+	private static List<String> candidates(ServerWebExchangeMatcherIndex<String> index,
+			MockServerHttpRequest.BaseBuilder<?> request) {
+		List<String> result = new ArrayList<>();
+		for (ServerWebExchangeMatcherEntry<String> entry : index
+				.getCandidates(MockServerWebExchange.from(request.build()))) {
+			result.add(entry.getEntry());
+		}
+		return result;
+	}
+
+}
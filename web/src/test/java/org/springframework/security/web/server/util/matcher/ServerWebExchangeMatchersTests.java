@@ -24,6 +24,7 @@ import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -65,6 +66,21 @@ public class ServerWebExchangeMatchersTests {
 				.isTrue();
 	}
 
+	@Test
+	public void pathMatchersWhenMultiThenVariablesOfMatchingPattern() {
+		ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/rob").build());
+		ServerWebExchangeMatcher.MatchResult result = ServerWebExchangeMatchers
+				.pathMatchers("/orders/{id}", "/users/{username}").matches(exchange).block();
+		assertThat(result.isMatch()).isTrue();
+		assertThat(result.getVariables()).containsOnly(entry("username", "rob"));
+	}
+
+	@Test
+	public void pathMatchersWhenMultiAndDiffMethodThenDoesNotMatch() {
+		assertThat(ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/foobar", "/").matches(this.exchange)
+				.block().isMatch()).isFalse();
+	}
+
 	@Test
 	public void anyExchangeWhenMockThenMatches() {
 		ServerWebExchange mockExchange = mock(ServerWebExchange.class);
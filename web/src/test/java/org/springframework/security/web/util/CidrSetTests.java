@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CidrSet}
+ */
+public class CidrSetTests {
+
+	@Test
+	public void containsWhenIpv4RangesThenMatchesAddressesInRanges() {
+		CidrSet cidrs = CidrSet.of("192.168.1.0/25", "202.24.0.0/14", "10.0.0.1");
+		assertThat(cidrs.contains("192.168.1.127")).isTrue();
+		assertThat(cidrs.contains("192.168.1.128")).isFalse();
+		assertThat(cidrs.contains("202.26.179.135")).isTrue();
+		assertThat(cidrs.contains("202.28.0.0")).isFalse();
+		assertThat(cidrs.contains("10.0.0.1")).isTrue();
+		assertThat(cidrs.contains("10.0.0.2")).isFalse();
+	}
+
+	@Test
+	public void containsWhenIpv6RangesThenMatchesAddressesInRanges() {
+		CidrSet cidrs = CidrSet.of("2001:db8::/32", "fe80::21f:5bff:fe33:bd68");
+		assertThat(cidrs.contains("2001:db8:85a3::8a2e:370:7334")).isTrue();
+		assertThat(cidrs.contains("2001:db9::1")).isFalse();
+		assertThat(cidrs.contains("fe80::21f:5bff:fe33:bd68")).isTrue();
+		assertThat(cidrs.contains("fe80::21f:5bff:fe33:bd69")).isFalse();
+	}
+
+	@Test
+	public void containsWhenOtherAddressFamilyThenFalse() {
+		assertThat(CidrSet.of("0.0.0.0/0").contains("::1")).isFalse();
+		assertThat(CidrSet.of("::/0").contains("127.0.0.1")).isFalse();
+	}
+
+	@Test
+	public void containsWhenNotAddressLiteralThenFalse() {
+		CidrSet cidrs = CidrSet.of("0.0.0.0/0");
+		assertThat(cidrs.contains("localhost")).isFalse();
+		assertThat(cidrs.contains("10.0.0")).isFalse();
+		assertThat(cidrs.contains("10.0.0.256")).isFalse();
+		assertThat(cidrs.contains((String) null)).isFalse();
+	}
+
+	@Test
+	public void containsWhenNotIpv6LiteralThenFalse() {
+		CidrSet cidrs = CidrSet.of("::/0");
+		assertThat(cidrs.contains("localhost:8080")).isFalse();
+		assertThat(cidrs.contains("example.com::1")).isFalse();
+		assertThat(cidrs.contains("%eth0::1")).isFalse();
+		assertThat(cidrs.contains(".:1")).isFalse();
+		assertThat(cidrs.contains("..::1")).isFalse();
+		assertThat(cidrs.contains("::1")).isTrue();
+	}
+
+	@Test
+	public void containsWhenOverlappingRangesThenMatchesUnion() {
+		CidrSet cidrs = CidrSet.of("10.1.2.0/24", "10.0.0.0/8", "10.1.0.0/16", "11.0.0.0/31");
+		assertThat(cidrs.contains("10.200.0.1")).isTrue();
+		assertThat(cidrs.contains("10.1.2.3")).isTrue();
+		assertThat(cidrs.contains("11.0.0.1")).isTrue();
+		assertThat(cidrs.contains("11.0.0.2")).isFalse();
+		assertThat(cidrs.contains("9.255.255.255")).isFalse();
+	}
+
+	@Test
+	public void containsWhenManyRangesThenSameAsIpAddressMatcher() {
+		String[] ranges = new String[256];
+		IpAddressMatcher[] matchers = new IpAddressMatcher[ranges.length];
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = "10." + i + "." + (i * 7 % 256) + ".0/" + (16 + i % 17);
+			matchers[i] = new IpAddressMatcher(ranges[i]);
+		}
+		CidrSet cidrs = CidrSet.of(ranges);
+		for (int i = 0; i < 256; i += 5) {
+			for (int j = 0; j < 256; j += 3) {
+				String address = "10." + i + "." + j + "." + (i ^ j);
+				boolean expected = false;
+				for (IpAddressMatcher matcher : matchers) {
+					expected |= matcher.matches(address);
+				}
+				assertThat(cidrs.contains(address)).describedAs(address).isEqualTo(expected);
+			}
+		}
+	}
+
+	@Test
+	public void ofWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> CidrSet.of("10.0.0.0/33"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CidrSet.of("10.0.0.0/x"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CidrSet.of("localhost"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CidrSet.of(""));
+	}
+
+	@Test
+	public void fromWhenResourceThenSkipsCommentsAndBlankLines() {
+		String content = "# partners\n192.168.0.0/16\n\n  2001:db8::/32  \n";
+		CidrSet cidrs = CidrSet.from(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+		assertThat(cidrs.size()).isEqualTo(2);
+		assertThat(cidrs.contains("192.168.3.4")).isTrue();
+		assertThat(cidrs.contains("2001:db8::1")).isTrue();
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PageTemplate}
+ */
+public class PageTemplateTests {
+
+	@Test
+	public void renderWhenNoSlotsThenPage() {
+		PageTemplate template = PageTemplate.compile("<html></html>", StandardCharsets.UTF_8);
+		assertThat(render(template)).isEqualTo("<html></html>");
+	}
+
+	@Test
+	public void renderWhenSlotsThenValuesSplicedIn() {
+		PageTemplate template = PageTemplate.compile(
+				"<p>" + PageTemplate.slot(0) + "</p><p>" + PageTemplate.slot(1) + PageTemplate.slot(0) + "</p>",
+				StandardCharsets.UTF_8);
+		assertThat(render(template, "a", "\u00e9")).isEqualTo("<p>a</p><p>\u00e9a</p>");
+	}
+
+	@Test
+	public void renderWhenValueMissingOrNullThenEmpty() {
+		PageTemplate template = PageTemplate.compile("[" + PageTemplate.slot(0) + "|" + PageTemplate.slot(1) + "]",
+				StandardCharsets.UTF_8);
+		assertThat(render(template, (String) null)).isEqualTo("[|]");
+	}
+
+	@Test
+	public void compileWhenUnterminatedSlotThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> PageTemplate.compile("<p>\u00000</p>", StandardCharsets.UTF_8));
+	}
+
+	private static String render(PageTemplate template, String... values) {
+		return new String(template.render(values), StandardCharsets.UTF_8);
+	}
+
+}
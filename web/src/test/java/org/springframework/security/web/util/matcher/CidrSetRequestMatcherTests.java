@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.CidrSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CidrSetRequestMatcher}
+ */
+public class CidrSetRequestMatcherTests {
+
+	@Test
+	public void constructorWhenNullSupplierThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CidrSetRequestMatcher((Supplier<CidrSet>) null));
+	}
+
+	@Test
+	public void matchesWhenRemoteAddressInSetThenTrue() {
+		CidrSetRequestMatcher matcher = new CidrSetRequestMatcher(CidrSet.of("192.168.1.0/24", "2001:db8::/32"));
+		assertThat(matcher.matches(request("192.168.1.104"))).isTrue();
+		assertThat(matcher.matches(request("2001:db8::1"))).isTrue();
+		assertThat(matcher.matches(request("192.168.2.104"))).isFalse();
+	}
+
+	@Test
+	public void reloadWhenSupplierChangedThenNewSetUsed() {
+		AtomicReference<CidrSet> cidrs = new AtomicReference<>(CidrSet.of("192.168.1.0/24"));
+		CidrSetRequestMatcher matcher = new CidrSetRequestMatcher(cidrs::get);
+		cidrs.set(CidrSet.of("10.0.0.0/8"));
+		assertThat(matcher.matches(request("192.168.1.104"))).isTrue();
+		matcher.reload();
+		assertThat(matcher.matches(request("192.168.1.104"))).isFalse();
+		assertThat(matcher.matches(request("10.1.2.3"))).isTrue();
+	}
+
+	@Test
+	public void reloadWhenSupplierReturnsNullThenException() {
+		AtomicReference<CidrSet> cidrs = new AtomicReference<>(CidrSet.of("192.168.1.0/24"));
+		CidrSetRequestMatcher matcher = new CidrSetRequestMatcher(cidrs::get);
+		cidrs.set(null);
+		assertThatIllegalArgumentException().isThrownBy(matcher::reload);
+		assertThat(matcher.matches(request("192.168.1.104"))).isTrue();
+	}
+
+	private static MockHttpServletRequest request(String remoteAddress) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remoteAddress);
+		return request;
+	}
+
+}
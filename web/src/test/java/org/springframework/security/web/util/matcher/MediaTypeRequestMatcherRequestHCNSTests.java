@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,9 @@ import org.springframework.web.accept.ContentNegotiationStrategy;
 import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Verify how integrates with {@link HeaderContentNegotiationStrategy}.
@@ -57,6 +60,39 @@ public class MediaTypeRequestMatcherRequestHCNSTests {
 		assertThat(this.matcher.matches(this.request)).isTrue();
 	}
 
+	@Test
+	public void matchesWhenSeveralMatchersThenAcceptHeaderResolvedOnce() {
+		this.request.addHeader("Accept", MediaType.APPLICATION_JSON_VALUE);
+		MockHttpServletRequest request = spy(this.request);
+		MediaTypeRequestMatcher html = new MediaTypeRequestMatcher(this.negotiationStrategy, MediaType.TEXT_HTML);
+		MediaTypeRequestMatcher json = new MediaTypeRequestMatcher(this.negotiationStrategy,
+				MediaType.APPLICATION_JSON);
+		assertThat(html.matches(request)).isFalse();
+		assertThat(json.matches(request)).isTrue();
+		assertThat(json.matches(request)).isTrue();
+		// once by the strategy and once per match to detect changes
+		verify(request, times(4)).getHeaders("Accept");
+	}
+
+	@Test
+	public void matchesWhenAcceptHeaderChangedThenResolvedAgain() {
+		this.request.addHeader("Accept", MediaType.APPLICATION_JSON_VALUE);
+		this.matcher = new MediaTypeRequestMatcher(this.negotiationStrategy, MediaType.TEXT_HTML);
+		assertThat(this.matcher.matches(this.request)).isFalse();
+		this.request.removeHeader("Accept");
+		this.request.addHeader("Accept", MediaType.TEXT_HTML_VALUE);
+		assertThat(this.matcher.matches(this.request)).isTrue();
+	}
+
+	@Test
+	public void matchesWhenIgnoredMediaTypesChangedThenNewResult() {
+		this.request.addHeader("Accept", MediaType.ALL_VALUE);
+		this.matcher = new MediaTypeRequestMatcher(this.negotiationStrategy, MediaType.TEXT_HTML);
+		assertThat(this.matcher.matches(this.request)).isTrue();
+		this.matcher.setIgnoredMediaTypes(Collections.singleton(MediaType.ALL));
+		assertThat(this.matcher.matches(this.request)).isFalse();
+	}
+
 	// ignoreMediaTypeAll
 	@Test
 	public void mediaAllIgnoreMediaTypeAll() {
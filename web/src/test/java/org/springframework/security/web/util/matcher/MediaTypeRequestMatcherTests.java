@@ -19,6 +19,8 @@ package org.springframework.security.web.util.matcher;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -353,4 +355,14 @@ public class MediaTypeRequestMatcherTests {
 		assertThat(this.matcher.matches(this.request)).isFalse();
 	}
 
+	@Test
+	public void setIgnoredMediaTypesWhenSetModifiedThenMatcherUnchanged() {
+		this.request.addHeader("Accept", MediaType.ALL_VALUE);
+		this.matcher = new MediaTypeRequestMatcher(MediaType.TEXT_HTML);
+		Set<MediaType> ignoredMediaTypes = new HashSet<>(Collections.singleton(MediaType.ALL));
+		this.matcher.setIgnoredMediaTypes(ignoredMediaTypes);
+		ignoredMediaTypes.clear();
+		assertThat(this.matcher.matches(this.request)).isFalse();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,16 @@ public class RegexRequestMatcherTests {
 		assertThat(matcher.matches(request)).isTrue();
 	}
 
+	@Test
+	public void matchesWhenQueryStringAndPatternCannotMatchQuestionMarkThenFalse() {
+		RegexRequestMatcher matcher = new RegexRequestMatcher("/any/path", null);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/any/path");
+		request.setServletPath("/any/path");
+		assertThat(matcher.matches(request)).isTrue();
+		request.setQueryString("x=y");
+		assertThat(matcher.matches(request)).isFalse();
+	}
+
 	@Test
 	public void requestHasNullMethodMatches() {
 		RegexRequestMatcher matcher = new RegexRequestMatcher("/something/.*", "GET");
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link RegexSetRequestMatcher}
+ */
+public class RegexSetRequestMatcherTests {
+
+	@Test
+	public void constructorWhenEmptyThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new RegexSetRequestMatcher(Collections.emptyList()));
+	}
+
+	@Test
+	public void indexOfWhenSeveralMatchThenFirst() {
+		RegexSetRequestMatcher matcher = new RegexSetRequestMatcher(new RegexRequestMatcher("/admin/.*", null),
+				new RegexRequestMatcher("/api/v1/(users|orders)/\\d+", null), new RegexRequestMatcher(".*", null));
+		assertThat(matcher.indexOf(request("GET", "/admin", "/users", null))).isEqualTo(0);
+		assertThat(matcher.indexOf(request("GET", "/api/v1/orders/12", null, null))).isEqualTo(1);
+		assertThat(matcher.indexOf(request("GET", "/other", null, null))).isEqualTo(2);
+	}
+
+	@Test
+	public void indexOfWhenMethodDoesNotMatchThenSkipped() {
+		RegexSetRequestMatcher matcher = new RegexSetRequestMatcher(new RegexRequestMatcher("/api/.*", "POST"),
+				new RegexRequestMatcher("/api/.*", "GET"));
+		assertThat(matcher.indexOf(request("GET", "/api/a", null, null))).isEqualTo(1);
+		assertThat(matcher.indexOf(request("DELETE", "/api/a", null, null))).isEqualTo(-1);
+	}
+
+	@Test
+	public void indexOfWhenQueryStringThenOnlyPatternsThatMayMatchIt() {
+		RegexSetRequestMatcher matcher = new RegexSetRequestMatcher(new RegexRequestMatcher("/login", null),
+				new RegexRequestMatcher("/login\\?error", null));
+		assertThat(matcher.indexOf(request("GET", "/login", null, null))).isEqualTo(0);
+		assertThat(matcher.indexOf(request("GET", "/login", null, "error"))).isEqualTo(1);
+		assertThat(matcher.matches(request("GET", "/login", null, "other"))).isFalse();
+	}
+
+	@Test
+	public void matchesWhenCaseInsensitiveThenPrefixIgnoresCase() {
+		RegexSetRequestMatcher matcher = new RegexSetRequestMatcher(
+				new RegexRequestMatcher("/admin/.*", null, true));
+		assertThat(matcher.matches(request("GET", "/ADMIN/users", null, null))).isTrue();
+		assertThat(matcher.matches(request("GET", "/adm/users", null, null))).isFalse();
+	}
+
+	private static MockHttpServletRequest request(String method, String servletPath, String pathInfo, String query) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+		request.setServletPath(servletPath);
+		request.setPathInfo(pathInfo);
+		request.setQueryString(query);
+		return request;
+	}
+
+}
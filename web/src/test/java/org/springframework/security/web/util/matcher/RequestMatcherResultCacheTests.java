@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RequestMatcherResultCache}
+ */
+public class RequestMatcherResultCacheTests {
+
+	@Test
+	public void getWhenNoFilterThenNull() {
+		assertThat(RequestMatcherResultCache.get(new MockHttpServletRequest())).isNull();
+	}
+
+	@Test
+	public void doFilterWhenChainThenCacheAvailableAndRemovedAfterwards() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		RequestMatcherResultCache[] cache = new RequestMatcherResultCache[1];
+		FilterChain chain = (req, res) -> cache[0] = RequestMatcherResultCache.get((HttpServletRequest) req);
+		new RequestMatcherResultCacheFilter().doFilter(request, new MockHttpServletResponse(), chain);
+		assertThat(cache[0]).isNotNull();
+		assertThat(RequestMatcherResultCache.get(request)).isNull();
+	}
+
+	@Test
+	public void getResultWhenEqualMatcherThenShared() {
+		MockHttpServletRequest request = createRequest("/login");
+		RequestMatcherResultCache cache = new RequestMatcherResultCache();
+		cache.putResult(request, new AntPathRequestMatcher("/login", "POST"), true);
+		assertThat(cache.getResult(request, new AntPathRequestMatcher("/login", "POST"))).isTrue();
+		assertThat(cache.getResult(request, new AntPathRequestMatcher("/login", "GET"))).isNull();
+	}
+
+	@Test
+	public void getResultWhenRequestForwardedThenDiscarded() {
+		MockHttpServletRequest request = createRequest("/login");
+		RequestMatcherResultCache cache = new RequestMatcherResultCache();
+		RequestMatcher matcher = new AntPathRequestMatcher("/login");
+		cache.putResult(request, matcher, true);
+		request.setDispatcherType(DispatcherType.FORWARD);
+		assertThat(cache.getResult(request, matcher)).isNull();
+		request.setDispatcherType(DispatcherType.REQUEST);
+		request.setServletPath("/other");
+		assertThat(cache.getResult(request, matcher)).isNull();
+	}
+
+	@Test
+	public void getResultWhenPathInfoChangedThenDiscarded() {
+		MockHttpServletRequest request = createRequest("/login");
+		RequestMatcherResultCache cache = new RequestMatcherResultCache();
+		RequestMatcher matcher = new AntPathRequestMatcher("/login");
+		cache.putResult(request, matcher, true);
+		request.setPathInfo("/other");
+		assertThat(cache.getResult(request, matcher)).isNull();
+	}
+
+	@Test
+	public void matchesWhenCacheThenResultReused() {
+		MockHttpServletRequest request = createRequest("/login");
+		request.setAttribute(RequestMatcherResultCache.ATTRIBUTE_NAME, new RequestMatcherResultCache());
+		assertThat(new AntPathRequestMatcher("/login").matches(request)).isTrue();
+		assertThat(RequestMatcherResultCache.get(request).getResult(request, new AntPathRequestMatcher("/login")))
+				.isTrue();
+		// the request URI is not read by the matchers, so it does not discard results
+		request.setRequestURI("/other");
+		assertThat(new AntPathRequestMatcher("/login").matches(request)).isTrue();
+	}
+
+	@Test
+	public void matchesWhenServletPathChangedThenResultNotReused() {
+		MockHttpServletRequest request = createRequest("/login");
+		request.setAttribute(RequestMatcherResultCache.ATTRIBUTE_NAME, new RequestMatcherResultCache());
+		assertThat(new AntPathRequestMatcher("/login").matches(request)).isTrue();
+		request.setServletPath("/other");
+		assertThat(new AntPathRequestMatcher("/login").matches(request)).isFalse();
+		assertThat(new AntPathRequestMatcher("/other").matches(request)).isTrue();
+	}
+
+	private static MockHttpServletRequest createRequest(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setServletPath(path);
+		return request;
+	}
+
+}